@@ -0,0 +1,27 @@
+package com.fullstack.fullstack.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Importación masiva de alumnos y cursos, e inscripción masiva (bulk-import.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "bulk-import")
+public class BulkImportProperties {
+
+    /**
+     * Filas que se validan e insertan juntas (una consulta de emails y una transacción por bloque)
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Errores por fila que se detallan en la respuesta; a partir de ahí solo se cuentan
+     */
+    private int maxReportedErrors = 1000;
+
+    /**
+     * Pares (curso, alumno) que se escriben en cada lote JDBC de inscripciones
+     */
+    private int enrollmentChunkSize = 500;
+}
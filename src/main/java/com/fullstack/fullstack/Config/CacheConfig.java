@@ -1,14 +1,62 @@
 package com.fullstack.fullstack.Config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 /**
  * Configuración para habilitar el caché
+ *
+ * Usa Caffeine como backend para que cada caché tenga un tamaño máximo y expiración
+ * (en lugar del ConcurrentMapCache por defecto, que nunca expira ni desaloja entradas).
+ * Las políticas se definen por caché en application-*.properties (ver CachePolicyProperties)
+ * y las estadísticas de aciertos/fallos/desalojos se publican en /actuator/metrics (cache.*).
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CachePolicyProperties.class)
+@Slf4j
 public class CacheConfig {
-    // Spring Boot autoconfigura el caché por defecto
-    // Podemos agregar configuraciones específicas aquí si es necesario
+
+    /**
+     * Cachés conocidas de la aplicación; se registran al arrancar para que
+     * sus métricas queden vinculadas desde el inicio
+     */
+    public static final List<String> CACHE_NAMES = List.of("users", "alumnos");
+
+    @Bean
+    public CacheManager cacheManager(CachePolicyProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Cachés creadas dinámicamente (no declaradas) también quedan acotadas
+        cacheManager.setCaffeine(builder(properties.getDefaults()));
+
+        for (String nombre : CACHE_NAMES) {
+            CachePolicyProperties.Policy policy = properties.policyFor(nombre);
+            log.info("Caché '{}': maximo={} expireAfterWrite={} expireAfterAccess={}",
+                    nombre, policy.getMaximumSize(), policy.getExpireAfterWrite(), policy.getExpireAfterAccess());
+            cacheManager.registerCustomCache(nombre, builder(policy).build());
+        }
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> builder(CachePolicyProperties.Policy policy) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (policy.getMaximumSize() != null) {
+            builder.maximumSize(policy.getMaximumSize());
+        }
+        if (policy.getExpireAfterWrite() != null) {
+            builder.expireAfterWrite(policy.getExpireAfterWrite());
+        }
+        if (policy.getExpireAfterAccess() != null) {
+            builder.expireAfterAccess(policy.getExpireAfterAccess());
+        }
+        return builder;
+    }
 }
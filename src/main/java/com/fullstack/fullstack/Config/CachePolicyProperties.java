@@ -0,0 +1,77 @@
+package com.fullstack.fullstack.Config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Políticas de caché configurables por nombre de caché
+ *
+ * Ejemplo en application-*.properties:
+ *   cache.policies.users.maximum-size=5000
+ *   cache.policies.users.expire-after-write=10m
+ *   cache.policies.users.expire-after-access=2m
+ *
+ * Las cachés sin política propia usan cache.defaults.*, y las que la declaran
+ * heredan de cache.defaults.* los campos que no definen
+ */
+@Data
+@ConfigurationProperties(prefix = "cache")
+public class CachePolicyProperties {
+
+    /**
+     * Política aplicada a las cachés que no declaran una propia
+     */
+    private Policy defaults = new Policy(10_000L, Duration.ofMinutes(10), null);
+
+    /**
+     * Políticas específicas indexadas por nombre de caché
+     */
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    /**
+     * Política efectiva de una caché: la suya propia completada con cache.defaults.*
+     */
+    public Policy policyFor(String cacheName) {
+        Policy policy = policies.get(cacheName);
+        return policy != null ? policy.withDefaults(defaults) : defaults;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Policy {
+        /**
+         * Número máximo de entradas antes de empezar a desalojar
+         * (null = el de cache.defaults.*; en cache.defaults.*, sin límite)
+         */
+        private Long maximumSize;
+
+        /**
+         * Tiempo de vida desde que se escribe la entrada
+         * (null = el de cache.defaults.*; en cache.defaults.*, sin límite)
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * Tiempo de vida desde el último acceso
+         * (null = el de cache.defaults.*; en cache.defaults.*, sin límite)
+         */
+        private Duration expireAfterAccess;
+
+        /**
+         * Copia de esta política con los campos sin definir tomados de otra
+         */
+        public Policy withDefaults(Policy defaults) {
+            return new Policy(
+                    maximumSize != null ? maximumSize : defaults.getMaximumSize(),
+                    expireAfterWrite != null ? expireAfterWrite : defaults.getExpireAfterWrite(),
+                    expireAfterAccess != null ? expireAfterAccess : defaults.getExpireAfterAccess());
+        }
+    }
+}
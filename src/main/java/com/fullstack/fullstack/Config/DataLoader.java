@@ -1,10 +1,12 @@
 package com.fullstack.fullstack.Config;
 
+import com.fullstack.fullstack.DTO.InscripcionRequest;
 import com.fullstack.fullstack.Model.Alumno;
 import com.fullstack.fullstack.Model.Curso;
 import com.fullstack.fullstack.Repository.AlumnoRepository;
 import com.fullstack.fullstack.Repository.CursoRepository;
-import com.fullstack.fullstack.Service.UserApiService;
+import com.fullstack.fullstack.Service.InscripcionService;
+import com.fullstack.fullstack.Service.UserApiHealthMonitor;
 import net.datafaker.Faker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -12,7 +14,9 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Component
@@ -26,7 +30,10 @@ public class DataLoader implements CommandLineRunner {
     private CursoRepository cursoRepository;
     
     @Autowired
-    private UserApiService userApiService;
+    private UserApiHealthMonitor userApiHealthMonitor;
+
+    @Autowired
+    private InscripcionService inscripcionService;
     
     private final Faker faker = new Faker();
     private final Random random = new Random();
@@ -34,7 +41,10 @@ public class DataLoader implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         // Si la API externa está disponible, no cargamos datos locales de alumnos
-        boolean apiExternaDisponible = userApiService.isApiAvailable();
+        // El estado lo da el primer sondeo del monitor de salud (se espera como mucho health.startup-wait)
+        UserApiHealthMonitor.Status estadoApi = userApiHealthMonitor.awaitFirstProbe();
+        boolean apiExternaDisponible = estadoApi == UserApiHealthMonitor.Status.UP
+                || estadoApi == UserApiHealthMonitor.Status.DEGRADED;
         
         if (!apiExternaDisponible && alumnoRepository.count() == 0 && cursoRepository.count() == 0) {
             System.out.println("API externa no disponible, cargando datos locales de prueba...");
@@ -116,22 +126,19 @@ public class DataLoader implements CommandLineRunner {
     }
 
     private void assignAlumnosToCursos(List<Alumno> alumnos, List<Curso> cursos) {
+        // Alumnos por curso; se escriben de una vez en curso_alumno sin guardar cada agregado
+        Map<Long, List<Long>> alumnosPorCurso = new LinkedHashMap<>();
         for (Alumno alumno : alumnos) {
-            // Cada alumno se inscribe en 1-4 cursos aleatoriamente
+            // Cada alumno se inscribe en 1-4 cursos aleatoriamente (los repetidos se ignoran)
             int numCursos = random.nextInt(4) + 1;
-            List<Curso> cursosAsignados = new ArrayList<>();
-            
             for (int i = 0; i < numCursos; i++) {
                 Curso cursoAleatorio = cursos.get(random.nextInt(cursos.size()));
-                if (!cursosAsignados.contains(cursoAleatorio)) {
-                    alumno.addCurso(cursoAleatorio);
-                    cursosAsignados.add(cursoAleatorio);
-                }
+                alumnosPorCurso.computeIfAbsent(cursoAleatorio.getId(), id -> new ArrayList<>()).add(alumno.getId());
             }
-            
-            alumnoRepository.save(alumno);
         }
-        
-        cursoRepository.saveAll(cursos);
+
+        inscripcionService.inscribir(alumnosPorCurso.entrySet().stream()
+                .map(entrada -> new InscripcionRequest(entrada.getKey(), entrada.getValue()))
+                .toList());
     }
-}
\ No newline at end of file
+}
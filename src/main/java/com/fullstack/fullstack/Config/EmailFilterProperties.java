@@ -0,0 +1,32 @@
+package com.fullstack.fullstack.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Filtro de Bloom de emails conocidos (email-filter.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "email-filter")
+public class EmailFilterProperties {
+
+    /**
+     * false = cada comprobación de email consulta siempre el directorio externo y la base local
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tasa de falsos positivos objetivo con la que se dimensiona el filtro
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * Capacidad extra sobre los emails conocidos al reconstruir, para las altas hasta la siguiente recarga
+     */
+    private double headroom = 0.5;
+
+    /**
+     * Capacidad mínima del filtro (en emails)
+     */
+    private int minCapacity = 10000;
+}
@@ -0,0 +1,31 @@
+package com.fullstack.fullstack.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Paginación por cursor de los listados (pagination.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "pagination")
+public class PaginationProperties {
+
+    /**
+     * Elementos por página cuando la petición no indica size
+     */
+    private int defaultSize = 50;
+
+    /**
+     * Máximo de elementos por página (los size mayores se recortan a este valor)
+     */
+    private int maxSize = 500;
+
+    /**
+     * @param solicitado Tamaño pedido en la petición (o null)
+     * @return Tamaño de página efectivo, entre 1 y max-size
+     */
+    public int resolveSize(Integer solicitado) {
+        int tamano = solicitado != null ? solicitado : defaultSize;
+        return Math.max(1, Math.min(tamano, maxSize));
+    }
+}
@@ -0,0 +1,113 @@
+package com.fullstack.fullstack.Config;
+
+import com.fullstack.fullstack.Resilience.AdaptiveTimeouts;
+import com.fullstack.fullstack.Resilience.Bulkhead;
+import com.fullstack.fullstack.Resilience.CircuitBreaker;
+import com.fullstack.fullstack.Resilience.Hedger;
+import com.fullstack.fullstack.Resilience.HttpErrorClassifier;
+import com.fullstack.fullstack.Resilience.RetryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuración de la integración con la API externa de usuarios
+ */
+@Configuration
+@EnableConfigurationProperties(UserApiProperties.class)
+public class UserApiConfig {
+
+    /**
+     * Circuit breaker compartido por todas las llamadas a la API externa de usuarios
+     * Las respuestas 4xx no cuentan como fallo del servicio
+     */
+    @Bean
+    public CircuitBreaker usersApiCircuitBreaker(UserApiProperties properties, MeterRegistry meterRegistry) {
+        return new CircuitBreaker("users-api", properties.getCircuitBreaker(),
+                HttpErrorClassifier::isServiceFailure, meterRegistry);
+    }
+
+    /**
+     * Hedging de las consultas de un usuario por ID (desactivado por defecto)
+     */
+    @Bean
+    public Hedger usersApiHedger(UserApiProperties properties, MeterRegistry meterRegistry) {
+        return new Hedger("encontrar", properties.getHedging(), meterRegistry);
+    }
+
+    /**
+     * Plazos adaptativos por endpoint de la API externa, calculados a partir de la latencia observada
+     */
+    @Bean
+    public AdaptiveTimeouts usersApiTimeouts(UserApiProperties properties, MeterRegistry meterRegistry) {
+        return new AdaptiveTimeouts(properties.getTimeouts(), meterRegistry);
+    }
+
+    /**
+     * Bulkhead de las llamadas bloqueantes a la API externa, para que no agoten los hilos de Tomcat
+     */
+    @Bean(destroyMethod = "shutdown")
+    public Bulkhead usersApiBulkhead(UserApiProperties properties, MeterRegistry meterRegistry) {
+        return new Bulkhead("users-api", properties.getBulkhead(), meterRegistry);
+    }
+
+    /**
+     * Presupuesto de reintentos compartido por todas las llamadas a la API externa
+     */
+    @Bean
+    public RetryBudget usersApiRetryBudget(UserApiProperties properties, MeterRegistry meterRegistry) {
+        return new RetryBudget("users-api", properties.getRetry(), meterRegistry);
+    }
+
+    /**
+     * Pool de conexiones dedicado a la API externa, separado del pool global de reactor-netty
+     * Con metrics(true) publica los gauges reactor.netty.connection.provider.*
+     * (active.connections, idle.connections, pending.connections, total.connections, max.connections)
+     * con el tag name=users-api
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider usersApiConnectionProvider(UserApiProperties properties) {
+        UserApiProperties.Pool pool = properties.getHttp().getPool();
+        return ConnectionProvider.builder(pool.getName())
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * WebClient hacia la API externa de usuarios, con timeouts configurables
+     */
+    @Bean
+    public WebClient usersApiWebClient(UserApiProperties properties, ConnectionProvider usersApiConnectionProvider) {
+        UserApiProperties.Http http = properties.getHttp();
+        HttpClient httpClient = HttpClient.create(usersApiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, http.isKeepAlive())
+                .keepAlive(http.isKeepAlive())
+                .compress(http.isCompression())
+                .doOnConnected(conn -> conn
+                        .addHandlerLast(new ReadTimeoutHandler(http.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(http.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+
+        return WebClient.builder()
+                .baseUrl(properties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize((int) http.getMaxInMemorySize().toBytes()))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.fullstack.fullstack.Config;
+
+import com.fullstack.fullstack.Resilience.AdaptiveTimeouts;
+import com.fullstack.fullstack.Resilience.Bulkhead;
+import com.fullstack.fullstack.Resilience.CircuitBreaker;
+import com.fullstack.fullstack.Resilience.Hedger;
+import com.fullstack.fullstack.Resilience.RetryBudget;
+import com.fullstack.fullstack.Service.UserApiHealthMonitor;
+import com.fullstack.fullstack.Service.UserDirectoryMirrorSync;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator (/actuator/usersapi) con el estado de resiliencia
+ * de la integración con la API externa de usuarios
+ */
+@Component
+@Endpoint(id = "usersapi")
+public class UserApiEndpoint {
+
+    private final CircuitBreaker circuitBreaker;
+    private final UserApiHealthMonitor healthMonitor;
+    private final UserDirectoryMirrorSync mirrorSync;
+    private final Hedger hedger;
+    private final AdaptiveTimeouts timeouts;
+    private final Bulkhead bulkhead;
+    private final RetryBudget retryBudget;
+
+    public UserApiEndpoint(CircuitBreaker circuitBreaker, UserApiHealthMonitor healthMonitor,
+                           UserDirectoryMirrorSync mirrorSync, Hedger usersApiHedger,
+                           AdaptiveTimeouts usersApiTimeouts, Bulkhead usersApiBulkhead,
+                           RetryBudget usersApiRetryBudget) {
+        this.bulkhead = usersApiBulkhead;
+        this.retryBudget = usersApiRetryBudget;
+        this.circuitBreaker = circuitBreaker;
+        this.hedger = usersApiHedger;
+        this.timeouts = usersApiTimeouts;
+        this.healthMonitor = healthMonitor;
+        this.mirrorSync = mirrorSync;
+    }
+
+    @ReadOperation
+    public Map<String, Object> estado() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+        estado.put("health", healthMonitor.describe());
+        estado.put("circuitBreaker", circuitBreaker.describe());
+        estado.put("mirror", mirrorSync.describe());
+        estado.put("hedging", hedger.describe());
+        estado.put("timeouts", timeouts.describe());
+        estado.put("bulkhead", bulkhead.describe());
+        estado.put("retry", retryBudget.describe());
+        return estado;
+    }
+}
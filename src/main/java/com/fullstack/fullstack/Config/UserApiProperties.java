@@ -0,0 +1,471 @@
+package com.fullstack.fullstack.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Propiedades de la integración con la API externa de usuarios (external.api.users.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "external.api.users")
+public class UserApiProperties {
+
+    /**
+     * URL base de la API externa de usuarios
+     */
+    private String baseUrl;
+
+    private Http http = new Http();
+
+    private Directory directory = new Directory();
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Batch batch = new Batch();
+
+    private Health health = new Health();
+
+    private Diagnostics diagnostics = new Diagnostics();
+
+    private Mirror mirror = new Mirror();
+
+    private Hedging hedging = new Hedging();
+
+    private Timeouts timeouts = new Timeouts();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Retry retry = new Retry();
+
+    private NegativeCache negativeCache = new NegativeCache();
+
+    /**
+     * Cliente HTTP saliente (timeouts y pool de conexiones dedicado)
+     */
+    @Data
+    public static class Http {
+        /**
+         * Tiempo máximo para establecer la conexión TCP
+         */
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Tiempo máximo sin recibir datos en una conexión abierta
+         */
+        private Duration readTimeout = Duration.ofSeconds(60);
+
+        /**
+         * Tiempo máximo para escribir la petición
+         */
+        private Duration writeTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Tamaño máximo de una respuesta que se decodifica en memoria
+         * (no aplica al directorio /api/usuarios/listar, que se lee en streaming)
+         */
+        private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+
+        /**
+         * Mantener las conexiones TCP activas con keep-alive
+         */
+        private boolean keepAlive = true;
+
+        /**
+         * Negociar gzip (Accept-Encoding) y descomprimir las respuestas de la API externa
+         */
+        private boolean compression = true;
+
+        private Pool pool = new Pool();
+    }
+
+    /**
+     * Pool de conexiones con nombre propio (métricas reactor.netty.connection.provider.*{name})
+     */
+    @Data
+    public static class Pool {
+        /**
+         * Nombre del pool, usado como tag en las métricas
+         */
+        private String name = "users-api";
+
+        /**
+         * Máximo de conexiones abiertas simultáneamente hacia la API externa
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Máximo de peticiones esperando una conexión libre (-1 = sin límite)
+         */
+        private int pendingAcquireMaxCount = 500;
+
+        /**
+         * Tiempo máximo esperando una conexión libre antes de fallar
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+
+        /**
+         * Las conexiones inactivas más de este tiempo se cierran
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * Vida máxima de una conexión, aunque esté en uso frecuente
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * Cada cuánto se revisan en segundo plano las conexiones inactivas o caducadas
+         */
+        private Duration evictInBackground = Duration.ofSeconds(60);
+    }
+
+    /**
+     * Refresco del directorio completo (/api/usuarios/listar) en modo stale-while-revalidate
+     */
+    @Data
+    public static class Directory {
+        /**
+         * Edad a partir de la cual la instantánea se considera vieja y se recarga en segundo plano
+         */
+        private Duration refreshAfter = Duration.ofMinutes(5);
+
+        /**
+         * Cada cuánto se revisa la edad de la instantánea (y separación mínima entre intentos fallidos)
+         */
+        private Duration checkInterval = Duration.ofSeconds(30);
+
+        /**
+         * Si es false, el directorio solo se recarga cuando un lector lo encuentra viejo
+         */
+        private boolean backgroundRefresh = true;
+    }
+
+    /**
+     * Circuit breaker alrededor de las llamadas a la API externa
+     */
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * Porcentaje de fallos en la ventana a partir del cual se abre el circuito
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Porcentaje de llamadas lentas en la ventana a partir del cual se abre el circuito
+         */
+        private float slowCallRateThreshold = 80;
+
+        /**
+         * Duración a partir de la cual una llamada se considera lenta
+         */
+        private Duration slowCallDuration = Duration.ofSeconds(10);
+
+        /**
+         * Número de llamadas recientes que se evalúan
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Mínimo de llamadas registradas antes de evaluar las tasas
+         */
+        private int minimumNumberOfCalls = 10;
+
+        /**
+         * Tiempo que el circuito permanece abierto antes de pasar a semiabierto
+         */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        /**
+         * Llamadas de prueba permitidas en estado semiabierto
+         */
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    /**
+     * Agrupación en lotes de las consultas por ID (getUsersByIds y getUserById concurrentes)
+     */
+    @Data
+    public static class Batch {
+        /**
+         * Tiempo que se esperan más consultas antes de resolver el lote (0 = sin espera)
+         */
+        private Duration window = Duration.ofMillis(10);
+
+        /**
+         * Máximo de IDs distintos por lote; al alcanzarlo el lote se resuelve de inmediato
+         */
+        private int maxSize = 100;
+
+        /**
+         * Máximo de llamadas paralelas a /api/usuarios/encontrar/{id} por lote
+         */
+        private int maxConcurrency = 8;
+
+        /**
+         * Tamaño de lote a partir del cual, si aún no hay directorio, se descarga la lista completa
+         * en lugar de consultar cada ID por separado
+         */
+        private int directoryThreshold = 10;
+    }
+
+    /**
+     * Monitor de salud en segundo plano (isApiAvailable y /api/alumnos/status/api-externa leen su estado)
+     */
+    @Data
+    public static class Health {
+        /**
+         * Si es false no hay sondeo periódico y cada consulta de disponibilidad hace un sondeo
+         */
+        private boolean enabled = true;
+
+        /**
+         * Cada cuánto se sondea la API externa
+         */
+        private Duration interval = Duration.ofSeconds(15);
+
+        /**
+         * Tiempo máximo de cada sondeo
+         */
+        private Duration timeout = Duration.ofSeconds(3);
+
+        /**
+         * Ruta sondeada con una petición HEAD (no se descarga el cuerpo)
+         */
+        private String probePath = "/api/usuarios/listar";
+
+        /**
+         * Latencia a partir de la cual la API se considera degradada
+         */
+        private Duration degradedLatency = Duration.ofSeconds(2);
+
+        /**
+         * Sondeos fallidos consecutivos para pasar de degradada a caída
+         */
+        private int failureThreshold = 2;
+
+        /**
+         * Tiempo máximo que el arranque espera el primer sondeo
+         */
+        private Duration startupWait = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Perfilador de latencia de GET /api/alumnos/diagnostico/conectividad
+     */
+    @Data
+    public static class Diagnostics {
+        /**
+         * Ruta de la API externa que se perfila
+         */
+        private String path = "/api/usuarios/listar";
+
+        /**
+         * Sondeos enviados por defecto en cada diagnóstico
+         */
+        private int probes = 10;
+
+        /**
+         * Sondeos simultáneos por defecto
+         */
+        private int concurrency = 5;
+
+        /**
+         * Límite de sondeos que puede pedir una petición de diagnóstico
+         */
+        private int maxProbes = 50;
+
+        /**
+         * Tiempo máximo del diagnóstico completo; los sondeos pendientes se cancelan
+         */
+        private Duration budget = Duration.ofSeconds(15);
+    }
+
+    /**
+     * Espejo local del directorio externo en la tabla alumnos
+     */
+    @Data
+    public static class Mirror {
+        /**
+         * Sincronizar la tabla alumnos con cada directorio descargado
+         */
+        private boolean enabled = true;
+
+        /**
+         * Tras la primera sincronización correcta, servir las lecturas de alumnos desde la base local
+         */
+        private boolean serveReads = true;
+
+        /**
+         * Filas por lote JDBC al aplicar los cambios
+         */
+        private int batchSize = 500;
+    }
+
+    /**
+     * Peticiones de cobertura (hedging) en las consultas de un usuario por ID
+     */
+    @Data
+    public static class Hedging {
+        /**
+         * Enviar una segunda consulta idéntica si la primera no responde a tiempo
+         */
+        private boolean enabled = false;
+
+        /**
+         * Espera antes de lanzar la cobertura mientras no hay muestras suficientes (o si adaptive=false)
+         */
+        private Duration delay = Duration.ofMillis(500);
+
+        /**
+         * Calcular la espera a partir del percentil observado de las latencias recientes
+         */
+        private boolean adaptive = true;
+
+        /**
+         * Percentil de latencia usado como espera cuando adaptive=true
+         */
+        private int percentile = 95;
+
+        /**
+         * Espera mínima, para no duplicar las consultas que ya son rápidas
+         */
+        private Duration minDelay = Duration.ofMillis(50);
+
+        /**
+         * Muestras de latencia necesarias antes de usar el percentil
+         */
+        private int minSamples = 20;
+
+        /**
+         * Coberturas permitidas por consulta (0.1 = como mucho un 10% de carga extra)
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Coberturas que se pueden acumular para absorber rachas lentas
+         */
+        private int budgetBurst = 10;
+    }
+
+    /**
+     * Plazos adaptativos por endpoint (percentil de la latencia observada x multiplicador)
+     */
+    @Data
+    public static class Timeouts {
+        /**
+         * Calcular el plazo de cada llamada a partir de la latencia observada; si no, plazos fijos
+         */
+        private boolean enabled = true;
+
+        /**
+         * Percentil de la latencia observada en que se basa el plazo
+         */
+        private int percentile = 99;
+
+        /**
+         * Margen sobre el percentil observado
+         */
+        private double multiplier = 3.0;
+
+        /**
+         * Plazo mínimo de una llamada
+         */
+        private Duration min = Duration.ofSeconds(1);
+
+        /**
+         * Plazo máximo de una llamada
+         */
+        private Duration max = Duration.ofSeconds(60);
+
+        /**
+         * Latencias recientes que se conservan por endpoint
+         */
+        private int windowSize = 200;
+
+        /**
+         * Muestras necesarias antes de abandonar el plazo inicial del endpoint
+         */
+        private int minSamples = 20;
+    }
+
+    /**
+     * Pool de hilos aislado para las llamadas bloqueantes a la API externa
+     */
+    @Data
+    public static class Bulkhead {
+        /**
+         * Ejecutar las llamadas bloqueantes en el pool del bulkhead; si no, en el hilo de la petición
+         */
+        private boolean enabled = true;
+
+        /**
+         * Llamadas bloqueantes simultáneas como máximo (hilos del pool)
+         */
+        private int maxConcurrentCalls = 20;
+
+        /**
+         * Llamadas que pueden esperar hilo libre; con la cola llena se rechazan al instante
+         */
+        private int queueCapacity = 20;
+
+        /**
+         * Ejecutar cada llamada en un hilo virtual (Java 21) en lugar del pool de hilos de plataforma
+         */
+        private boolean virtualThreads = false;
+    }
+
+    /**
+     * Reintentos de las llamadas a la API externa, limitados por un presupuesto compartido
+     */
+    @Data
+    public static class Retry {
+        /**
+         * Reintentos como máximo por llamada
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Espera antes del primer reintento (crece exponencialmente)
+         */
+        private Duration minBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Espera máxima entre reintentos
+         */
+        private Duration maxBackoff = Duration.ofSeconds(15);
+
+        /**
+         * Reintentos permitidos por cada llamada correcta (0.1 = como mucho un 10% del tráfico correcto)
+         */
+        private double ratio = 0.1;
+
+        /**
+         * Reintentos que se pueden acumular en el presupuesto
+         */
+        private int maxTokens = 10;
+    }
+
+    /**
+     * Caché de corta duración de IDs y emails que la API externa confirmó como inexistentes
+     */
+    @Data
+    public static class NegativeCache {
+        /**
+         * Si es false, cada búsqueda de un usuario inexistente vuelve a consultar la API externa
+         */
+        private boolean enabled = true;
+
+        /**
+         * Tiempo durante el que se recuerda que un usuario no existe
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * Número máximo de IDs y emails inexistentes recordados
+         */
+        private long maximumSize = 10_000;
+    }
+}
@@ -1,7 +1,14 @@
 package com.fullstack.fullstack.Controller;
 
+import com.fullstack.fullstack.DTO.AlumnoView;
+import com.fullstack.fullstack.DTO.BulkImportResult;
+import com.fullstack.fullstack.DTO.ConnectivityReport;
+import com.fullstack.fullstack.DTO.KeysetPage;
 import com.fullstack.fullstack.Model.Alumno;
+import com.fullstack.fullstack.Resilience.BulkheadFullException;
 import com.fullstack.fullstack.Service.AlumnoService;
+import com.fullstack.fullstack.Service.BulkImportService;
+import com.fullstack.fullstack.Service.UserApiLatencyProfiler;
 import com.fullstack.fullstack.Service.UserApiService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,13 +17,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 @RestController
 @RequestMapping("/api/alumnos")
 @CrossOrigin(origins = "*")
@@ -30,17 +45,38 @@ public class AlumnoController {
     @Autowired
     private UserApiService userApiService;
 
+    @Autowired
+    private UserApiLatencyProfiler latencyProfiler;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @GetMapping
     @Operation(summary = "Listar todos los alumnos", 
-               description = "Obtiene una lista de todos los alumnos. Prioriza datos de la API externa de usuarios, con fallback a datos locales.")
+               description = "Obtiene una lista de todos los alumnos ordenada por ID (id, nombre, email, activo). Prioriza datos de la API externa de usuarios, con fallback a datos locales. Con size o cursor devuelve una página HATEOAS con un enlace next que lleva el cursor de la siguiente.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de alumnos obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor de paginación inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<List<Alumno>> listar() {
+    public ResponseEntity<?> listar(
+            @Parameter(description = "Cursor de la página siguiente (tomado del enlace next)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Alumnos por página; sin size ni cursor se devuelven todos") @RequestParam(required = false) Integer size) {
         try {
-            List<Alumno> alumnos = alumnoService.obtenerTodos();
-            return ResponseEntity.ok(alumnos);
+            if (cursor == null && size == null) {
+                // Proyección precalculada: la petición solo serializa la lista compartida
+                List<AlumnoView> alumnos = alumnoService.obtenerVista().getAlumnos();
+                return ResponseEntity.ok(alumnos);
+            }
+            KeysetPage<AlumnoView> pagina = alumnoService.obtenerPagina(KeysetPage.decodeCursor(cursor), size);
+            CollectionModel<AlumnoView> resultado = CollectionModel.of(pagina.items())
+                    .add(linkTo(methodOn(AlumnoController.class).listar(cursor, size)).withSelfRel().expand());
+            if (pagina.hasNext()) {
+                resultado.add(linkTo(methodOn(AlumnoController.class).listar(pagina.nextCursor(), size)).withRel(IanaLinkRelations.NEXT).expand());
+            }
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -70,12 +106,15 @@ public class AlumnoController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Alumno creado exitosamente"),
         @ApiResponse(responseCode = "400", description = "Datos inválidos o email ya existe"),
+        @ApiResponse(responseCode = "503", description = "API externa saturada, no se pudo verificar el email"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     public ResponseEntity<Alumno> crear(@Parameter(description = "Datos del alumno a crear") @RequestBody Alumno alumno) {
         try {
             Alumno creado = alumnoService.crear(alumno);
             return ResponseEntity.status(HttpStatus.CREATED).body(creado);
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         } catch (Exception e) {
@@ -83,6 +122,26 @@ public class AlumnoController {
         }
     }
 
+    @PostMapping(value = "/importar", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Importar alumnos de forma masiva",
+               description = "Recibe un array JSON o un flujo NDJSON de alumnos y los crea en bloques. " +
+                             "Las filas inválidas o con email ya registrado se rechazan sin abortar la carga.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Carga procesada; el cuerpo detalla las filas creadas y rechazadas"),
+        @ApiResponse(responseCode = "503", description = "API externa saturada, no se pudieron verificar los emails"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<BulkImportResult> importar(@Parameter(description = "Array JSON o NDJSON de alumnos") InputStream cuerpo) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importarAlumnos(cuerpo));
+        } catch (BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error en la importación masiva de alumnos: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar alumno", 
                description = "Actualiza un alumno existente tanto en la API externa como en la base de datos local. Prioriza la API externa.")
@@ -142,6 +201,112 @@ public class AlumnoController {
         }
     }
 
+    @GetMapping("/lote")
+    @Operation(summary = "Obtener varios alumnos por ID", 
+               description = "Devuelve los alumnos de la lista de IDs resolviéndolos en lote contra la API externa de usuarios, con fallback a datos locales. Útil para mostrar los alumnos de un curso.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alumnos obtenidos exitosamente"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<List<Alumno>> obtenerLote(@Parameter(description = "IDs de los alumnos, separados por comas") @RequestParam List<Long> ids) {
+        try {
+            List<Alumno> alumnos = alumnoService.obtenerPorIds(ids);
+            return ResponseEntity.ok(alumnos);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/reactivo")
+    @Operation(summary = "Listar todos los alumnos (no bloqueante)", 
+               description = "Igual que GET /api/alumnos, pero la petición se resuelve de forma asíncrona sin ocupar un hilo del servidor mientras se espera a la API externa.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de alumnos obtenida exitosamente"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<List<Alumno>>> listarReactivo() {
+        return alumnoService.obtenerTodosReactivo()
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @GetMapping("/reactivo/{id}")
+    @Operation(summary = "Obtener alumno por ID (no bloqueante)", 
+               description = "Igual que GET /api/alumnos/{id}, resuelto de forma asíncrona.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alumno encontrado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Alumno no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<Alumno>> obtenerReactivo(@Parameter(description = "ID del alumno a buscar") @PathVariable Long id) {
+        return alumnoService.obtenerPorIdReactivo(id)
+                .map(alumno -> alumno.map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @GetMapping("/reactivo/email/{email}")
+    @Operation(summary = "Buscar alumno por email (no bloqueante)", 
+               description = "Igual que GET /api/alumnos/email/{email}, resuelto de forma asíncrona.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alumno encontrado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Alumno no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<Alumno>> buscarPorEmailReactivo(@Parameter(description = "Email del alumno a buscar") @PathVariable String email) {
+        return alumnoService.obtenerPorEmailReactivo(email)
+                .map(alumno -> alumno.map(ResponseEntity::ok)
+                        .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @PostMapping("/reactivo")
+    @Operation(summary = "Crear nuevo alumno (no bloqueante)", 
+               description = "Igual que POST /api/alumnos, resuelto de forma asíncrona.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Alumno creado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o email ya existe"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<Alumno>> crearReactivo(@Parameter(description = "Datos del alumno a crear") @RequestBody Alumno alumno) {
+        return alumnoService.crearReactivo(alumno)
+                .map(creado -> ResponseEntity.status(HttpStatus.CREATED).body(creado))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @PutMapping("/reactivo/{id}")
+    @Operation(summary = "Actualizar alumno (no bloqueante)", 
+               description = "Igual que PUT /api/alumnos/{id}, resuelto de forma asíncrona.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Alumno actualizado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Alumno no encontrado para actualizar"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<Alumno>> actualizarReactivo(
+            @Parameter(description = "ID del alumno a actualizar") @PathVariable Long id, 
+            @Parameter(description = "Nuevos datos del alumno") @RequestBody Alumno alumno) {
+        return alumnoService.actualizarReactivo(id, alumno)
+                .map(ResponseEntity::ok)
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
+    @DeleteMapping("/reactivo/{id}")
+    @Operation(summary = "Eliminar alumno (no bloqueante)", 
+               description = "Igual que DELETE /api/alumnos/{id}, resuelto de forma asíncrona.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Alumno eliminado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Alumno no encontrado para eliminar"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Mono<ResponseEntity<Void>> eliminarReactivo(@Parameter(description = "ID del alumno a eliminar") @PathVariable Long id) {
+        return alumnoService.eliminarReactivo(id)
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build()))
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+    }
+
     @GetMapping("/status/api-externa")
     @Operation(summary = "Verificar estado de la API externa", 
                description = "Verifica si la API externa de usuarios está disponible.")
@@ -161,19 +326,17 @@ public class AlumnoController {
 
     @GetMapping("/diagnostico/conectividad")
     @Operation(summary = "Diagnóstico de conectividad", 
-               description = "Ejecuta pruebas de conectividad con diferentes timeouts para diagnosticar problemas de red.")
+               description = "Lanza sondeos concurrentes a la API externa y devuelve el tiempo de conexión, el tiempo hasta el primer byte, los percentiles de latencia (p50/p95/p99) y el tamaño de la respuesta, dentro de un presupuesto de tiempo acotado.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Diagnóstico completado"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<String> diagnosticarConectividad() {
-        try {
-            String resultado = userApiService.diagnosticarConectividad();
-            return ResponseEntity.ok(resultado);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error al ejecutar diagnóstico: " + e.getMessage());
-        }
+    public Mono<ResponseEntity<ConnectivityReport>> diagnosticarConectividad(
+            @Parameter(description = "Número de sondeos (por defecto external.api.users.diagnostics.probes)") @RequestParam(required = false) Integer sondeos,
+            @Parameter(description = "Sondeos simultáneos (por defecto external.api.users.diagnostics.concurrency)") @RequestParam(required = false) Integer concurrencia) {
+        return latencyProfiler.perfilar(sondeos, concurrencia)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build()));
     }
 
     @GetMapping("/debug/test-api")
@@ -1,7 +1,13 @@
 package com.fullstack.fullstack.Controller;
 
+import com.fullstack.fullstack.DTO.BulkImportResult;
+import com.fullstack.fullstack.DTO.InscripcionRequest;
+import com.fullstack.fullstack.DTO.InscripcionResult;
+import com.fullstack.fullstack.DTO.KeysetPage;
 import com.fullstack.fullstack.Model.Curso;
+import com.fullstack.fullstack.Service.BulkImportService;
 import com.fullstack.fullstack.Service.CursoService;
+import com.fullstack.fullstack.Service.InscripcionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,10 +16,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -29,14 +38,32 @@ public class CursoController {
     @Autowired
     private CursoService cursoService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private InscripcionService inscripcionService;
+
     @GetMapping
-    @Operation(summary = "Listar todos los cursos", description = "Obtiene una lista de todos los cursos disponibles con enlaces HATEOAS")
+    @Operation(summary = "Listar todos los cursos", description = "Obtiene una lista de todos los cursos disponibles con enlaces HATEOAS. Con size o cursor devuelve una página ordenada por ID y, si hay más, un enlace next con el cursor de la siguiente.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de cursos obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor de paginación inválido"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<CollectionModel<EntityModel<Curso>>> listar() {
-        List<Curso> cursos = cursoService.obtenerTodos();
+    public ResponseEntity<CollectionModel<EntityModel<Curso>>> listar(
+            @Parameter(description = "Cursor de la página siguiente (tomado del enlace next)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cursos por página; sin size ni cursor se devuelven todos") @RequestParam(required = false) Integer size) {
+        boolean paginado = cursor != null || size != null;
+        KeysetPage<Curso> pagina = null;
+        if (paginado) {
+            try {
+                pagina = cursoService.obtenerPagina(KeysetPage.decodeCursor(cursor), size);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            }
+        }
+        List<Curso> cursos = paginado ? pagina.items() : cursoService.obtenerTodos();
         
         // Crear EntityModel para cada curso con sus enlaces
         List<EntityModel<Curso>> cursosConEnlaces = cursos.stream()
@@ -48,8 +75,11 @@ public class CursoController {
         
         // Crear CollectionModel con enlaces de la colección
         CollectionModel<EntityModel<Curso>> resultado = CollectionModel.of(cursosConEnlaces)
-                .add(linkTo(methodOn(CursoController.class).listar()).withSelfRel())
+                .add(linkTo(methodOn(CursoController.class).listar(cursor, size)).withSelfRel().expand())
                 .add(linkTo(methodOn(CursoController.class).crear(null)).withRel("crear"));
+        if (pagina != null && pagina.hasNext()) {
+            resultado.add(linkTo(methodOn(CursoController.class).listar(pagina.nextCursor(), size)).withRel(IanaLinkRelations.NEXT).expand());
+        }
         
         return ResponseEntity.ok(resultado);
     }
@@ -69,7 +99,7 @@ public class CursoController {
                     .add(linkTo(methodOn(CursoController.class).obtener(id)).withSelfRel())
                     .add(linkTo(methodOn(CursoController.class).actualizar(id, curso.get())).withRel("actualizar"))
                     .add(linkTo(methodOn(CursoController.class).eliminar(id)).withRel("eliminar"))
-                    .add(linkTo(methodOn(CursoController.class).listar()).withRel("cursos"));
+                    .add(linkTo(methodOn(CursoController.class).listar(null, null)).withRel("cursos").expand());
             
             return ResponseEntity.ok(cursoConEnlaces);
         } else {
@@ -92,7 +122,7 @@ public class CursoController {
                     .add(linkTo(methodOn(CursoController.class).obtener(creado.getId())).withSelfRel())
                     .add(linkTo(methodOn(CursoController.class).actualizar(creado.getId(), creado)).withRel("actualizar"))
                     .add(linkTo(methodOn(CursoController.class).eliminar(creado.getId())).withRel("eliminar"))
-                    .add(linkTo(methodOn(CursoController.class).listar()).withRel("cursos"));
+                    .add(linkTo(methodOn(CursoController.class).listar(null, null)).withRel("cursos").expand());
             
             return ResponseEntity.status(HttpStatus.CREATED).body(cursoConEnlaces);
         } catch (Exception e) {
@@ -100,6 +130,38 @@ public class CursoController {
         }
     }
 
+    @PostMapping(value = "/importar", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Importar cursos de forma masiva",
+               description = "Recibe un array JSON o un flujo NDJSON de cursos y los crea en bloques. Las filas inválidas se rechazan sin abortar la carga.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Carga procesada; el cuerpo detalla las filas creadas y rechazadas"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<BulkImportResult> importar(@Parameter(description = "Array JSON o NDJSON de cursos") InputStream cuerpo) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importarCursos(cuerpo));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/inscripciones")
+    @Operation(summary = "Inscribir alumnos en cursos de forma masiva",
+               description = "Recibe pares (cursoId, [alumnoIds]) y los inscribe en bloques sin cargar las colecciones. " +
+                             "Las inscripciones ya existentes y los IDs inexistentes se omiten.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Inscripción procesada; el cuerpo indica los pares inscritos y omitidos"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<InscripcionResult> inscribir(
+            @Parameter(description = "Alumnos a inscribir por curso") @RequestBody List<InscripcionRequest> inscripciones) {
+        try {
+            return ResponseEntity.ok(inscripcionService.inscribir(inscripciones));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar curso", description = "Actualiza un curso existente con los nuevos datos proporcionados y devuelve enlaces HATEOAS")
     @ApiResponses(value = {
@@ -119,7 +181,7 @@ public class CursoController {
                         .add(linkTo(methodOn(CursoController.class).obtener(id)).withSelfRel())
                         .add(linkTo(methodOn(CursoController.class).actualizar(id, actualizado.get())).withRel("actualizar"))
                         .add(linkTo(methodOn(CursoController.class).eliminar(id)).withRel("eliminar"))
-                        .add(linkTo(methodOn(CursoController.class).listar()).withRel("cursos"));
+                        .add(linkTo(methodOn(CursoController.class).listar(null, null)).withRel("cursos").expand());
                 
                 return ResponseEntity.ok(cursoConEnlaces);
             } else {
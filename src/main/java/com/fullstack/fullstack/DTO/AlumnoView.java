@@ -0,0 +1,18 @@
+package com.fullstack.fullstack.DTO;
+
+import com.fullstack.fullstack.Model.Alumno;
+
+/**
+ * Proyección inmutable y compacta de un alumno para los listados
+ * No arrastra la relación con cursos ni el estado de JPA del modelo Alumno
+ */
+public record AlumnoView(long id, String nombre, String email, boolean activo) {
+
+    /**
+     * @param alumno Alumno con ID asignado
+     * @return Proyección del alumno
+     */
+    public static AlumnoView of(Alumno alumno) {
+        return new AlumnoView(alumno.getId(), alumno.getNombre(), alumno.getEmail(), alumno.isActivo());
+    }
+}
@@ -0,0 +1,22 @@
+package com.fullstack.fullstack.DTO;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva
+ *
+ * @param total Filas leídas
+ * @param creados Filas insertadas
+ * @param rechazados Filas no insertadas (inválidas, repetidas o con error al guardar)
+ * @param errores Detalle de las filas rechazadas (como máximo bulk-import.max-reported-errors)
+ */
+public record BulkImportResult(int total, int creados, int rechazados, List<ErrorFila> errores) {
+
+    /**
+     * @param fila Posición de la fila en la carga (empezando en 1)
+     * @param valor Dato que identifica la fila (email del alumno o nombre del curso), si se pudo leer
+     * @param motivo Causa del rechazo
+     */
+    public record ErrorFila(int fila, String valor, String motivo) {
+    }
+}
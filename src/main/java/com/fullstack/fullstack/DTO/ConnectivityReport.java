@@ -0,0 +1,61 @@
+package com.fullstack.fullstack.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con el resultado del perfilado de latencia de la API externa de usuarios
+ * Los tiempos están en milisegundos y los tamaños en bytes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectivityReport {
+
+    private String baseUrl;
+    private String endpoint;
+
+    private int requestedProbes;
+    private int concurrency;
+    private int completedProbes;
+    private int failedProbes;
+    private int cancelledProbes;
+
+    private long budgetMs;
+    private long elapsedMs;
+    private boolean budgetExceeded;
+
+    private Stats connectTimeMs;
+    private Stats timeToFirstByteMs;
+    private Stats totalLatencyMs;
+    private Stats payloadBytes;
+
+    /**
+     * Errores agrupados por tipo (excepción o código HTTP) y número de veces
+     */
+    private Map<String, Integer> errors;
+
+    private List<String> recomendaciones;
+
+    /**
+     * Resumen de una serie de mediciones
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Stats {
+        private int samples;
+        private double min;
+        private double p50;
+        private double p95;
+        private double p99;
+        private double max;
+    }
+}
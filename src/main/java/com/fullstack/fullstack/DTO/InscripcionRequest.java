@@ -0,0 +1,12 @@
+package com.fullstack.fullstack.DTO;
+
+import java.util.List;
+
+/**
+ * Alumnos a inscribir en un curso
+ *
+ * @param cursoId ID del curso
+ * @param alumnoIds IDs de los alumnos (los repetidos se ignoran)
+ */
+public record InscripcionRequest(Long cursoId, List<Long> alumnoIds) {
+}
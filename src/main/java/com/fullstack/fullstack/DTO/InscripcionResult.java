@@ -0,0 +1,11 @@
+package com.fullstack.fullstack.DTO;
+
+/**
+ * Resumen de una inscripción masiva
+ *
+ * @param solicitadas Pares (curso, alumno) distintos recibidos
+ * @param inscritas Pares insertados en curso_alumno
+ * @param omitidas Pares no insertados: ya inscritos, o con un curso o alumno inexistente
+ */
+public record InscripcionResult(int solicitadas, int inscritas, int omitidas) {
+}
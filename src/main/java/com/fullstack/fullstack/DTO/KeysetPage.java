@@ -0,0 +1,72 @@
+package com.fullstack.fullstack.DTO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Página de un listado paginado por cursor (keyset) sobre el ID
+ *
+ * Cada página se pide con el ID del último elemento de la anterior: la consulta es
+ * "id > cursor ORDER BY id LIMIT size", que usa el índice de la clave primaria y cuesta lo
+ * mismo en la primera página que en la última (a diferencia de OFFSET).
+ * El cursor se entrega al cliente como un token opaco.
+ *
+ * @param items Elementos de la página, ordenados por ID
+ * @param nextCursor Token para pedir la página siguiente, o null si es la última
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    private static final String PREFIJO = "id:";
+
+    /**
+     * Construye la página a partir de una consulta que pidió limite + 1 elementos:
+     * si llegó el elemento extra hay página siguiente y se descarta
+     * @param candidatos Hasta limite + 1 elementos ordenados por ID
+     * @param limite Tamaño de la página
+     * @param id Función que obtiene el ID de un elemento
+     * @return Página con como máximo limite elementos
+     */
+    public static <T> KeysetPage<T> of(List<T> candidatos, int limite, ToLongFunction<T> id) {
+        if (candidatos.size() <= limite) {
+            return new KeysetPage<>(candidatos, null);
+        }
+        List<T> pagina = candidatos.subList(0, limite);
+        return new KeysetPage<>(pagina, encodeCursor(id.applyAsLong(pagina.get(limite - 1))));
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @param ultimoId ID del último elemento entregado
+     * @return Token opaco (Base64 URL-safe) para la página siguiente
+     */
+    public static String encodeCursor(long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor Token recibido del cliente (null o vacío = primera página)
+     * @return ID a partir del cual continuar, o null para empezar desde el principio
+     * @throws IllegalArgumentException si el token no es un cursor válido
+     */
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+            return Long.parseLong(valor.substring(PREFIJO.length()));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException y errores de Base64 también son IllegalArgumentException
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.fullstack.fullstack;
 
+import com.fullstack.fullstack.Config.BulkImportProperties;
+import com.fullstack.fullstack.Config.EmailFilterProperties;
+import com.fullstack.fullstack.Config.PaginationProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 
 @SpringBootApplication
+@EnableConfigurationProperties({PaginationProperties.class, BulkImportProperties.class, EmailFilterProperties.class})
 public class FullstackApplication {
 
 	public static void main(String[] args) {
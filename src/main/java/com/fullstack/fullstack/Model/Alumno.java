@@ -1,9 +1,12 @@
 package com.fullstack.fullstack.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -23,6 +26,17 @@ public class Alumno {
     @Column(nullable = false, unique = true, length = 100)
     private String email;
 
+    // false cuando el usuario dejó de aparecer en el directorio externo (espejo local)
+    @Column(nullable = false)
+    @ColumnDefault("true")
+    private boolean activo = true;
+
+    // Hash del contenido del usuario externo con el que se sincronizó la fila; null en alumnos solo locales
+    // Solo lo escribe UserDirectoryMirrorSync (JDBC): guardar la entidad nunca lo borra
+    @JsonIgnore
+    @Column(name = "sync_hash", length = 64, insertable = false, updatable = false)
+    private String syncHash;
+
     // Relación con cursos
     @ManyToMany(mappedBy = "alumnos")
     private List<Curso> cursos = new ArrayList<>();
@@ -1,9 +1,14 @@
 package com.fullstack.fullstack.Repository;
 
 import com.fullstack.fullstack.Model.Alumno;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -37,4 +42,47 @@ public interface AlumnoRepository extends JpaRepository<Alumno, Long> {
      * @return true si existe un alumno con ese email, false en caso contrario
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Obtiene los alumnos activos (los desactivados ya no existen en el directorio externo).
+     * @return Lista de alumnos activos
+     */
+    List<Alumno> findByActivoTrue();
+
+    /**
+     * Busca un alumno activo por su ID.
+     * @param id ID del alumno
+     * @return Optional<Alumno> con el alumno si existe y está activo
+     */
+    Optional<Alumno> findByIdAndActivoTrue(Long id);
+
+    /**
+     * Busca un alumno activo por su email.
+     * @param email Email del alumno
+     * @return Optional<Alumno> con el alumno si existe y está activo
+     */
+    Optional<Alumno> findByEmailAndActivoTrue(String email);
+
+    /**
+     * Página de alumnos activos por cursor: los siguientes al ID indicado, ordenados por ID.
+     * @param id ID del último alumno de la página anterior (0 para la primera)
+     * @param limit Número máximo de alumnos
+     * @return Alumnos activos con ID mayor, en orden ascendente
+     */
+    List<Alumno> findByActivoTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * De una lista de emails, devuelve los que ya tiene algún alumno (una sola consulta IN).
+     * @param emails Emails a comprobar
+     * @return Emails ya registrados
+     */
+    @Query("select a.email from Alumno a where a.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Emails de todos los alumnos locales (solo la columna, sin cargar entidades).
+     * @return Emails registrados
+     */
+    @Query("select a.email from Alumno a")
+    List<String> findAllEmails();
 }
@@ -1,8 +1,11 @@
 package com.fullstack.fullstack.Repository;
 
 import com.fullstack.fullstack.Model.Curso;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * Repositorio para la entidad Curso.
  *
@@ -19,4 +22,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * Si se requieren consultas personalizadas, se pueden agregar métodos adicionales aquí.
  */
 public interface CursoRepository extends JpaRepository<Curso, Long> {
+
+    /**
+     * Página de cursos por cursor: los siguientes al ID indicado, ordenados por ID.
+     * @param id ID del último curso de la página anterior (0 para la primera)
+     * @param limit Número máximo de cursos
+     * @return Cursos con ID mayor, en orden ascendente
+     */
+    List<Curso> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Timeouts adaptativos por endpoint de la API externa
+ *
+ * Cada endpoint guarda las latencias de sus últimas llamadas (ventana deslizante de window-size
+ * muestras). El plazo de cada llamada es el percentil configurado de esas latencias multiplicado
+ * por multiplier y acotado a [min, max]. Mientras no hay min-samples muestras se usa el plazo
+ * inicial indicado por el llamador.
+ *
+ * Las llamadas que agotan el plazo también se registran (con la duración del plazo), de modo que
+ * si la API se vuelve lenta el percentil sube y el plazo se amplía en lugar de cortar todo.
+ *
+ * Métricas publicadas:
+ * - users.api.timeout.deadline{endpoint}: plazo actual en milisegundos
+ * - users.api.timeout.expired{endpoint}: llamadas cortadas por agotar el plazo
+ */
+@Slf4j
+public class AdaptiveTimeouts {
+
+    private final UserApiProperties.Timeouts config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Ventana> endpoints = new ConcurrentHashMap<>();
+
+    public AdaptiveTimeouts(UserApiProperties.Timeouts config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Aplica el plazo actual del endpoint a la llamada y registra su latencia
+     * Cada suscripción (p. ej. cada reintento) calcula su propio plazo
+     * @param endpoint Nombre del endpoint (listar, encontrar, crear...)
+     * @param inicial Plazo mientras no hay muestras suficientes, o siempre si la política está desactivada
+     * @param llamada Llamada a la API externa
+     * @return La llamada con el plazo aplicado; termina con TimeoutException si se agota
+     */
+    public <T> Mono<T> apply(String endpoint, Duration inicial, Mono<T> llamada) {
+        return apply(endpoint, inicial, llamada, valor -> endpoint);
+    }
+
+    /**
+     * Igual que apply(endpoint, inicial, llamada), pero la latencia de cada llamada correcta se registra
+     * en el endpoint que indique su resultado (p. ej. las respuestas 304 de una petición condicional
+     * aparte de las descargas completas, para que no acorten su plazo)
+     * El plazo aplicado y las llamadas cortadas son siempre los del endpoint principal
+     * @param muestra Endpoint donde registrar la latencia según el resultado (null si la llamada termina vacía)
+     */
+    public <T> Mono<T> apply(String endpoint, Duration inicial, Mono<T> llamada, Function<T, String> muestra) {
+        if (!config.isEnabled()) {
+            return llamada.timeout(inicial);
+        }
+        Ventana ventana = ventana(endpoint, inicial);
+        return Mono.defer(() -> {
+            Duration plazo = ventana.plazo();
+            long inicio = System.nanoTime();
+            return llamada.timeout(plazo)
+                    .doOnSuccess(valor -> {
+                        String destino = valor != null ? muestra.apply(valor) : endpoint;
+                        ventana(destino, inicial).registrar(System.nanoTime() - inicio);
+                    })
+                    .doOnError(TimeoutException.class, e -> {
+                        ventana.expiradas.increment();
+                        ventana.registrar(plazo.toNanos());
+                        log.warn("Llamada a '{}' cortada tras {} ms", endpoint, plazo.toMillis());
+                    });
+        });
+    }
+
+    /**
+     * @param endpoint Nombre del endpoint
+     * @param inicial Plazo a usar si el endpoint aún no tiene muestras suficientes
+     * @return Plazo que se aplicaría ahora a una llamada
+     */
+    public Duration getDeadline(String endpoint, Duration inicial) {
+        return ventana(endpoint, inicial).plazo();
+    }
+
+    /**
+     * @return Política y, por endpoint, muestras, percentil observado y plazo actual (para actuator)
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("enabled", config.isEnabled());
+        detalle.put("percentile", config.getPercentile());
+        detalle.put("multiplier", config.getMultiplier());
+        detalle.put("minMs", config.getMin().toMillis());
+        detalle.put("maxMs", config.getMax().toMillis());
+        Map<String, Object> porEndpoint = new TreeMap<>();
+        endpoints.forEach((nombre, ventana) -> porEndpoint.put(nombre, ventana.describir()));
+        detalle.put("endpoints", porEndpoint);
+        return detalle;
+    }
+
+    private Ventana ventana(String endpoint, Duration inicial) {
+        return endpoints.computeIfAbsent(endpoint, nombre -> {
+            Ventana ventana = new Ventana(inicial, Counter.builder("users.api.timeout.expired")
+                    .description("Llamadas a la API externa cortadas por agotar el plazo adaptativo")
+                    .tag("endpoint", nombre)
+                    .register(meterRegistry));
+            Gauge.builder("users.api.timeout.deadline", ventana, v -> v.plazo().toMillis())
+                    .description("Plazo adaptativo actual de las llamadas a la API externa (ms)")
+                    .tag("endpoint", nombre)
+                    .register(meterRegistry);
+            return ventana;
+        });
+    }
+
+    /**
+     * Latencias recientes de un endpoint en nanosegundos (buffer circular)
+     */
+    private final class Ventana {
+
+        private final Duration inicial;
+        private final Counter expiradas;
+        private final long[] latencias = new long[Math.max(1, config.getWindowSize())];
+        private int posicion;
+        private int muestras;
+
+        Ventana(Duration inicial, Counter expiradas) {
+            this.inicial = inicial;
+            this.expiradas = expiradas;
+        }
+
+        synchronized void registrar(long nanos) {
+            latencias[posicion] = nanos;
+            posicion = (posicion + 1) % latencias.length;
+            muestras = Math.min(muestras + 1, latencias.length);
+        }
+
+        synchronized Duration plazo() {
+            if (muestras < Math.max(1, config.getMinSamples())) {
+                return inicial;
+            }
+            long calculado = (long) (percentil() * config.getMultiplier());
+            return Duration.ofNanos(Math.max(config.getMin().toNanos(), Math.min(config.getMax().toNanos(), calculado)));
+        }
+
+        private long percentil() {
+            long[] ordenadas = Arrays.copyOf(latencias, muestras);
+            Arrays.sort(ordenadas);
+            int rango = (int) Math.ceil(config.getPercentile() / 100.0 * muestras);
+            return ordenadas[Math.max(0, rango - 1)];
+        }
+
+        synchronized Map<String, Object> describir() {
+            Map<String, Object> detalle = new LinkedHashMap<>();
+            detalle.put("samples", muestras);
+            if (muestras > 0) {
+                detalle.put("observedMs", percentil() / 1_000_000);
+            }
+            detalle.put("deadlineMs", plazo().toMillis());
+            detalle.put("expired", (long) expiradas.count());
+            return detalle;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead: aísla las llamadas bloqueantes a un servicio externo en un pool de hilos propio
+ *
+ * Las llamadas se ejecutan en como máximo max-concurrent-calls hilos, con una cola de
+ * queue-capacity posiciones. Con los hilos ocupados y la cola llena, la llamada se rechaza
+ * al instante con BulkheadFullException en lugar de esperar. Así, si el servicio externo
+ * se degrada, solo un número acotado de hilos de petición queda esperando por él y el resto
+ * de endpoints (p. ej. los que solo usan la base de datos local) siguen atendiéndose.
+ *
+ * Con virtual-threads=true cada llamada se ejecuta en un hilo virtual nuevo y los límites se
+ * aplican con semáforos: como mucho max-concurrent-calls en ejecución y queue-capacity esperando
+ * turno; el resto se rechaza igual que con el pool de hilos de plataforma.
+ *
+ * Métricas publicadas:
+ * - users.api.bulkhead.active{name}: llamadas en ejecución
+ * - users.api.bulkhead.queued{name}: llamadas en cola
+ * - users.api.bulkhead.rejected{name}: llamadas rechazadas
+ */
+@Slf4j
+public class Bulkhead {
+
+    private final String nombre;
+    private final UserApiProperties.Bulkhead config;
+    private final ExecutorService ejecutor;
+    private final Counter rechazadas;
+
+    // Solo en modo hilos virtuales: admitidas (en ejecución + en espera) y en ejecución
+    private final Semaphore admitidas;
+    private final Semaphore enEjecucion;
+    private final int maxConcurrentes;
+    private final int capacidadCola;
+
+    public Bulkhead(String nombre, UserApiProperties.Bulkhead config, MeterRegistry meterRegistry) {
+        this.nombre = nombre;
+        this.config = config;
+        this.maxConcurrentes = Math.max(1, config.getMaxConcurrentCalls());
+        this.capacidadCola = Math.max(1, config.getQueueCapacity());
+        if (config.isVirtualThreads()) {
+            this.ejecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(nombre + "-bulkhead-", 1).factory());
+            this.admitidas = new Semaphore(maxConcurrentes + capacidadCola);
+            this.enEjecucion = new Semaphore(maxConcurrentes);
+        } else {
+            AtomicInteger secuencia = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrentes, maxConcurrentes, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(capacidadCola),
+                    r -> {
+                        Thread thread = new Thread(r, nombre + "-bulkhead-" + secuencia.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            this.ejecutor = pool;
+            this.admitidas = null;
+            this.enEjecucion = null;
+        }
+
+        Gauge.builder("users.api.bulkhead.active", this, Bulkhead::getActiveCount)
+                .description("Llamadas a la API externa en ejecución dentro del bulkhead")
+                .tag("name", nombre)
+                .register(meterRegistry);
+        Gauge.builder("users.api.bulkhead.queued", this, Bulkhead::getQueuedCount)
+                .description("Llamadas a la API externa esperando en la cola del bulkhead")
+                .tag("name", nombre)
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("users.api.bulkhead.rejected")
+                .description("Llamadas a la API externa rechazadas por el bulkhead lleno")
+                .tag("name", nombre)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la llamada en el pool del bulkhead y espera su resultado
+     * Si se invoca desde un hilo del propio bulkhead se ejecuta directamente (evita interbloqueos)
+     * @param llamada Llamada bloqueante
+     * @return Resultado de la llamada
+     * @throws BulkheadFullException si no hay hilo libre ni hueco en la cola
+     */
+    public <T> T execute(Supplier<T> llamada) {
+        if (!config.isEnabled() || Thread.currentThread().getName().startsWith(nombre + "-bulkhead-")) {
+            return llamada.get();
+        }
+        CompletableFuture<T> resultado;
+        try {
+            resultado = CompletableFuture.supplyAsync(admitidas != null ? conTurno(llamada) : llamada, ejecutor);
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            log.warn("Bulkhead '{}' lleno ({} en ejecución, {} en cola): llamada rechazada",
+                    nombre, getActiveCount(), getQueuedCount());
+            throw new BulkheadFullException(nombre);
+        }
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Modo hilos virtuales: reserva plaza al instante (o rechaza) y espera turno de ejecución
+     * dentro del hilo virtual, donde esperar no ocupa un hilo de plataforma
+     */
+    private <T> Supplier<T> conTurno(Supplier<T> llamada) {
+        if (!admitidas.tryAcquire()) {
+            throw new RejectedExecutionException();
+        }
+        return () -> {
+            try {
+                enEjecucion.acquireUninterruptibly();
+                try {
+                    return llamada.get();
+                } finally {
+                    enEjecucion.release();
+                }
+            } finally {
+                admitidas.release();
+            }
+        };
+    }
+
+    int getActiveCount() {
+        if (enEjecucion != null) {
+            return maxConcurrentes - enEjecucion.availablePermits();
+        }
+        return ((ThreadPoolExecutor) ejecutor).getActiveCount();
+    }
+
+    int getQueuedCount() {
+        if (admitidas != null) {
+            return Math.max(0, maxConcurrentes + capacidadCola - admitidas.availablePermits() - getActiveCount());
+        }
+        return ((ThreadPoolExecutor) ejecutor).getQueue().size();
+    }
+
+    public void shutdown() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * @return Capacidad, ocupación actual y rechazos (para actuator)
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("enabled", config.isEnabled());
+        detalle.put("virtualThreads", admitidas != null);
+        detalle.put("maxConcurrentCalls", maxConcurrentes);
+        detalle.put("queueCapacity", capacidadCola);
+        detalle.put("active", getActiveCount());
+        detalle.put("queued", getQueuedCount());
+        detalle.put("rejected", (long) rechazadas.count());
+        return detalle;
+    }
+}
@@ -0,0 +1,11 @@
+package com.fullstack.fullstack.Resilience;
+
+/**
+ * Se lanza cuando el bulkhead no tiene hilos ni hueco en la cola y rechaza la llamada sin ejecutarla
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String nombre) {
+        super("Bulkhead '" + nombre + "' lleno: llamada rechazada");
+    }
+}
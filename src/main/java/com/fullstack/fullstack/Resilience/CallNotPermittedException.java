@@ -0,0 +1,11 @@
+package com.fullstack.fullstack.Resilience;
+
+/**
+ * Se lanza cuando el circuit breaker está abierto y rechaza la llamada sin ejecutarla
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(String nombre) {
+        super("Circuit breaker '" + nombre + "' abierto: llamada rechazada");
+    }
+}
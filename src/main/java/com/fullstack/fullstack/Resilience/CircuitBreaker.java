@@ -0,0 +1,266 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Circuit breaker basado en una ventana deslizante de las últimas N llamadas
+ *
+ * Estados:
+ * - CLOSED: las llamadas pasan; si la tasa de fallos o de llamadas lentas supera el umbral, se abre.
+ * - OPEN: las llamadas se rechazan al instante con CallNotPermittedException durante wait-duration.
+ * - HALF_OPEN: se permiten unas pocas llamadas de prueba; si van bien se cierra, si no vuelve a abrirse.
+ *
+ * Métricas publicadas:
+ * - users.api.circuitbreaker.state (0 = cerrado, 1 = abierto, 2 = semiabierto)
+ * - users.api.circuitbreaker.transitions{from, to}
+ * - users.api.circuitbreaker.not.permitted
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int MAX_TRANSICIONES = 20;
+
+    private final String nombre;
+    private final UserApiProperties.CircuitBreaker config;
+    private final Predicate<Throwable> esFallo;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final Counter rechazadas;
+
+    // Ventana deslizante (buffer circular) del estado cerrado
+    private final boolean[] fallos;
+    private final boolean[] lentas;
+    private int posicion;
+    private int registradas;
+
+    private State estado = State.CLOSED;
+    private Instant abiertoDesde;
+    private int permisosSemiabierto;
+    private int resultadosSemiabierto;
+    private int fallosSemiabierto;
+    private int lentasSemiabierto;
+    private final Deque<Map<String, Object>> transiciones = new ArrayDeque<>();
+
+    public CircuitBreaker(String nombre, UserApiProperties.CircuitBreaker config, Predicate<Throwable> esFallo,
+                          MeterRegistry meterRegistry) {
+        this(nombre, config, esFallo, meterRegistry, Clock.systemUTC());
+    }
+
+    CircuitBreaker(String nombre, UserApiProperties.CircuitBreaker config, Predicate<Throwable> esFallo,
+                   MeterRegistry meterRegistry, Clock clock) {
+        this.nombre = nombre;
+        this.config = config;
+        this.esFallo = esFallo;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.fallos = new boolean[config.getSlidingWindowSize()];
+        this.lentas = new boolean[config.getSlidingWindowSize()];
+        Gauge.builder("users.api.circuitbreaker.state", this, cb -> cb.getState().ordinal())
+                .description("Estado del circuit breaker (0 = cerrado, 1 = abierto, 2 = semiabierto)")
+                .tag("name", nombre)
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("users.api.circuitbreaker.not.permitted")
+                .description("Llamadas rechazadas por el circuit breaker abierto")
+                .tag("name", nombre)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envuelve una llamada reactiva: la rechaza si el circuito está abierto
+     * y registra su resultado y duración si se ejecuta
+     * @param llamada Llamada a proteger (se suscribe solo si hay permiso)
+     * @return Mono protegido
+     */
+    public <T> Mono<T> protect(Mono<T> llamada) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return Mono.error(new CallNotPermittedException(nombre));
+            }
+            long inicio = System.nanoTime();
+            return llamada
+                    .doOnSuccess(valor -> onSuccess(Duration.ofNanos(System.nanoTime() - inicio)))
+                    .doOnError(error -> onError(error, Duration.ofNanos(System.nanoTime() - inicio)))
+                    .doOnCancel(this::releasePermission);
+        });
+    }
+
+    /**
+     * @return true si la llamada puede ejecutarse (en semiabierto consume un permiso de prueba)
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (estado == State.OPEN) {
+            if (clock.instant().isBefore(abiertoDesde.plus(config.getWaitDurationInOpenState()))) {
+                rechazadas.increment();
+                return false;
+            }
+            transicion(State.HALF_OPEN);
+        }
+        if (estado == State.HALF_OPEN) {
+            if (permisosSemiabierto >= config.getPermittedCallsInHalfOpenState()) {
+                rechazadas.increment();
+                return false;
+            }
+            permisosSemiabierto++;
+        }
+        return true;
+    }
+
+    /**
+     * @return true si el circuito está abierto y todavía no toca probar (no consume permisos)
+     */
+    public synchronized boolean isCallNotPermitted() {
+        return estado == State.OPEN
+                && clock.instant().isBefore(abiertoDesde.plus(config.getWaitDurationInOpenState()));
+    }
+
+    public synchronized void onSuccess(Duration duracion) {
+        registrar(false, esLenta(duracion));
+    }
+
+    public synchronized void onError(Throwable error, Duration duracion) {
+        if (esFallo.test(error)) {
+            registrar(true, esLenta(duracion));
+        } else {
+            // Los errores que no son del servicio (p. ej. 4xx) cuentan como respuestas correctas
+            registrar(false, esLenta(duracion));
+        }
+    }
+
+    /**
+     * Devuelve un permiso de prueba no utilizado (llamada cancelada antes de terminar)
+     */
+    public synchronized void releasePermission() {
+        if (estado == State.HALF_OPEN && permisosSemiabierto > resultadosSemiabierto) {
+            permisosSemiabierto--;
+        }
+    }
+
+    public synchronized State getState() {
+        return estado;
+    }
+
+    /**
+     * @return Resumen del estado, tasas actuales y últimas transiciones (para actuator)
+     */
+    public synchronized Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("name", nombre);
+        detalle.put("state", estado);
+        detalle.put("bufferedCalls", registradas);
+        detalle.put("failureRate", tasa(fallos));
+        detalle.put("slowCallRate", tasa(lentas));
+        detalle.put("failureRateThreshold", config.getFailureRateThreshold());
+        detalle.put("slowCallRateThreshold", config.getSlowCallRateThreshold());
+        detalle.put("openedAt", abiertoDesde);
+        detalle.put("notPermittedCalls", (long) rechazadas.count());
+        List<Map<String, Object>> historial = new ArrayList<>(transiciones);
+        detalle.put("transitions", historial);
+        return detalle;
+    }
+
+    private boolean esLenta(Duration duracion) {
+        return duracion.compareTo(config.getSlowCallDuration()) >= 0;
+    }
+
+    private void registrar(boolean fallo, boolean lenta) {
+        if (estado == State.HALF_OPEN) {
+            resultadosSemiabierto++;
+            fallosSemiabierto += fallo ? 1 : 0;
+            lentasSemiabierto += lenta ? 1 : 0;
+            if (resultadosSemiabierto >= config.getPermittedCallsInHalfOpenState()) {
+                float tasaFallos = fallosSemiabierto * 100f / resultadosSemiabierto;
+                float tasaLentas = lentasSemiabierto * 100f / resultadosSemiabierto;
+                transicion(superaUmbrales(tasaFallos, tasaLentas) ? State.OPEN : State.CLOSED);
+            }
+            return;
+        }
+        if (estado != State.CLOSED) {
+            // Resultados tardíos de llamadas iniciadas antes de abrir el circuito
+            return;
+        }
+
+        fallos[posicion] = fallo;
+        lentas[posicion] = lenta;
+        posicion = (posicion + 1) % fallos.length;
+        registradas = Math.min(registradas + 1, fallos.length);
+
+        if (registradas >= Math.min(config.getMinimumNumberOfCalls(), fallos.length)
+                && superaUmbrales(tasa(fallos), tasa(lentas))) {
+            transicion(State.OPEN);
+        }
+    }
+
+    private boolean superaUmbrales(float tasaFallos, float tasaLentas) {
+        return tasaFallos >= config.getFailureRateThreshold() || tasaLentas >= config.getSlowCallRateThreshold();
+    }
+
+    private float tasa(boolean[] ventana) {
+        if (registradas == 0) {
+            return 0f;
+        }
+        int total = 0;
+        for (int i = 0; i < registradas; i++) {
+            total += ventana[i] ? 1 : 0;
+        }
+        return total * 100f / registradas;
+    }
+
+    private void transicion(State nuevo) {
+        State anterior = estado;
+        estado = nuevo;
+        if (nuevo == State.OPEN) {
+            abiertoDesde = clock.instant();
+        }
+        if (nuevo == State.HALF_OPEN || nuevo == State.OPEN) {
+            permisosSemiabierto = 0;
+            resultadosSemiabierto = 0;
+            fallosSemiabierto = 0;
+            lentasSemiabierto = 0;
+        }
+        if (nuevo == State.CLOSED) {
+            registradas = 0;
+            posicion = 0;
+        }
+
+        Map<String, Object> registro = new LinkedHashMap<>();
+        registro.put("from", anterior);
+        registro.put("to", nuevo);
+        registro.put("at", clock.instant());
+        transiciones.addFirst(registro);
+        if (transiciones.size() > MAX_TRANSICIONES) {
+            transiciones.removeLast();
+        }
+        Counter.builder("users.api.circuitbreaker.transitions")
+                .description("Transiciones de estado del circuit breaker")
+                .tag("name", nombre)
+                .tag("from", anterior.name())
+                .tag("to", nuevo.name())
+                .register(meterRegistry)
+                .increment();
+
+        if (nuevo == State.OPEN) {
+            log.warn("Circuit breaker '{}' {} -> OPEN: llamadas a la API externa rechazadas durante {}",
+                    nombre, anterior, config.getWaitDurationInOpenState());
+        } else {
+            log.info("Circuit breaker '{}' {} -> {}", nombre, anterior, nuevo);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Peticiones de cobertura (hedging) para recortar la latencia de cola
+ *
+ * Se lanza la llamada original y, si no ha respondido tras una espera (el percentil observado
+ * de las latencias recientes, o una espera fija), se lanza una segunda llamada idéntica.
+ * Gana la primera que devuelva un valor y la otra se cancela.
+ *
+ * Las coberturas consumen un presupuesto (cubo de fichas): cada llamada original aporta
+ * budget-ratio fichas, hasta budget-burst, y cada cobertura gasta una. Así, aunque todas las
+ * llamadas sean lentas (p. ej. durante una caída), la carga extra no pasa de budget-ratio.
+ *
+ * Métricas publicadas:
+ * - users.api.hedge{operation, outcome=launched|won|skipped}
+ */
+@Slf4j
+public class Hedger {
+
+    private static final int MUESTRAS_LATENCIA = 100;
+
+    private final UserApiProperties.Hedging config;
+    private final Scheduler scheduler;
+    private final Counter lanzadas;
+    private final Counter ganadas;
+    private final Counter sinPresupuesto;
+
+    // Latencias recientes de las llamadas originales en nanosegundos (buffer circular)
+    private final long[] latencias = new long[MUESTRAS_LATENCIA];
+    private int posicion;
+    private int muestras;
+    private double fichas;
+
+    public Hedger(String operacion, UserApiProperties.Hedging config, MeterRegistry meterRegistry) {
+        this(operacion, config, meterRegistry, Schedulers.parallel());
+    }
+
+    Hedger(String operacion, UserApiProperties.Hedging config, MeterRegistry meterRegistry, Scheduler scheduler) {
+        this.config = config;
+        this.scheduler = scheduler;
+        this.fichas = config.getBudgetBurst();
+        this.lanzadas = contador(meterRegistry, operacion, "launched");
+        this.ganadas = contador(meterRegistry, operacion, "won");
+        this.sinPresupuesto = contador(meterRegistry, operacion, "skipped");
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String operacion, String resultado) {
+        return Counter.builder("users.api.hedge")
+                .description("Peticiones de cobertura lanzadas, ganadas o descartadas por falta de presupuesto")
+                .tag("operation", operacion)
+                .tag("outcome", resultado)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la llamada con cobertura
+     * @param llamada Crea la llamada; se invoca una vez, o dos si se lanza la cobertura
+     * @return Mono con el primer valor obtenido; si ninguna llamada devuelve valor, termina vacío
+     * o con el primer error
+     */
+    public <T> Mono<T> hedge(Supplier<Mono<T>> llamada) {
+        if (!config.isEnabled()) {
+            return Mono.defer(llamada);
+        }
+        return Mono.defer(() -> {
+            depositarFicha();
+            Duration espera = getCurrentDelay();
+            long inicio = System.nanoTime();
+            Sinks.Empty<Void> originalTerminada = Sinks.empty();
+
+            Mono<Intento<T>> original = Mono.defer(llamada)
+                    .map(valor -> new Intento<>(valor, false))
+                    .doOnNext(intento -> registrarLatencia(System.nanoTime() - inicio))
+                    // Si gana la cobertura, la latencia de la original es al menos la transcurrida
+                    .doOnCancel(() -> registrarLatencia(System.nanoTime() - inicio))
+                    .doOnTerminate(originalTerminada::tryEmitEmpty);
+
+            // Si la original termina sin valor antes de la espera, no se lanza cobertura ni se sigue esperando
+            Mono<Long> esperaCobertura = Mono.firstWithSignal(Mono.delay(espera, scheduler),
+                    originalTerminada.asMono().then(Mono.empty()));
+            Mono<Intento<T>> cobertura = esperaCobertura
+                    .flatMap(tick -> {
+                        if (!tomarFicha()) {
+                            sinPresupuesto.increment();
+                            return Mono.empty();
+                        }
+                        lanzadas.increment();
+                        log.debug("Sin respuesta tras {} ms, lanzando petición de cobertura", espera.toMillis());
+                        return Mono.defer(llamada).map(valor -> new Intento<>(valor, true));
+                    });
+
+            return Mono.firstWithValue(original, cobertura)
+                    .doOnNext(intento -> {
+                        if (intento.cobertura()) {
+                            ganadas.increment();
+                        }
+                    })
+                    .map(Intento::valor)
+                    .onErrorResume(NoSuchElementException.class, Hedger::sinValor);
+        });
+    }
+
+    /**
+     * firstWithValue termina con NoSuchElementException si ninguna llamada devolvió valor:
+     * se propaga el error original si lo hubo, o se termina vacío
+     */
+    private static <T> Mono<T> sinValor(NoSuchElementException e) {
+        if (e.getCause() != null) {
+            for (Throwable error : Exceptions.unwrapMultiple(e.getCause())) {
+                if (error != null) {
+                    return Mono.error(error);
+                }
+            }
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * @return Espera actual antes de lanzar una cobertura
+     */
+    public synchronized Duration getCurrentDelay() {
+        if (!config.isAdaptive() || muestras < Math.max(1, config.getMinSamples())) {
+            return config.getDelay();
+        }
+        long[] ordenadas = Arrays.copyOf(latencias, muestras);
+        Arrays.sort(ordenadas);
+        int rango = (int) Math.ceil(config.getPercentile() / 100.0 * muestras);
+        Duration percentil = Duration.ofNanos(ordenadas[Math.max(0, rango - 1)]);
+        return percentil.compareTo(config.getMinDelay()) < 0 ? config.getMinDelay() : percentil;
+    }
+
+    /**
+     * @return Configuración, espera actual, presupuesto disponible y contadores (para actuator)
+     */
+    public synchronized Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("enabled", config.isEnabled());
+        detalle.put("currentDelayMs", getCurrentDelay().toMillis());
+        detalle.put("samples", muestras);
+        detalle.put("budgetTokens", Math.floor(fichas * 100) / 100);
+        detalle.put("launched", (long) lanzadas.count());
+        detalle.put("won", (long) ganadas.count());
+        detalle.put("skipped", (long) sinPresupuesto.count());
+        return detalle;
+    }
+
+    private synchronized void depositarFicha() {
+        fichas = Math.min(config.getBudgetBurst(), fichas + config.getBudgetRatio());
+    }
+
+    private synchronized boolean tomarFicha() {
+        if (fichas < 1) {
+            return false;
+        }
+        fichas -= 1;
+        return true;
+    }
+
+    private synchronized void registrarLatencia(long nanos) {
+        latencias[posicion] = nanos;
+        posicion = (posicion + 1) % MUESTRAS_LATENCIA;
+        muestras = Math.min(muestras + 1, MUESTRAS_LATENCIA);
+    }
+
+    private record Intento<T>(T valor, boolean cobertura) {
+    }
+}
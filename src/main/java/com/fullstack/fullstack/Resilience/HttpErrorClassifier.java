@@ -0,0 +1,46 @@
+package com.fullstack.fullstack.Resilience;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Clasificación de errores de las llamadas a la API externa
+ *
+ * Un 4xx indica que el servicio respondió correctamente a una petición inválida
+ * (p. ej. un usuario inexistente), por lo que no debe contarse como fallo del servicio.
+ */
+public final class HttpErrorClassifier {
+
+    private HttpErrorClassifier() {
+    }
+
+    /**
+     * @param error Error de la llamada (se revisa también la cadena de causas)
+     * @return true si el error es una respuesta HTTP 4xx
+     */
+    public static boolean isClientError(Throwable error) {
+        WebClientResponseException respuesta = findResponseException(error);
+        return respuesta != null && respuesta.getStatusCode().is4xxClientError();
+    }
+
+    /**
+     * @param error Error de la llamada
+     * @return true si el error debe contar como fallo del servicio externo
+     */
+    public static boolean isServiceFailure(Throwable error) {
+        return !isClientError(error);
+    }
+
+    static WebClientResponseException findResponseException(Throwable error) {
+        Throwable actual = error;
+        while (actual != null) {
+            if (actual instanceof WebClientResponseException respuesta) {
+                return respuesta;
+            }
+            if (actual.getCause() == actual) {
+                return null;
+            }
+            actual = actual.getCause();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,135 @@
+package com.fullstack.fullstack.Resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Agrupa en lotes las consultas por clave que llegan dentro de una ventana corta
+ *
+ * La primera consulta abre la ventana; las que llegan mientras está abierta se suman
+ * al mismo lote (las claves repetidas comparten resultado). Al cerrarse la ventana,
+ * o al alcanzar el tamaño máximo, el lote completo se resuelve con una sola llamada
+ * a la función de carga por lotes.
+ *
+ * Métricas publicadas:
+ * - users.api.batch.requests{operation}: claves solicitadas
+ * - users.api.batch.size{operation}: claves distintas por lote despachado
+ */
+@Slf4j
+public class MicroBatcher<K, V> {
+
+    private final Duration ventana;
+    private final int tamanoMaximo;
+    private final Function<Set<K>, Mono<Map<K, V>>> cargaPorLotes;
+    private final Scheduler scheduler;
+    private final Counter solicitudes;
+    private final DistributionSummary tamanoLotes;
+
+    private Map<K, CompletableFuture<V>> pendientes = new LinkedHashMap<>();
+    private boolean despachoProgramado;
+
+    public MicroBatcher(String operacion, Duration ventana, int tamanoMaximo,
+                        Function<Set<K>, Mono<Map<K, V>>> cargaPorLotes, MeterRegistry meterRegistry) {
+        this(operacion, ventana, tamanoMaximo, cargaPorLotes, meterRegistry, Schedulers.parallel());
+    }
+
+    MicroBatcher(String operacion, Duration ventana, int tamanoMaximo,
+                 Function<Set<K>, Mono<Map<K, V>>> cargaPorLotes, MeterRegistry meterRegistry, Scheduler scheduler) {
+        this.ventana = ventana;
+        this.tamanoMaximo = Math.max(1, tamanoMaximo);
+        this.cargaPorLotes = cargaPorLotes;
+        this.scheduler = scheduler;
+        this.solicitudes = Counter.builder("users.api.batch.requests")
+                .description("Claves solicitadas a través del agrupador por lotes")
+                .tag("operation", operacion)
+                .register(meterRegistry);
+        this.tamanoLotes = DistributionSummary.builder("users.api.batch.size")
+                .description("Claves distintas por lote enviado a la API externa")
+                .tag("operation", operacion)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola la clave en el lote actual
+     * @param key Clave a resolver
+     * @return Mono con el valor, vacío si la carga por lotes no lo devolvió
+     */
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            solicitudes.increment();
+            CompletableFuture<V> futuro;
+            Map<K, CompletableFuture<V>> lleno = null;
+            boolean programar = false;
+            synchronized (this) {
+                futuro = pendientes.computeIfAbsent(key, k -> new CompletableFuture<>());
+                if (pendientes.size() >= tamanoMaximo || ventana.isZero()) {
+                    lleno = tomarPendientes();
+                } else if (!despachoProgramado) {
+                    despachoProgramado = true;
+                    programar = true;
+                }
+            }
+            if (lleno != null) {
+                despachar(lleno);
+            } else if (programar) {
+                scheduler.schedule(this::despacharPendientes, ventana.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            return Mono.fromFuture(futuro, true);
+        });
+    }
+
+    /**
+     * @return Número de claves esperando a que se cierre la ventana actual
+     */
+    public synchronized int getPendingCount() {
+        return pendientes.size();
+    }
+
+    public long getBatchCount() {
+        return tamanoLotes.count();
+    }
+
+    private void despacharPendientes() {
+        Map<K, CompletableFuture<V>> lote;
+        synchronized (this) {
+            lote = tomarPendientes();
+        }
+        if (!lote.isEmpty()) {
+            despachar(lote);
+        }
+    }
+
+    private Map<K, CompletableFuture<V>> tomarPendientes() {
+        Map<K, CompletableFuture<V>> lote = pendientes;
+        pendientes = new LinkedHashMap<>();
+        despachoProgramado = false;
+        return lote;
+    }
+
+    private void despachar(Map<K, CompletableFuture<V>> lote) {
+        tamanoLotes.record(lote.size());
+        log.debug("Despachando lote de {} claves", lote.size());
+        try {
+            cargaPorLotes.apply(Collections.unmodifiableSet(lote.keySet())).subscribe(
+                    resultados -> lote.forEach((clave, futuro) -> futuro.complete(resultados.get(clave))),
+                    error -> lote.values().forEach(futuro -> futuro.completeExceptionally(error)),
+                    () -> lote.values().forEach(futuro -> futuro.complete(null)));
+        } catch (RuntimeException e) {
+            lote.values().forEach(futuro -> futuro.completeExceptionally(e));
+        }
+    }
+}
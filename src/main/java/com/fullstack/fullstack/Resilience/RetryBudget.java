@@ -0,0 +1,117 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Presupuesto de reintentos compartido por todas las llamadas a un servicio externo
+ *
+ * Cubo de fichas: cada llamada correcta aporta ratio fichas (hasta max-tokens) y cada reintento
+ * gasta una. Así los reintentos nunca superan ese porcentaje del tráfico correcto reciente:
+ * durante una caída el cubo se vacía enseguida y cada petición lógica vuelve a ser una sola
+ * llamada remota, en lugar de hasta max-attempts + 1.
+ *
+ * Solo se reintentan los errores transitorios: nunca las respuestas 4xx, ni las llamadas
+ * rechazadas localmente (circuit breaker abierto, bulkhead lleno).
+ *
+ * Métricas publicadas:
+ * - users.api.retry.tokens{name}: fichas disponibles
+ * - users.api.retry.attempts{name}: reintentos realizados
+ * - users.api.retry.budget.exhausted{name}: reintentos denegados por falta de presupuesto
+ */
+@Slf4j
+public class RetryBudget {
+
+    private final String nombre;
+    private final UserApiProperties.Retry config;
+    private final Counter reintentos;
+    private final Counter agotado;
+
+    private double fichas;
+
+    public RetryBudget(String nombre, UserApiProperties.Retry config, MeterRegistry meterRegistry) {
+        this.nombre = nombre;
+        this.config = config;
+        this.fichas = config.getMaxTokens();
+        Gauge.builder("users.api.retry.tokens", this, RetryBudget::getAvailableTokens)
+                .description("Reintentos disponibles en el presupuesto compartido")
+                .tag("name", nombre)
+                .register(meterRegistry);
+        this.reintentos = Counter.builder("users.api.retry.attempts")
+                .description("Reintentos de llamadas a la API externa")
+                .tag("name", nombre)
+                .register(meterRegistry);
+        this.agotado = Counter.builder("users.api.retry.budget.exhausted")
+                .description("Reintentos denegados por haber agotado el presupuesto")
+                .tag("name", nombre)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reintenta la llamada con backoff exponencial mientras el error sea transitorio y quede presupuesto
+     * Cada intento correcto recarga el presupuesto
+     * @param llamada Llamada a la API externa (se vuelve a suscribir en cada reintento)
+     * @return La llamada con reintentos; si no se reintenta, termina con el error original
+     */
+    public <T> Mono<T> withRetries(Mono<T> llamada) {
+        return llamada
+                .doOnSuccess(valor -> depositar())
+                .retryWhen(Retry.backoff(config.getMaxAttempts(), config.getMinBackoff())
+                        .maxBackoff(config.getMaxBackoff())
+                        .filter(error -> isRetryable(error) && tomarFicha(error))
+                        .doBeforeRetry(senal -> reintentos.increment())
+                        .onRetryExhaustedThrow((spec, senal) -> senal.failure()));
+    }
+
+    /**
+     * @param error Error de un intento
+     * @return true si el error es transitorio y merece reintento
+     */
+    public static boolean isRetryable(Throwable error) {
+        return !HttpErrorClassifier.isClientError(error)
+                && !(error instanceof CallNotPermittedException)
+                && !(error instanceof BulkheadFullException);
+    }
+
+    public synchronized double getAvailableTokens() {
+        return fichas;
+    }
+
+    /**
+     * @return Configuración, fichas disponibles y contadores (para actuator)
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("maxAttempts", config.getMaxAttempts());
+        detalle.put("ratio", config.getRatio());
+        detalle.put("maxTokens", config.getMaxTokens());
+        detalle.put("availableTokens", Math.floor(getAvailableTokens() * 100) / 100);
+        detalle.put("retries", (long) reintentos.count());
+        detalle.put("exhausted", (long) agotado.count());
+        return detalle;
+    }
+
+    private synchronized void depositar() {
+        fichas = Math.min(config.getMaxTokens(), fichas + config.getRatio());
+    }
+
+    private boolean tomarFicha(Throwable error) {
+        synchronized (this) {
+            if (fichas >= 1) {
+                fichas -= 1;
+                return true;
+            }
+        }
+        agotado.increment();
+        log.warn("Presupuesto de reintentos '{}' agotado, no se reintenta: {}", nombre, error.getMessage());
+        return false;
+    }
+}
@@ -0,0 +1,94 @@
+package com.fullstack.fullstack.Resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de llamadas concurrentes por clave ("single-flight")
+ *
+ * Si varios suscriptores piden la misma clave mientras ya hay una llamada en curso,
+ * solo el primero ejecuta la carga y el resto espera y recibe el mismo resultado
+ * (o la misma excepción). Al terminar, la clave se libera para la siguiente llamada.
+ *
+ * Métricas publicadas: users.api.singleflight.calls{operation, result=executed|coalesced}
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> enVuelo = new ConcurrentHashMap<>();
+    private final Counter ejecutadas;
+    private final Counter coalescidas;
+
+    public SingleFlight(String operacion, MeterRegistry meterRegistry) {
+        this.ejecutadas = Counter.builder("users.api.singleflight.calls")
+                .description("Llamadas a la API externa ejecutadas o coalescidas con una llamada en curso")
+                .tag("operation", operacion)
+                .tag("result", "executed")
+                .register(meterRegistry);
+        this.coalescidas = Counter.builder("users.api.singleflight.calls")
+                .description("Llamadas a la API externa ejecutadas o coalescidas con una llamada en curso")
+                .tag("operation", operacion)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta la carga para la clave, o se une a la que ya está en curso
+     * La carga se suscribe una sola vez y todos los suscriptores
+     * (reactivos o bloqueantes) de la misma clave comparten su resultado.
+     * Cancelar un suscriptor no cancela la carga compartida.
+     * @param key Clave de la llamada
+     * @param loader Carga reactiva a ejecutar si no hay ninguna en curso
+     * @return Mono con el resultado compartido
+     */
+    public Mono<V> executeReactive(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> propia = new CompletableFuture<>();
+            CompletableFuture<V> enCurso = enVuelo.putIfAbsent(key, propia);
+            if (enCurso != null) {
+                coalescidas.increment();
+                return Mono.fromFuture(enCurso, true);
+            }
+
+            ejecutadas.increment();
+            // La clave se libera antes de completar: quien despierta con el resultado y vuelve a
+            // pedir la misma clave lanza una carga nueva en vez de unirse a la que ya terminó
+            try {
+                loader.get().subscribe(
+                        valor -> {
+                            enVuelo.remove(key, propia);
+                            propia.complete(valor);
+                        },
+                        error -> {
+                            enVuelo.remove(key, propia);
+                            propia.completeExceptionally(error);
+                        },
+                        () -> {
+                            enVuelo.remove(key, propia);
+                            propia.complete(null);
+                        });
+            } catch (RuntimeException e) {
+                enVuelo.remove(key, propia);
+                propia.completeExceptionally(e);
+            }
+            return Mono.fromFuture(propia, true);
+        });
+    }
+
+    public long getExecutedCount() {
+        return (long) ejecutadas.count();
+    }
+
+    public long getCoalescedCount() {
+        return (long) coalescidas.count();
+    }
+
+    public int getInFlightCount() {
+        return enVuelo.size();
+    }
+}
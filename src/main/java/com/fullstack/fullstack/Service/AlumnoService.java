@@ -1,20 +1,40 @@
 package com.fullstack.fullstack.Service;
 
+import com.fullstack.fullstack.Config.PaginationProperties;
+import com.fullstack.fullstack.DTO.AlumnoView;
+import com.fullstack.fullstack.DTO.KeysetPage;
 import com.fullstack.fullstack.DTO.UserDTO;
 import com.fullstack.fullstack.Model.Alumno;
 import com.fullstack.fullstack.Repository.AlumnoRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * Servicio híbrido para gestionar alumnos
  * Integra datos de la API externa de usuarios con el modelo local de alumnos
+ * Cuando el espejo local está sincronizado (UserDirectoryMirrorSync), las lecturas se sirven
+ * desde la base de datos local sin llamar a la API externa
  */
 @Service
 @RequiredArgsConstructor
@@ -23,6 +43,24 @@ public class AlumnoService {
 
     private final UserApiService userApiService;
     private final AlumnoRepository alumnoRepository;
+    private final CacheManager cacheManager;
+    private final UserDirectoryMirrorSync mirrorSync;
+    private final PaginationProperties paginationProperties;
+    private final KnownEmailsIndex emailsConocidos;
+
+    // Se incrementa antes de cada descarte de la proyección 'view' (ver obtenerVista())
+    private final AtomicLong versionVista = new AtomicLong();
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "alumnos-cache-evict");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
 
     /**
      * Obtiene todos los alumnos, priorizando la API externa
@@ -31,6 +69,9 @@ public class AlumnoService {
      */
     @Cacheable(value = "alumnos", key = "'all'")
     public List<Alumno> obtenerTodos() {
+        if (mirrorSync.isServingReads()) {
+            return alumnoRepository.findByActivoTrue();
+        }
         try {
             log.info("Obteniendo todos los alumnos desde la API externa");
             
@@ -38,11 +79,7 @@ public class AlumnoService {
             List<UserDTO> users = userApiService.getAllUsers();
             
             if (!users.isEmpty()) {
-                log.info("Obtenidos {} usuarios de la API externa, convirtiendo a alumnos", users.size());
-                return users.stream()
-                        .filter(user -> user.isActivo()) // Solo usuarios activos
-                        .map(this::convertirUserAAlumno)
-                        .collect(Collectors.toList());
+                return convertirUsuariosActivos(users);
             }
             
             // Fallback a datos locales si API externa no está disponible
@@ -56,6 +93,75 @@ public class AlumnoService {
         }
     }
 
+    /**
+     * Proyección inmutable del listado de alumnos, servida tal cual en GET /api/alumnos
+     * Se construye una vez a partir de la lista de obtenerTodos() (la que ya esté en caché si existe)
+     * y se reutiliza hasta la siguiente recarga del directorio o escritura
+     * @return Alumnos ordenados e indexados por ID y email
+     */
+    public AlumnoViewSnapshot obtenerVista() {
+        // Acceso directo a la caché (y no @Cacheable) para que obtenerPagina() la comparta
+        Cache cache = alumnosCache();
+        Cache.ValueWrapper enCache = cache.get("view");
+        if (enCache != null && enCache.get() instanceof AlumnoViewSnapshot vista) {
+            return vista;
+        }
+        // Se construye fuera de la caché (sin get(key, loader)): obtenerTodos() puede esperar a la
+        // descarga del directorio y no debe hacerlo reteniendo el bloqueo de la entrada
+        long version = versionVista.get();
+        AlumnoViewSnapshot vista = construirVista();
+        cache.put("view", vista);
+        if (versionVista.get() != version) {
+            // Se descartó mientras se construía: la proyección ya es vieja
+            cache.evict("view");
+        }
+        return vista;
+    }
+
+    private AlumnoViewSnapshot construirVista() {
+        Cache.ValueWrapper todos = alumnosCache().get("all");
+        List<Alumno> alumnos = todos != null ? listaEnCache() : obtenerTodos();
+        log.info("Construyendo la proyección del listado con {} alumnos", alumnos.size());
+        return AlumnoViewSnapshot.of(alumnos);
+    }
+
+    /**
+     * Página del listado de alumnos por cursor (keyset sobre el ID)
+     * Con el espejo local activo se consulta la base de datos; si no, se corta la proyección en memoria
+     * @param despuesDe ID del último alumno de la página anterior, o null para la primera
+     * @param size Tamaño de página pedido (null = pagination.default-size)
+     * @return Alumnos de la página y cursor de la siguiente
+     */
+    public KeysetPage<AlumnoView> obtenerPagina(Long despuesDe, Integer size) {
+        int limite = paginationProperties.resolveSize(size);
+        if (mirrorSync.isServingReads()) {
+            // Se pide un alumno de más para saber si hay página siguiente sin hacer un COUNT
+            List<AlumnoView> alumnos = alumnoRepository.findByActivoTrueAndIdGreaterThanOrderByIdAsc(
+                            despuesDe != null ? despuesDe : 0L, Limit.of(limite + 1)).stream()
+                    .map(AlumnoView::of)
+                    .toList();
+            return KeysetPage.of(alumnos, limite, AlumnoView::id);
+        }
+        return obtenerVista().pageAfter(despuesDe, limite);
+    }
+
+    /**
+     * Con un directorio nuevo, la lista y su proyección se reconstruyen en la siguiente lectura
+     * El descarte se hace en un hilo propio: el publicador del evento puede ser un hilo de I/O de reactor-netty
+     */
+    @EventListener
+    public void onDirectoryRefreshed(UserDirectoryRefreshedEvent event) {
+        try {
+            ejecutor.execute(() -> {
+                Cache cache = alumnosCache();
+                cache.evict("all");
+                descartarVista(cache);
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Descarte de la caché de alumnos omitido: el servicio se está deteniendo");
+        }
+    }
+
     /**
      * Obtiene un alumno por ID, priorizando la API externa
      * @param id ID del alumno
@@ -63,6 +169,9 @@ public class AlumnoService {
      */
     @Cacheable(value = "alumnos", key = "#id")
     public Optional<Alumno> obtenerPorId(Long id) {
+        if (mirrorSync.isServingReads()) {
+            return alumnoRepository.findByIdAndActivoTrue(id);
+        }
         try {
             log.info("Obteniendo alumno ID {} desde la API externa", id);
             
@@ -92,6 +201,9 @@ public class AlumnoService {
      */
     @Cacheable(value = "alumnos", key = "#email")
     public Optional<Alumno> obtenerPorEmail(String email) {
+        if (mirrorSync.isServingReads()) {
+            return alumnoRepository.findByEmailAndActivoTrue(email);
+        }
         try {
             log.info("Buscando alumno por email {} en la API externa", email);
             
@@ -114,6 +226,51 @@ public class AlumnoService {
         }
     }
 
+    /**
+     * Obtiene varios alumnos por ID con una sola consulta en lote a la API externa
+     * (p. ej. para mostrar los alumnos inscritos en un curso)
+     * Los IDs que no estén activos en la API externa se buscan en los datos locales
+     * @param ids IDs de los alumnos
+     * @return Alumnos encontrados, en el orden de los IDs recibidos
+     */
+    public List<Alumno> obtenerPorIds(List<Long> ids) {
+        if (mirrorSync.isServingReads()) {
+            return desdeEspejo(ids);
+        }
+        try {
+            log.info("Obteniendo {} alumnos por ID desde la API externa", ids.size());
+            Map<Long, UserDTO> users = userApiService.getUsersByIds(ids);
+
+            Map<Long, Alumno> alumnos = new LinkedHashMap<>();
+            users.forEach((id, user) -> {
+                if (user.isActivo()) {
+                    alumnos.put(id, convertirUserAAlumno(user));
+                }
+            });
+
+            // Fallback a datos locales para los IDs que no se resolvieron externamente
+            List<Long> faltantes = ids.stream()
+                    .filter(id -> id != null && !alumnos.containsKey(id))
+                    .distinct()
+                    .collect(Collectors.toList());
+            if (!faltantes.isEmpty()) {
+                log.warn("{} alumnos no encontrados en API externa, buscando en datos locales", faltantes.size());
+                alumnoRepository.findAllById(faltantes).forEach(alumno -> alumnos.put(alumno.getId(), alumno));
+            }
+
+            return ids.stream()
+                    .distinct()
+                    .map(alumnos::get)
+                    .filter(alumno -> alumno != null)
+                    .collect(Collectors.toList());
+
+        } catch (Exception e) {
+            log.error("Error al obtener alumnos por ID: {}", e.getMessage());
+            // Fallback a datos locales
+            return alumnoRepository.findAllById(ids);
+        }
+    }
+
     /**
      * Crea un nuevo alumno en la base de datos local
      * Nota: Para crear usuarios en la API externa, se debería usar directamente la API del compañero
@@ -124,20 +281,21 @@ public class AlumnoService {
         try {
             log.info("Creando alumno local: {}", alumno.getNombre());
             
-            // Verificar si ya existe un usuario con ese email en la API externa
-            Optional<UserDTO> userExterno = userApiService.getUserByEmail(alumno.getEmail());
-            if (userExterno.isPresent()) {
-                log.warn("Ya existe un usuario con email {} en la API externa", alumno.getEmail());
-                throw new RuntimeException("Ya existe un usuario con ese email en el sistema externo");
-            }
-            
-            // Verificar en datos locales
-            if (alumnoRepository.existsByEmail(alumno.getEmail())) {
-                log.warn("Ya existe un alumno con email {} en la base de datos local", alumno.getEmail());
-                throw new RuntimeException("Ya existe un alumno con ese email en la base de datos local");
+            // Si el filtro de emails lo da por nuevo no hace falta ninguna de las dos comprobaciones exactas
+            KnownEmailsIndex.Check filtro = emailsConocidos.check(alumno.getEmail());
+            if (!filtro.isDefinitelyNew()) {
+                // Verificar si ya existe un usuario con ese email en la API externa
+                Optional<UserDTO> userExterno = userApiService.getUserByEmail(alumno.getEmail());
+                if (userExterno.isPresent()) {
+                    emailsConocidos.recordExactCheck(filtro, true);
+                    log.warn("Ya existe un usuario con email {} en la API externa", alumno.getEmail());
+                    throw new RuntimeException("Ya existe un usuario con ese email en el sistema externo");
+                }
             }
             
-            return alumnoRepository.save(alumno);
+            Alumno creado = guardarNuevoLocal(alumno, filtro);
+            registrarCreacionEnCache(creado);
+            return creado;
             
         } catch (Exception e) {
             log.error("Error al crear alumno: {}", e.getMessage());
@@ -155,6 +313,8 @@ public class AlumnoService {
         try {
             log.info("Actualizando alumno ID {}", id);
             
+            String emailAnterior = emailConocido(id);
+            
             // Intentar actualizar en la API externa primero
             try {
                 UserDTO userDTO = convertirAlumnoAUser(alumno);
@@ -164,7 +324,9 @@ public class AlumnoService {
                     log.info("Alumno ID {} actualizado exitosamente en la API externa", id);
                     // Convertir de vuelta a Alumno y actualizar en base local
                     Alumno alumnoActualizado = convertirUserAAlumno(userActualizado.get());
-                    return alumnoRepository.save(alumnoActualizado);
+                    Alumno guardado = alumnoRepository.save(alumnoActualizado);
+                    registrarActualizacionExternaEnCache(id, emailAnterior, userActualizado.get(), guardado);
+                    return guardado;
                 } else {
                     log.warn("No se pudo actualizar el alumno ID {} en la API externa", id);
                 }
@@ -173,14 +335,9 @@ public class AlumnoService {
             }
             
             // Fallback: actualizar solo en la base de datos local
-            Optional<Alumno> existente = alumnoRepository.findById(id);
-            if (existente.isPresent()) {
-                alumno.setId(id);
-                return alumnoRepository.save(alumno);
-            } else {
-                log.warn("Alumno ID {} no encontrado para actualizar", id);
-                throw new RuntimeException("Alumno no encontrado para actualizar");
-            }
+            Alumno actualizadoLocal = actualizarLocal(id, alumno);
+            descartarDeCache(id, emailAnterior, actualizadoLocal.getEmail());
+            return actualizadoLocal;
             
         } catch (Exception e) {
             log.error("Error al actualizar alumno ID {}: {}", id, e.getMessage());
@@ -196,6 +353,8 @@ public class AlumnoService {
         try {
             log.info("Eliminando alumno ID {}", id);
             
+            String emailAnterior = emailConocido(id);
+            
             // Intentar eliminar de la API externa primero
             boolean eliminadoExterno = false;
             try {
@@ -210,17 +369,8 @@ public class AlumnoService {
             }
             
             // Eliminar de la base de datos local
-            if (alumnoRepository.existsById(id)) {
-                alumnoRepository.deleteById(id);
-                log.info("Alumno ID {} eliminado de la base de datos local", id);
-            } else {
-                log.warn("Alumno ID {} no encontrado en la base de datos local para eliminar", id);
-                
-                // Si no se eliminó ni de la API externa ni de la base local, lanzar excepción
-                if (!eliminadoExterno) {
-                    throw new RuntimeException("Alumno no encontrado para eliminar");
-                }
-            }
+            eliminarLocal(id, eliminadoExterno);
+            registrarEliminacionEnCache(id, emailAnterior);
             
         } catch (Exception e) {
             log.error("Error al eliminar alumno ID {}: {}", id, e.getMessage());
@@ -234,9 +384,364 @@ public class AlumnoService {
      * @return true si existe, false en caso contrario
      */
     public boolean existePorEmail(String email) {
+        KnownEmailsIndex.Check filtro = emailsConocidos.check(email);
+        if (filtro.isDefinitelyNew()) {
+            return false;
+        }
         // Verificar tanto en API externa como en datos locales
         Optional<UserDTO> userExterno = userApiService.getUserByEmail(email);
-        return userExterno.isPresent() || alumnoRepository.existsByEmail(email);
+        boolean existe = userExterno.isPresent() || alumnoRepository.existsByEmail(email);
+        emailsConocidos.recordExactCheck(filtro, existe);
+        return existe;
+    }
+
+    /**
+     * Variante no bloqueante de obtenerTodos()
+     * Las consultas a la base local se ejecutan en el scheduler boundedElastic,
+     * nunca en el hilo de la petición
+     * @return Mono con la lista de alumnos
+     */
+    public Mono<List<Alumno>> obtenerTodosReactivo() {
+        if (mirrorSync.isServingReads()) {
+            return enBaseLocal(alumnoRepository::findByActivoTrue);
+        }
+        return userApiService.getAllUsersReactive()
+                .flatMap(users -> {
+                    if (!users.isEmpty()) {
+                        return Mono.just(convertirUsuariosActivos(users));
+                    }
+                    log.warn("API externa no disponible, usando datos locales");
+                    return enBaseLocal(alumnoRepository::findAll);
+                })
+                .switchIfEmpty(Mono.defer(() -> enBaseLocal(alumnoRepository::findAll)))
+                .onErrorResume(e -> {
+                    log.error("Error al obtener alumnos: {}", e.getMessage());
+                    return enBaseLocal(alumnoRepository::findAll);
+                });
+    }
+
+    /**
+     * Variante no bloqueante de obtenerPorId()
+     * @param id ID del alumno
+     * @return Mono con el alumno encontrado o empty
+     */
+    public Mono<Optional<Alumno>> obtenerPorIdReactivo(Long id) {
+        if (mirrorSync.isServingReads()) {
+            return enBaseLocal(() -> alumnoRepository.findByIdAndActivoTrue(id));
+        }
+        return userApiService.getUserByIdReactive(id)
+                .flatMap(user -> {
+                    if (user.isPresent() && user.get().isActivo()) {
+                        return Mono.just(Optional.of(convertirUserAAlumno(user.get())));
+                    }
+                    log.warn("Alumno ID {} no encontrado en API externa, buscando en datos locales", id);
+                    return enBaseLocal(() -> alumnoRepository.findById(id));
+                })
+                .switchIfEmpty(Mono.defer(() -> enBaseLocal(() -> alumnoRepository.findById(id))))
+                .onErrorResume(e -> {
+                    log.error("Error al obtener alumno ID {}: {}", id, e.getMessage());
+                    return enBaseLocal(() -> alumnoRepository.findById(id));
+                });
+    }
+
+    /**
+     * Variante no bloqueante de obtenerPorEmail()
+     * @param email Email del alumno
+     * @return Mono con el alumno encontrado o empty
+     */
+    public Mono<Optional<Alumno>> obtenerPorEmailReactivo(String email) {
+        if (mirrorSync.isServingReads()) {
+            return enBaseLocal(() -> alumnoRepository.findByEmailAndActivoTrue(email));
+        }
+        return userApiService.getUserByEmailReactive(email)
+                .flatMap(user -> {
+                    if (user.isPresent() && user.get().isActivo()) {
+                        return Mono.just(Optional.of(convertirUserAAlumno(user.get())));
+                    }
+                    log.warn("Alumno con email {} no encontrado en API externa, buscando en datos locales", email);
+                    return enBaseLocal(() -> alumnoRepository.findByEmail(email));
+                })
+                .switchIfEmpty(Mono.defer(() -> enBaseLocal(() -> alumnoRepository.findByEmail(email))))
+                .onErrorResume(e -> {
+                    log.error("Error al buscar alumno por email {}: {}", email, e.getMessage());
+                    return enBaseLocal(() -> alumnoRepository.findByEmail(email));
+                });
+    }
+
+    /**
+     * Variante no bloqueante de crear()
+     * @param alumno Alumno a crear
+     * @return Mono con el alumno creado, o error si el email ya existe
+     */
+    public Mono<Alumno> crearReactivo(Alumno alumno) {
+        KnownEmailsIndex.Check filtro = emailsConocidos.check(alumno.getEmail());
+        Mono<Optional<UserDTO>> externo = filtro.isDefinitelyNew()
+                ? Mono.just(Optional.empty())
+                : userApiService.getUserByEmailReactive(alumno.getEmail());
+        return externo
+                .flatMap(userExterno -> {
+                    if (userExterno.isPresent()) {
+                        emailsConocidos.recordExactCheck(filtro, true);
+                        log.warn("Ya existe un usuario con email {} en la API externa", alumno.getEmail());
+                        return Mono.<Alumno>error(new RuntimeException("Ya existe un usuario con ese email en el sistema externo"));
+                    }
+                    return enBaseLocal(() -> guardarNuevoLocal(alumno, filtro));
+                })
+                .doOnNext(this::registrarCreacionEnCache)
+                .doOnError(e -> log.error("Error al crear alumno: {}", e.getMessage()));
+    }
+
+    /**
+     * Variante no bloqueante de actualizar()
+     * @param id ID del alumno
+     * @param alumno Datos actualizados
+     * @return Mono con el alumno actualizado, o error si no existe
+     */
+    public Mono<Alumno> actualizarReactivo(Long id, Alumno alumno) {
+        String emailAnterior = emailConocido(id);
+        return userApiService.updateUserReactive(id, convertirAlumnoAUser(alumno))
+                .flatMap(userActualizado -> {
+                    if (userActualizado.isPresent()) {
+                        Alumno alumnoActualizado = convertirUserAAlumno(userActualizado.get());
+                        return enBaseLocal(() -> alumnoRepository.save(alumnoActualizado))
+                                .doOnNext(guardado -> registrarActualizacionExternaEnCache(id, emailAnterior,
+                                        userActualizado.get(), guardado));
+                    }
+                    log.warn("No se pudo actualizar el alumno ID {} en la API externa", id);
+                    return enBaseLocal(() -> actualizarLocal(id, alumno))
+                            .doOnNext(actualizado -> descartarDeCache(id, emailAnterior, actualizado.getEmail()));
+                })
+                .doOnError(e -> log.error("Error al actualizar alumno ID {}: {}", id, e.getMessage()));
+    }
+
+    /**
+     * Variante no bloqueante de eliminar()
+     * @param id ID del alumno
+     * @return Mono que completa al eliminar, o error si no existe en ningún origen
+     */
+    public Mono<Void> eliminarReactivo(Long id) {
+        String emailAnterior = emailConocido(id);
+        return userApiService.deleteUserReactive(id)
+                .flatMap(eliminadoExterno -> enBaseLocal(() -> {
+                    eliminarLocal(id, eliminadoExterno);
+                    return eliminadoExterno;
+                }))
+                .doOnNext(eliminadoExterno -> registrarEliminacionEnCache(id, emailAnterior))
+                .doOnError(e -> log.error("Error al eliminar alumno ID {}: {}", id, e.getMessage()))
+                .then();
+    }
+
+    /**
+     * Variante no bloqueante de existePorEmail()
+     * @param email Email a verificar
+     * @return Mono con true si existe, false en caso contrario
+     */
+    public Mono<Boolean> existePorEmailReactivo(String email) {
+        KnownEmailsIndex.Check filtro = emailsConocidos.check(email);
+        if (filtro.isDefinitelyNew()) {
+            return Mono.just(false);
+        }
+        return userApiService.getUserByEmailReactive(email)
+                .flatMap(userExterno -> userExterno.isPresent()
+                        ? Mono.just(true)
+                        : enBaseLocal(() -> alumnoRepository.existsByEmail(email)))
+                .doOnNext(existe -> emailsConocidos.recordExactCheck(filtro, existe));
+    }
+
+    /**
+     * Lee los alumnos activos del espejo local, en el orden de los IDs recibidos
+     */
+    private List<Alumno> desdeEspejo(List<Long> ids) {
+        Map<Long, Alumno> alumnos = new LinkedHashMap<>();
+        alumnoRepository.findAllById(ids.stream().filter(id -> id != null).distinct().collect(Collectors.toList()))
+                .forEach(alumno -> {
+                    if (alumno.isActivo()) {
+                        alumnos.put(alumno.getId(), alumno);
+                    }
+                });
+        return ids.stream()
+                .distinct()
+                .map(alumnos::get)
+                .filter(alumno -> alumno != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Ejecuta una operación bloqueante de JPA fuera del hilo de la petición
+     */
+    private <T> Mono<T> enBaseLocal(Callable<T> operacion) {
+        return Mono.fromCallable(operacion).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private List<Alumno> convertirUsuariosActivos(List<UserDTO> users) {
+        log.info("Obtenidos {} usuarios de la API externa, convirtiendo a alumnos", users.size());
+        return users.stream()
+                .filter(user -> user.isActivo()) // Solo usuarios activos
+                .map(this::convertirUserAAlumno)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param filtro Respuesta del filtro de emails; con DEFINITELY_NEW se omite la consulta
+     *               (la restricción única de la columna sigue protegiendo la tabla)
+     */
+    private Alumno guardarNuevoLocal(Alumno alumno, KnownEmailsIndex.Check filtro) {
+        // Verificar en datos locales
+        if (!filtro.isDefinitelyNew()) {
+            boolean existe = alumnoRepository.existsByEmail(alumno.getEmail());
+            emailsConocidos.recordExactCheck(filtro, existe);
+            if (existe) {
+                log.warn("Ya existe un alumno con email {} en la base de datos local", alumno.getEmail());
+                throw new RuntimeException("Ya existe un alumno con ese email en la base de datos local");
+            }
+        }
+        
+        return alumnoRepository.save(alumno);
+    }
+
+    private Alumno actualizarLocal(Long id, Alumno alumno) {
+        Optional<Alumno> existente = alumnoRepository.findById(id);
+        if (existente.isPresent()) {
+            alumno.setId(id);
+            return alumnoRepository.save(alumno);
+        } else {
+            log.warn("Alumno ID {} no encontrado para actualizar", id);
+            throw new RuntimeException("Alumno no encontrado para actualizar");
+        }
+    }
+
+    private void eliminarLocal(Long id, boolean eliminadoExterno) {
+        if (alumnoRepository.existsById(id)) {
+            alumnoRepository.deleteById(id);
+            log.info("Alumno ID {} eliminado de la base de datos local", id);
+        } else {
+            log.warn("Alumno ID {} no encontrado en la base de datos local para eliminar", id);
+            
+            // Si no se eliminó ni de la API externa ni de la base local, lanzar excepción
+            if (!eliminadoExterno) {
+                throw new RuntimeException("Alumno no encontrado para eliminar");
+            }
+        }
+    }
+
+    /**
+     * Caché "alumnos" (claves: 'all', 'view', ID y email)
+     *
+     * La proyección 'view' se descarta en cada escritura y se reconstruye en la siguiente lectura
+     *
+     * Las escrituras la mantienen coherente sin vaciarla: cuando la API externa confirma el cambio
+     * se reemplazan las entradas afectadas en su sitio; cuando el cambio es solo local se descartan
+     * únicamente esas entradas. En ningún caso hace falta volver a descargar el directorio.
+     * Cada email guardado se añade además al filtro de emails conocidos (KnownEmailsIndex).
+     */
+    private Cache alumnosCache() {
+        Cache cache = cacheManager.getCache("alumnos");
+        if (cache == null) {
+            throw new IllegalStateException("La caché 'alumnos' no está configurada");
+        }
+        return cache;
+    }
+
+    /**
+     * Email actual del alumno según lo que ya está en memoria (caché o directorio), sin consultas remotas
+     * Se captura antes de una escritura para poder descartar la entrada del email anterior
+     */
+    private String emailConocido(Long id) {
+        Cache.ValueWrapper porId = alumnosCache().get(id);
+        if (porId != null && porId.get() instanceof Alumno alumno) {
+            return alumno.getEmail();
+        }
+        Optional<Alumno> enLista = listaEnCache().stream()
+                .filter(alumno -> id.equals(alumno.getId()))
+                .findFirst();
+        if (enLista.isPresent()) {
+            return enLista.get().getEmail();
+        }
+        return userApiService.getCachedUser(id).map(UserDTO::getEmail).orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Alumno> listaEnCache() {
+        Cache.ValueWrapper todos = alumnosCache().get("all");
+        return todos != null && todos.get() instanceof List<?> lista ? (List<Alumno>) lista : List.of();
+    }
+
+    private void descartarVista(Cache cache) {
+        versionVista.incrementAndGet();
+        cache.evict("view");
+    }
+
+    private void registrarActualizacionExternaEnCache(Long id, String emailAnterior, UserDTO user, Alumno alumno) {
+        if (!user.isActivo()) {
+            // Un usuario inactivo deja de salir de la API externa: las lecturas pasarán a los datos locales
+            descartarDeCache(id, emailAnterior, alumno.getEmail());
+            return;
+        }
+        registrarActualizacionEnCache(id, emailAnterior, alumno);
+    }
+
+    private void registrarActualizacionEnCache(Long id, String emailAnterior, Alumno alumno) {
+        Cache cache = alumnosCache();
+        if (emailAnterior != null && !emailAnterior.equals(alumno.getEmail())) {
+            cache.evict(emailAnterior);
+        }
+        cache.put(id, alumno);
+        if (alumno.getEmail() != null) {
+            cache.put(alumno.getEmail(), alumno);
+            emailsConocidos.register(alumno.getEmail());
+        }
+        Cache.ValueWrapper todos = cache.get("all");
+        if (todos != null) {
+            // Reemplazar el alumno dentro de la lista sin reconstruirla
+            List<Alumno> lista = new ArrayList<>(listaEnCache());
+            lista.replaceAll(actual -> id.equals(actual.getId()) ? alumno : actual);
+            cache.put("all", lista);
+        }
+        descartarVista(cache);
+    }
+
+    private void registrarCreacionEnCache(Alumno creado) {
+        Cache cache = alumnosCache();
+        // Alumno solo local: la búsqueda por email ya lo devolvería (no existe en la API externa),
+        // pero por ID podría coincidir con un usuario externo, así que esa entrada y la lista se descartan
+        if (creado.getEmail() != null) {
+            cache.put(creado.getEmail(), creado);
+            emailsConocidos.register(creado.getEmail());
+        }
+        if (creado.getId() != null) {
+            cache.evict(creado.getId());
+        }
+        cache.evict("all");
+        descartarVista(cache);
+    }
+
+    private void registrarEliminacionEnCache(Long id, String emailAnterior) {
+        Cache cache = alumnosCache();
+        cache.evict(id);
+        if (emailAnterior != null) {
+            cache.evict(emailAnterior);
+        }
+        Cache.ValueWrapper todos = cache.get("all");
+        if (todos != null) {
+            List<Alumno> lista = new ArrayList<>(listaEnCache());
+            lista.removeIf(actual -> id.equals(actual.getId()));
+            cache.put("all", lista);
+        }
+        descartarVista(cache);
+    }
+
+    private void descartarDeCache(Long id, String emailAnterior, String emailNuevo) {
+        Cache cache = alumnosCache();
+        cache.evict(id);
+        if (emailAnterior != null) {
+            cache.evict(emailAnterior);
+        }
+        if (emailNuevo != null) {
+            cache.evict(emailNuevo);
+            emailsConocidos.register(emailNuevo);
+        }
+        cache.evict("all");
+        descartarVista(cache);
     }
 
     /**
@@ -0,0 +1,119 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.AlumnoView;
+import com.fullstack.fullstack.DTO.KeysetPage;
+import com.fullstack.fullstack.Model.Alumno;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Modelo de lectura inmutable del listado de alumnos.
+ *
+ * Se construye una sola vez a partir de la lista de alumnos (tras cada recarga del directorio
+ * o escritura) y después se sirve tal cual en GET /api/alumnos: las peticiones no convierten
+ * ni copian nada, solo serializan la lista ya preparada.
+ *
+ * Los alumnos quedan ordenados por ID; la búsqueda por ID es una búsqueda binaria sobre un
+ * long[] y la búsqueda por email usa un índice por email normalizado.
+ */
+public final class AlumnoViewSnapshot {
+
+    private static final AlumnoViewSnapshot EMPTY = new AlumnoViewSnapshot(List.of(), new long[0], Map.of());
+
+    private final List<AlumnoView> alumnos;
+    private final long[] ids;
+    private final Map<String, AlumnoView> porEmail;
+
+    private AlumnoViewSnapshot(List<AlumnoView> alumnos, long[] ids, Map<String, AlumnoView> porEmail) {
+        this.alumnos = alumnos;
+        this.ids = ids;
+        this.porEmail = porEmail;
+    }
+
+    /**
+     * Construye la proyección a partir de la lista de alumnos
+     * Se ignoran los alumnos sin ID y, si un ID se repite, se conserva el primero
+     * @param origen Alumnos tal como los devuelve AlumnoService.obtenerTodos()
+     * @return Proyección ordenada por ID e indexada por ID y email
+     */
+    public static AlumnoViewSnapshot of(Collection<Alumno> origen) {
+        if (origen.isEmpty()) {
+            return EMPTY;
+        }
+        List<AlumnoView> vistas = new ArrayList<>(origen.size());
+        for (Alumno alumno : origen) {
+            if (alumno != null && alumno.getId() != null) {
+                vistas.add(AlumnoView.of(alumno));
+            }
+        }
+        vistas.sort(Comparator.comparingLong(AlumnoView::id));
+
+        List<AlumnoView> unicos = new ArrayList<>(vistas.size());
+        long[] ids = new long[vistas.size()];
+        Map<String, AlumnoView> porEmail = new HashMap<>(vistas.size() * 2);
+        for (AlumnoView vista : vistas) {
+            if (!unicos.isEmpty() && ids[unicos.size() - 1] == vista.id()) {
+                continue;
+            }
+            ids[unicos.size()] = vista.id();
+            unicos.add(vista);
+            String email = UserDirectorySnapshot.normalizeEmail(vista.email());
+            if (email != null) {
+                porEmail.putIfAbsent(email, vista);
+            }
+        }
+        return new AlumnoViewSnapshot(Collections.unmodifiableList(unicos), Arrays.copyOf(ids, unicos.size()),
+                Collections.unmodifiableMap(porEmail));
+    }
+
+    public static AlumnoViewSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return Alumnos ordenados por ID (lista inmutable, compartida entre peticiones)
+     */
+    public List<AlumnoView> getAlumnos() {
+        return alumnos;
+    }
+
+    /**
+     * Página por cursor sobre la lista ya ordenada, sin copiarla (sublista de solo lectura)
+     * @param despuesDe ID del último alumno de la página anterior, o null para la primera
+     * @param limite Tamaño de la página
+     * @return Alumnos con ID mayor que despuesDe, como máximo limite
+     */
+    public KeysetPage<AlumnoView> pageAfter(Long despuesDe, int limite) {
+        int desde = 0;
+        if (despuesDe != null) {
+            int posicion = Arrays.binarySearch(ids, despuesDe);
+            desde = posicion >= 0 ? posicion + 1 : -posicion - 1;
+        }
+        int hasta = Math.min(alumnos.size(), desde + limite);
+        List<AlumnoView> pagina = alumnos.subList(desde, hasta);
+        String siguiente = hasta < alumnos.size() && hasta > desde ? KeysetPage.encodeCursor(ids[hasta - 1]) : null;
+        return new KeysetPage<>(pagina, siguiente);
+    }
+
+    public Optional<AlumnoView> findById(long id) {
+        int posicion = Arrays.binarySearch(ids, id);
+        return posicion >= 0 ? Optional.of(alumnos.get(posicion)) : Optional.empty();
+    }
+
+    public Optional<AlumnoView> findByEmail(String email) {
+        String clave = UserDirectorySnapshot.normalizeEmail(email);
+        return clave == null ? Optional.empty() : Optional.ofNullable(porEmail.get(clave));
+    }
+
+    public int size() {
+        return alumnos.size();
+    }
+}
@@ -0,0 +1,351 @@
+package com.fullstack.fullstack.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.fullstack.Config.BulkImportProperties;
+import com.fullstack.fullstack.DTO.BulkImportResult;
+import com.fullstack.fullstack.Model.Alumno;
+import com.fullstack.fullstack.Model.Curso;
+import com.fullstack.fullstack.Repository.AlumnoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importación masiva de alumnos y cursos desde un array JSON o un flujo NDJSON
+ *
+ * La entrada se lee en streaming, sin cargarla entera en memoria, y se procesa en bloques de
+ * chunk-size filas. Por cada bloque:
+ * - se validan las filas una a una
+ * - los emails ya registrados se detectan con una sola consulta IN a la base de datos, y los del
+ *   sistema externo con el directorio ya descargado (sin una llamada remota por fila)
+ * - las filas válidas se insertan en un lote JDBC dentro de una transacción
+ * Si el lote falla (p. ej. otra petición insertó el mismo email a la vez), ese bloque se reintenta
+ * fila a fila para rechazar solo las filas problemáticas. Una fila inválida nunca aborta la carga.
+ *
+ * Se inserta por JDBC y no por JPA porque con IDENTITY Hibernate no puede agrupar los INSERT;
+ * un lote JDBC sí, y el AUTO_INCREMENT sigue siendo compatible con los IDs explícitos que
+ * escribe el espejo del directorio (UserDirectoryMirrorSync).
+ *
+ * Métricas publicadas:
+ * - bulk.import.rows{entity=alumno|curso, result=created|rejected}
+ */
+@Service
+@Slf4j
+public class BulkImportService {
+
+    private static final String INSERT_ALUMNO = "INSERT INTO alumnos (nombre, email, activo) VALUES (?, ?, ?)";
+    private static final String INSERT_CURSO = "INSERT INTO curso (nombre, descripcion, duracion) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AlumnoRepository alumnoRepository;
+    private final UserApiService userApiService;
+    private final KnownEmailsIndex emailsConocidos;
+    private final CacheManager cacheManager;
+    private final BulkImportProperties config;
+    private final MeterRegistry meterRegistry;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, AlumnoRepository alumnoRepository,
+                             UserApiService userApiService, KnownEmailsIndex emailsConocidos,
+                             CacheManager cacheManager, BulkImportProperties config, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.alumnoRepository = alumnoRepository;
+        this.userApiService = userApiService;
+        this.emailsConocidos = emailsConocidos;
+        this.cacheManager = cacheManager;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Importa alumnos locales (mismas reglas que crear(): el email no puede existir ni en la base
+     * local ni en el sistema externo, ni repetirse dentro de la carga)
+     * @param cuerpo Array JSON o NDJSON de alumnos ({"nombre": ..., "email": ...})
+     * @return Resumen con las filas creadas y el motivo de cada rechazo
+     */
+    public BulkImportResult importarAlumnos(InputStream cuerpo) throws IOException {
+        UserDirectorySnapshot directorio = userApiService.obtenerDirectorio();
+        Set<String> emailsCarga = new HashSet<>();
+        BulkImportResult resultado = importar(cuerpo, Alumno.class, Alumno::getEmail,
+                (bloque, resumen) -> procesarAlumnos(bloque, resumen, emailsCarga, directorio));
+
+        if (resultado.creados() > 0) {
+            // Los alumnos nuevos afectan a la lista, a la proyección y a las búsquedas por email
+            Cache cache = cacheManager.getCache("alumnos");
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        registrarMetricas("alumno", resultado);
+        return resultado;
+    }
+
+    /**
+     * Importa cursos
+     * @param cuerpo Array JSON o NDJSON de cursos ({"nombre": ..., "descripcion": ..., "duracion": ...})
+     * @return Resumen con las filas creadas y el motivo de cada rechazo
+     */
+    public BulkImportResult importarCursos(InputStream cuerpo) throws IOException {
+        BulkImportResult resultado = importar(cuerpo, Curso.class, Curso::getNombre, this::procesarCursos);
+        registrarMetricas("curso", resultado);
+        return resultado;
+    }
+
+    /**
+     * Lee las filas en streaming y las entrega al procesador en bloques de chunk-size
+     * Una fila con tipos incorrectos se rechaza y se sigue leyendo; un JSON mal formado termina la lectura
+     */
+    private <T> BulkImportResult importar(InputStream cuerpo, Class<T> tipo, Function<T, String> valor,
+                                          Procesador<T> procesador) throws IOException {
+        int tamanoBloque = Math.max(1, config.getChunkSize());
+        Resumen resumen = new Resumen(config.getMaxReportedErrors());
+        List<Fila<T>> bloque = new ArrayList<>(tamanoBloque);
+        int numero = 0;
+
+        try (MappingIterator<T> filas = objectMapper.readerFor(tipo).readValues(cuerpo)) {
+            while (true) {
+                T fila;
+                try {
+                    if (!filas.hasNextValue()) {
+                        break;
+                    }
+                    fila = filas.nextValue();
+                } catch (JsonParseException e) {
+                    resumen.rechazar(++numero, null, "JSON mal formado, se detiene la lectura: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    resumen.rechazar(++numero, null, "Fila no válida: " + e.getOriginalMessage());
+                    continue;
+                }
+                numero++;
+                if (fila == null) {
+                    resumen.rechazar(numero, null, "Fila vacía");
+                    continue;
+                }
+                bloque.add(new Fila<>(numero, fila));
+                if (bloque.size() >= tamanoBloque) {
+                    procesador.procesar(bloque, resumen);
+                    bloque = new ArrayList<>(tamanoBloque);
+                }
+            }
+        }
+        if (!bloque.isEmpty()) {
+            procesador.procesar(bloque, resumen);
+        }
+        log.info("Importación de {}: {} filas, {} creadas, {} rechazadas",
+                tipo.getSimpleName(), numero, resumen.creados, resumen.rechazados);
+        return new BulkImportResult(numero, resumen.creados, resumen.rechazados, resumen.errores);
+    }
+
+    private void procesarAlumnos(List<Fila<Alumno>> bloque, Resumen resumen, Set<String> emailsCarga,
+                                 UserDirectorySnapshot directorio) {
+        List<Fila<Alumno>> validas = new ArrayList<>(bloque.size());
+        for (Fila<Alumno> fila : bloque) {
+            Alumno alumno = fila.valor();
+            String motivo = validarAlumno(alumno);
+            if (motivo == null && !emailsCarga.add(UserDirectorySnapshot.normalizeEmail(alumno.getEmail()))) {
+                motivo = "Email repetido en la carga";
+            }
+            if (motivo == null && directorio.findByEmail(alumno.getEmail()).isPresent()) {
+                motivo = "Ya existe un usuario con ese email en el sistema externo";
+            }
+            if (motivo != null) {
+                resumen.rechazar(fila.numero(), alumno.getEmail(), motivo);
+            } else {
+                validas.add(fila);
+            }
+        }
+        if (validas.isEmpty()) {
+            return;
+        }
+
+        // Una sola consulta IN para todo el bloque en lugar de existsByEmail por fila,
+        // y solo con los emails que el filtro de emails conocidos no descarta
+        Map<String, KnownEmailsIndex.Check> posibles = new LinkedHashMap<>();
+        for (Fila<Alumno> fila : validas) {
+            KnownEmailsIndex.Check check = emailsConocidos.check(fila.valor().getEmail());
+            if (!check.isDefinitelyNew()) {
+                posibles.put(fila.valor().getEmail(), check);
+            }
+        }
+        Set<String> existentes = posibles.isEmpty() ? Set.of() : alumnoRepository.findExistingEmails(posibles.keySet()).stream()
+                .map(UserDirectorySnapshot::normalizeEmail)
+                .collect(Collectors.toSet());
+        posibles.forEach((email, check) ->
+                emailsConocidos.recordExactCheck(check, existentes.contains(UserDirectorySnapshot.normalizeEmail(email))));
+        List<Fila<Alumno>> nuevas = new ArrayList<>(validas.size());
+        for (Fila<Alumno> fila : validas) {
+            if (existentes.contains(UserDirectorySnapshot.normalizeEmail(fila.valor().getEmail()))) {
+                resumen.rechazar(fila.numero(), fila.valor().getEmail(), "Ya existe un alumno con ese email en la base de datos local");
+            } else {
+                nuevas.add(fila);
+            }
+        }
+
+        insertar(INSERT_ALUMNO, nuevas, Alumno::getEmail, resumen, (ps, alumno) -> {
+            ps.setString(1, alumno.getNombre());
+            ps.setString(2, alumno.getEmail());
+            ps.setBoolean(3, true);
+        });
+        // Tras la escritura: una fila que no llegó a guardarse solo deja un falso positivo
+        nuevas.forEach(fila -> emailsConocidos.register(fila.valor().getEmail()));
+    }
+
+    private void procesarCursos(List<Fila<Curso>> bloque, Resumen resumen) {
+        List<Fila<Curso>> validas = new ArrayList<>(bloque.size());
+        for (Fila<Curso> fila : bloque) {
+            String motivo = validarCurso(fila.valor());
+            if (motivo != null) {
+                resumen.rechazar(fila.numero(), fila.valor().getNombre(), motivo);
+            } else {
+                validas.add(fila);
+            }
+        }
+
+        insertar(INSERT_CURSO, validas, Curso::getNombre, resumen, (ps, curso) -> {
+            ps.setString(1, curso.getNombre());
+            ps.setString(2, curso.getDescripcion());
+            ps.setInt(3, curso.getDuracion());
+        });
+    }
+
+    /**
+     * Inserta el bloque en un lote JDBC dentro de una transacción
+     * Si el lote falla se deshace entero y se reintenta fila a fila, para rechazar solo las filas con error
+     */
+    private <T> void insertar(String sql, List<Fila<T>> filas, Function<T, String> valor, Resumen resumen,
+                              ParameterizedPreparedStatementSetter<T> parametros) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        List<T> valores = filas.stream().map(Fila::valor).toList();
+        try {
+            transactionTemplate.executeWithoutResult(estado ->
+                    jdbcTemplate.batchUpdate(sql, valores, valores.size(), parametros));
+            resumen.creados += valores.size();
+        } catch (DataAccessException e) {
+            log.warn("Lote de {} filas rechazado ({}), se reintenta fila a fila",
+                    filas.size(), e.getMostSpecificCause().getMessage());
+            for (Fila<T> fila : filas) {
+                try {
+                    jdbcTemplate.update(sql, ps -> parametros.setValues(ps, fila.valor()));
+                    resumen.creados++;
+                } catch (DataAccessException errorFila) {
+                    resumen.rechazar(fila.numero(), valor.apply(fila.valor()),
+                            "No se pudo guardar: " + errorFila.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Valida y normaliza (recorta espacios) un alumno
+     * @return Motivo del rechazo, o null si es válido
+     */
+    static String validarAlumno(Alumno alumno) {
+        alumno.setNombre(recortar(alumno.getNombre()));
+        alumno.setEmail(recortar(alumno.getEmail()));
+        if (alumno.getNombre() == null) {
+            return "El nombre es obligatorio";
+        }
+        if (alumno.getNombre().length() > 100) {
+            return "El nombre no puede superar 100 caracteres";
+        }
+        if (alumno.getEmail() == null) {
+            return "El email es obligatorio";
+        }
+        if (alumno.getEmail().length() > 100 || alumno.getEmail().indexOf('@') <= 0) {
+            return "Email no válido";
+        }
+        return null;
+    }
+
+    /**
+     * Valida y normaliza un curso con las mismas reglas que sus anotaciones de validación
+     * @return Motivo del rechazo, o null si es válido
+     */
+    static String validarCurso(Curso curso) {
+        curso.setNombre(recortar(curso.getNombre()));
+        if (curso.getNombre() == null) {
+            return "El nombre es obligatorio";
+        }
+        if (curso.getNombre().length() > 100) {
+            return "El nombre no puede superar 100 caracteres";
+        }
+        if (curso.getDescripcion() != null && curso.getDescripcion().length() > 1000) {
+            return "La descripción no puede superar 1000 caracteres";
+        }
+        if (curso.getDuracion() < 1) {
+            return "La duración debe ser mayor a 0";
+        }
+        return null;
+    }
+
+    private static String recortar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String recortado = texto.trim();
+        return recortado.isEmpty() ? null : recortado;
+    }
+
+    private void registrarMetricas(String entidad, BulkImportResult resultado) {
+        meterRegistry.counter("bulk.import.rows", "entity", entidad, "result", "created").increment(resultado.creados());
+        meterRegistry.counter("bulk.import.rows", "entity", entidad, "result", "rejected").increment(resultado.rechazados());
+    }
+
+    @FunctionalInterface
+    private interface Procesador<T> {
+        void procesar(List<Fila<T>> bloque, Resumen resumen);
+    }
+
+    private record Fila<T>(int numero, T valor) {
+    }
+
+    /**
+     * Contadores y errores acumulados durante una importación (un solo hilo)
+     */
+    private static final class Resumen {
+
+        private final int maxErrores;
+        private final List<BulkImportResult.ErrorFila> errores = new ArrayList<>();
+        private int creados;
+        private int rechazados;
+
+        private Resumen(int maxErrores) {
+            this.maxErrores = maxErrores;
+        }
+
+        private void rechazar(int fila, String valor, String motivo) {
+            rechazados++;
+            if (errores.size() < maxErrores) {
+                errores.add(new BulkImportResult.ErrorFila(fila, valor, motivo));
+            }
+        }
+    }
+}
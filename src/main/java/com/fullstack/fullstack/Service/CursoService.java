@@ -1,8 +1,11 @@
 package com.fullstack.fullstack.Service;
 
+import com.fullstack.fullstack.Config.PaginationProperties;
+import com.fullstack.fullstack.DTO.KeysetPage;
 import com.fullstack.fullstack.Model.Curso;
 import com.fullstack.fullstack.Repository.CursoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,6 +20,7 @@ import java.util.Optional;
  *
  * Métodos principales:
  * - obtenerTodos(): Devuelve la lista de todos los cursos.
+ * - obtenerPagina(Long despuesDe, Integer size): Devuelve una página de cursos por cursor.
  * - obtenerPorId(Long id): Busca un curso por su ID.
  * - crear(Curso curso): Guarda un nuevo curso en la base de datos.
  * - actualizar(Long id, Curso datosCurso): Actualiza los datos de un curso existente.
@@ -31,10 +35,21 @@ public class CursoService {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private PaginationProperties paginationProperties;
+
     public List<Curso> obtenerTodos() {
         return cursoRepository.findAll();
     }
 
+    public KeysetPage<Curso> obtenerPagina(Long despuesDe, Integer size) {
+        int limite = paginationProperties.resolveSize(size);
+        // Se pide un curso de más para saber si hay página siguiente sin hacer un COUNT
+        List<Curso> cursos = cursoRepository.findByIdGreaterThanOrderByIdAsc(
+                despuesDe != null ? despuesDe : 0L, Limit.of(limite + 1));
+        return KeysetPage.of(cursos, limite, Curso::getId);
+    }
+
     public Optional<Curso> obtenerPorId(Long id) {
         return cursoRepository.findById(id);
     }
@@ -0,0 +1,118 @@
+package com.fullstack.fullstack.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de emails (normalizados con UserDirectorySnapshot.normalizeEmail)
+ *
+ * mightContain() nunca da falsos negativos: si responde false, el email no se añadió nunca.
+ * Si responde true puede ser un falso positivo, con probabilidad ~ falsePositiveRate mientras
+ * no se supere la capacidad. Los emails no se pueden quitar; el filtro se reconstruye entero.
+ *
+ * Seguro para uso concurrente: los bits se activan con compareAndSet.
+ */
+public class EmailBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+    private final AtomicLong bitsActivos = new AtomicLong();
+    private final AtomicLong elementos = new AtomicLong();
+
+    /**
+     * @param capacidad Emails que se espera añadir
+     * @param falsePositiveRate Tasa de falsos positivos con esa capacidad (0 < p < 1)
+     */
+    public EmailBloomFilter(long capacidad, double falsePositiveRate) {
+        long n = Math.max(1, capacidad);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64, (m + 63) / 64 * 64);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (numBits / 64));
+    }
+
+    public void put(String email) {
+        long hash = hash64(email);
+        long h1 = hash;
+        long h2 = mezclar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean nuevo = false;
+        for (int i = 0; i < numHashes; i++) {
+            if (activar(Math.floorMod(h1 + i * h2, numBits))) {
+                nuevo = true;
+            }
+        }
+        if (nuevo) {
+            elementos.incrementAndGet();
+        }
+    }
+
+    public boolean mightContain(String email) {
+        long hash = hash64(email);
+        long h1 = hash;
+        long h2 = mezclar(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Probabilidad de falso positivo estimada con la ocupación actual: (bits activos / bits)^k
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsActivos.get() / numBits, numHashes);
+    }
+
+    /**
+     * @return Emails añadidos (aproximado: un email que no activa ningún bit nuevo no cuenta)
+     */
+    public long approximateElementCount() {
+        return elementos.get();
+    }
+
+    public long bitSize() {
+        return numBits;
+    }
+
+    public int hashCount() {
+        return numHashes;
+    }
+
+    private boolean activar(long bit) {
+        int palabra = (int) (bit >>> 6);
+        long mascara = 1L << bit;
+        long actual;
+        do {
+            actual = bits.get(palabra);
+            if ((actual & mascara) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        bitsActivos.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los bytes UTF-8, con una mezcla final para repartir los bits altos
+     */
+    private static long hash64(String email) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return mezclar(hash);
+    }
+
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,164 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.BulkImportProperties;
+import com.fullstack.fullstack.DTO.InscripcionRequest;
+import com.fullstack.fullstack.DTO.InscripcionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Inscripción masiva de alumnos en cursos
+ *
+ * Escribe directamente en la tabla curso_alumno, sin cargar las colecciones Curso.alumnos ni
+ * Alumno.cursos ni guardar agregados completos: cada bloque de enrollment-chunk-size pares se envía
+ * como un lote JDBC de INSERT ... SELECT que descarta en SQL los pares ya inscritos y los que apuntan
+ * a un curso o alumno inexistente (el SELECT no devuelve fila). Los pares se ordenan antes de
+ * escribir para que dos inscripciones concurrentes bloqueen las filas en el mismo orden.
+ *
+ * La tabla no tiene clave primaria (List en @ManyToMany), así que el NOT EXISTS es lo que evita
+ * duplicados; dos peticiones simultáneas con el mismo par aún podrían insertarlo dos veces.
+ *
+ * Algunos drivers (p. ej. MariaDB Connector/J 3.x con lotes) responden Statement.SUCCESS_NO_INFO
+ * en lugar de las filas insertadas: en ese caso el total sale de contar las inscripciones de los
+ * cursos afectados antes y después de escribir, dentro de la misma transacción.
+ */
+@Service
+@Slf4j
+public class InscripcionService {
+
+    // Los parámetros se comparan con las columnas id, así que su tipo queda definido en cualquier base de datos
+    // Máximo de IDs por cada IN (...) al contar inscripciones
+    private static final int IDS_POR_CONSULTA = 1000;
+
+    private static final String INSERT_PAR = "INSERT INTO curso_alumno (curso_id, alumno_id) "
+            + "SELECT c.id, a.id FROM curso c, alumnos a "
+            + "WHERE c.id = ? AND a.id = ? "
+            + "AND NOT EXISTS (SELECT 1 FROM curso_alumno ca WHERE ca.curso_id = c.id AND ca.alumno_id = a.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+    private final BulkImportProperties config;
+
+    public InscripcionService(JdbcTemplate jdbcTemplate, CacheManager cacheManager, BulkImportProperties config) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.config = config;
+    }
+
+    /**
+     * Inscribe los alumnos indicados en cada curso, en una sola transacción
+     * @param inscripciones Pares (curso, [alumnos]); puede haber miles de alumnos por curso
+     * @return Pares solicitados, inscritos y omitidos
+     */
+    @Transactional
+    public InscripcionResult inscribir(Collection<InscripcionRequest> inscripciones) {
+        List<Par> pares = new ArrayList<>(normalizar(inscripciones));
+        int tamanoBloque = Math.max(1, config.getEnrollmentChunkSize());
+
+        List<Long> cursos = pares.stream().map(Par::cursoId).distinct().toList();
+        long antes = contarInscripciones(cursos);
+
+        int inscritas = 0;
+        boolean sinRecuento = false;
+        for (int inicio = 0; inicio < pares.size(); inicio += tamanoBloque) {
+            int filas = insertar(pares.subList(inicio, Math.min(inicio + tamanoBloque, pares.size())));
+            if (filas < 0) {
+                sinRecuento = true;
+            } else {
+                inscritas += filas;
+            }
+        }
+        if (sinRecuento) {
+            // El driver no informó las filas de algún lote
+            inscritas = (int) (contarInscripciones(cursos) - antes);
+        }
+
+        if (inscritas > 0 || sinRecuento) {
+            // Los alumnos en caché llevan su lista de cursos
+            Cache cache = cacheManager.getCache("alumnos");
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        log.info("Inscripción masiva: {} pares solicitados, {} inscritos", pares.size(), inscritas);
+        return new InscripcionResult(pares.size(), inscritas, pares.size() - inscritas);
+    }
+
+    /**
+     * Quita pares repetidos y nulos y los ordena por (curso, alumno)
+     */
+    static TreeSet<Par> normalizar(Collection<InscripcionRequest> inscripciones) {
+        TreeSet<Par> pares = new TreeSet<>();
+        if (inscripciones == null) {
+            return pares;
+        }
+        for (InscripcionRequest inscripcion : inscripciones) {
+            if (inscripcion == null || inscripcion.cursoId() == null || inscripcion.alumnoIds() == null) {
+                continue;
+            }
+            for (Long alumnoId : inscripcion.alumnoIds()) {
+                if (alumnoId != null) {
+                    pares.add(new Par(inscripcion.cursoId(), alumnoId));
+                }
+            }
+        }
+        return pares;
+    }
+
+    /**
+     * Un lote JDBC con un INSERT ... SELECT por par
+     * @return Filas insertadas (los pares descartados por el SELECT cuentan 0), o -1 si el driver
+     *         respondió SUCCESS_NO_INFO y no se sabe cuántas
+     */
+    private int insertar(List<Par> bloque) {
+        int[][] resultados = jdbcTemplate.batchUpdate(INSERT_PAR, bloque, bloque.size(), (ps, par) -> {
+            ps.setLong(1, par.cursoId());
+            ps.setLong(2, par.alumnoId());
+        });
+        int insertadas = 0;
+        for (int[] lote : resultados) {
+            for (int filas : lote) {
+                if (filas == Statement.SUCCESS_NO_INFO) {
+                    return -1;
+                }
+                insertadas += Math.max(0, filas);
+            }
+        }
+        return insertadas;
+    }
+
+    /**
+     * Inscripciones actuales de los cursos indicados
+     */
+    private long contarInscripciones(List<Long> cursos) {
+        long total = 0;
+        for (int inicio = 0; inicio < cursos.size(); inicio += IDS_POR_CONSULTA) {
+            List<Long> bloque = cursos.subList(inicio, Math.min(inicio + IDS_POR_CONSULTA, cursos.size()));
+            String marcadores = String.join(", ", Collections.nCopies(bloque.size(), "?"));
+            Long filas = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM curso_alumno WHERE curso_id IN (" + marcadores + ")", Long.class, bloque.toArray());
+            total += filas != null ? filas : 0;
+        }
+        return total;
+    }
+
+    record Par(long cursoId, long alumnoId) implements Comparable<Par> {
+
+        @Override
+        public int compareTo(Par otro) {
+            int porCurso = Long.compare(cursoId, otro.cursoId);
+            return porCurso != 0 ? porCurso : Long.compare(alumnoId, otro.alumnoId);
+        }
+    }
+}
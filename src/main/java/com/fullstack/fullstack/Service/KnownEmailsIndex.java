@@ -0,0 +1,247 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.EmailFilterProperties;
+import com.fullstack.fullstack.DTO.UserDTO;
+import com.fullstack.fullstack.Repository.AlumnoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Índice en memoria de todos los emails conocidos (alumnos locales y usuarios del directorio externo)
+ *
+ * Es un filtro de Bloom que responde "seguro que es nuevo" sin ninguna consulta: solo cuando hay
+ * posible coincidencia hace falta la comprobación exacta contra el directorio externo y la base local.
+ * Se reconstruye con cada instantánea nueva del directorio, en un hilo propio (el publicador del
+ * evento puede ser un hilo de I/O de reactor-netty), y cada escritura le añade el email guardado.
+ * Los emails eliminados siguen dentro hasta la siguiente reconstrucción; solo provocan falsos
+ * positivos, que caen en la comprobación exacta.
+ *
+ * Mientras no se ha descargado el directorio externo no hay índice y todas las comprobaciones son exactas.
+ *
+ * Métricas publicadas:
+ * - alumnos.email.filter.checks{result=definitely_new|maybe|not_ready}: consultas al filtro
+ * - alumnos.email.filter.false.positives: posibles coincidencias del filtro que la comprobación exacta descartó
+ * - alumnos.email.filter.fpp{type=expected}: tasa de falsos positivos estimada con la ocupación actual
+ * - alumnos.email.filter.fpp{type=observed}: falsos positivos / emails nuevos comprobados
+ * - alumnos.email.filter.entries: emails en el filtro (aproximado)
+ */
+@Component
+@Slf4j
+public class KnownEmailsIndex {
+
+    /**
+     * Respuesta del filtro para un email
+     */
+    public enum Check {
+        /** El email seguro que no está registrado: no hace falta comprobación exacta */
+        DEFINITELY_NEW,
+        /** El filtro tiene una posible coincidencia: hace falta la comprobación exacta */
+        MAYBE,
+        /** Aún no hay filtro (o está desactivado): hace falta la comprobación exacta */
+        NOT_READY;
+
+        public boolean isDefinitelyNew() {
+            return this == DEFINITELY_NEW;
+        }
+    }
+
+    private final AlumnoRepository alumnoRepository;
+    private final EmailFilterProperties config;
+    private final AtomicReference<EmailBloomFilter> filtro = new AtomicReference<>();
+    // Filtro que se está reconstruyendo: las escrituras concurrentes también se le añaden
+    private volatile EmailBloomFilter enConstruccion;
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "known-emails-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<UserDirectorySnapshot> pendiente = new AtomicReference<>();
+    private final AtomicBoolean programada = new AtomicBoolean();
+
+    private final Counter nuevos;
+    private final Counter posibles;
+    private final Counter sinFiltro;
+    private final Counter falsosPositivos;
+
+    public KnownEmailsIndex(AlumnoRepository alumnoRepository, EmailFilterProperties config, MeterRegistry meterRegistry) {
+        this.alumnoRepository = alumnoRepository;
+        this.config = config;
+        this.nuevos = Counter.builder("alumnos.email.filter.checks")
+                .description("Comprobaciones de email resueltas por el filtro de Bloom")
+                .tag("result", "definitely_new")
+                .register(meterRegistry);
+        this.posibles = Counter.builder("alumnos.email.filter.checks")
+                .description("Comprobaciones de email resueltas por el filtro de Bloom")
+                .tag("result", "maybe")
+                .register(meterRegistry);
+        this.sinFiltro = Counter.builder("alumnos.email.filter.checks")
+                .description("Comprobaciones de email resueltas por el filtro de Bloom")
+                .tag("result", "not_ready")
+                .register(meterRegistry);
+        this.falsosPositivos = Counter.builder("alumnos.email.filter.false.positives")
+                .description("Posibles coincidencias del filtro descartadas por la comprobación exacta")
+                .register(meterRegistry);
+        Gauge.builder("alumnos.email.filter.fpp", this, KnownEmailsIndex::getExpectedFalsePositiveRate)
+                .description("Tasa de falsos positivos del filtro de emails")
+                .tag("type", "expected")
+                .register(meterRegistry);
+        Gauge.builder("alumnos.email.filter.fpp", this, KnownEmailsIndex::getObservedFalsePositiveRate)
+                .description("Tasa de falsos positivos del filtro de emails")
+                .tag("type", "observed")
+                .register(meterRegistry);
+        Gauge.builder("alumnos.email.filter.entries", this, KnownEmailsIndex::getApproximateSize)
+                .description("Emails en el filtro de Bloom (aproximado)")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Con un directorio nuevo se vuelve a construir el filtro (así también salen los emails eliminados)
+     * La reconstrucción lee toda la tabla alumnos, así que se programa en el hilo propio y no bloquea
+     * al publicador; si llegan varias instantáneas mientras hay una en curso, solo se usa la más reciente
+     */
+    @EventListener
+    public void onDirectoryRefreshed(UserDirectoryRefreshedEvent event) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        pendiente.set(event.getSnapshot());
+        if (programada.compareAndSet(false, true)) {
+            try {
+                ejecutor.execute(this::reconstruirPendiente);
+            } catch (RejectedExecutionException e) {
+                programada.set(false);
+            }
+        }
+    }
+
+    private void reconstruirPendiente() {
+        try {
+            UserDirectorySnapshot snapshot;
+            while ((snapshot = pendiente.getAndSet(null)) != null) {
+                rebuild(snapshot);
+            }
+        } finally {
+            programada.set(false);
+            // Una instantánea pudo llegar justo después de vaciar la cola
+            if (pendiente.get() != null && programada.compareAndSet(false, true)) {
+                ejecutor.execute(this::reconstruirPendiente);
+            }
+        }
+    }
+
+    /**
+     * Construye un filtro nuevo con los emails del directorio y de la base local y lo publica
+     * @param snapshot Instantánea del directorio externo
+     */
+    public synchronized void rebuild(UserDirectorySnapshot snapshot) {
+        long capacidad = (long) ((snapshot.size() + alumnoRepository.count()) * (1 + config.getHeadroom()));
+        EmailBloomFilter nuevo = new EmailBloomFilter(Math.max(config.getMinCapacity(), capacidad), config.getFalsePositiveRate());
+        // Se publica antes de leer la base local: lo que se escriba a partir de aquí llega por register()
+        enConstruccion = nuevo;
+        try {
+            for (String email : alumnoRepository.findAllEmails()) {
+                agregar(nuevo, email);
+            }
+            for (UserDTO user : snapshot.getUsers()) {
+                agregar(nuevo, user.getEmail());
+            }
+            filtro.set(nuevo);
+            log.info("Filtro de emails reconstruido: {} emails, {} bits, {} hashes, fpp estimada {}",
+                    nuevo.approximateElementCount(), nuevo.bitSize(), nuevo.hashCount(),
+                    String.format("%.4f", nuevo.expectedFalsePositiveRate()));
+        } catch (RuntimeException e) {
+            // Se conserva el filtro anterior, que sigue siendo correcto (recibe las escrituras)
+            log.warn("No se pudo reconstruir el filtro de emails: {}", e.getMessage());
+        } finally {
+            enConstruccion = null;
+        }
+    }
+
+    /**
+     * @param email Email a comprobar
+     * @return DEFINITELY_NEW si el email seguro que no está registrado (ni local ni externo);
+     *         MAYBE o NOT_READY si hace falta la comprobación exacta
+     */
+    public Check check(String email) {
+        EmailBloomFilter actual = filtro.get();
+        // Un email vacío o en blanco no se normaliza: lo decide la comprobación exacta
+        String normalizado = UserDirectorySnapshot.normalizeEmail(email);
+        if (!config.isEnabled() || actual == null || normalizado == null) {
+            sinFiltro.increment();
+            return Check.NOT_READY;
+        }
+        if (actual.mightContain(normalizado)) {
+            posibles.increment();
+            return Check.MAYBE;
+        }
+        nuevos.increment();
+        return Check.DEFINITELY_NEW;
+    }
+
+    /**
+     * Resultado de la comprobación exacta (para la tasa de falsos positivos)
+     * Solo cuenta tras una posible coincidencia del filtro; las comprobaciones hechas porque aún
+     * no había filtro no dicen nada de su precisión
+     * @param check Respuesta del filtro que obligó a la comprobación exacta
+     * @param existe true si el email estaba registrado
+     */
+    public void recordExactCheck(Check check, boolean existe) {
+        if (check == Check.MAYBE && !existe) {
+            falsosPositivos.increment();
+        }
+    }
+
+    /**
+     * Añade un email recién guardado (alta, cambio de email o importación)
+     * Debe llamarse después de confirmar la escritura: si hay una reconstrucción en curso, o bien ya
+     * está publicada en enConstruccion o bien empezará después y leerá el email de la base local
+     */
+    public void register(String email) {
+        // enConstruccion antes que filtro: así ninguna reconstrucción que termine en medio se lo pierde
+        agregar(enConstruccion, email);
+        agregar(filtro.get(), email);
+    }
+
+    public boolean isReady() {
+        return filtro.get() != null;
+    }
+
+    double getExpectedFalsePositiveRate() {
+        EmailBloomFilter actual = filtro.get();
+        return actual != null ? actual.expectedFalsePositiveRate() : 0;
+    }
+
+    double getObservedFalsePositiveRate() {
+        double negativos = nuevos.count() + falsosPositivos.count();
+        return negativos > 0 ? falsosPositivos.count() / negativos : 0;
+    }
+
+    double getApproximateSize() {
+        EmailBloomFilter actual = filtro.get();
+        return actual != null ? actual.approximateElementCount() : 0;
+    }
+
+    private static void agregar(EmailBloomFilter destino, String email) {
+        String normalizado = UserDirectorySnapshot.normalizeEmail(email);
+        if (destino != null && normalizado != null) {
+            destino.put(normalizado);
+        }
+    }
+}
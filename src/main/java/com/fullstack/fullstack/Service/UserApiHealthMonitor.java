@@ -0,0 +1,226 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monitor de salud de la API externa de usuarios
+ *
+ * Sondea periódicamente la API con una petición HEAD ligera (sin descargar el directorio)
+ * y mantiene en memoria el estado y las latencias recientes, de modo que consultar
+ * la disponibilidad no genera ninguna llamada remota.
+ *
+ * Estados:
+ * - UNKNOWN: todavía no ha terminado ningún sondeo
+ * - UP: el último sondeo respondió dentro de degraded-latency
+ * - DEGRADED: responde pero lento, o falló un sondeo aislado tras estar disponible
+ * - DOWN: falló failure-threshold veces seguidas (o nunca estuvo disponible)
+ *
+ * Métricas publicadas:
+ * - users.api.health.state (0 = desconocido, 1 = disponible, 2 = degradada, 3 = caída)
+ * - users.api.health.probe{outcome=success|failure}: latencia de los sondeos
+ */
+@Component
+@Slf4j
+public class UserApiHealthMonitor {
+
+    public enum Status { UNKNOWN, UP, DEGRADED, DOWN }
+
+    private static final int MUESTRAS_LATENCIA = 20;
+
+    private final WebClient webClient;
+    private final UserApiProperties.Health config;
+    private final Timer sondeosCorrectos;
+    private final Timer sondeosFallidos;
+    private final CountDownLatch primerSondeo = new CountDownLatch(1);
+    private final ScheduledExecutorService sondeos = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "users-api-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Status estado = Status.UNKNOWN;
+    private volatile Instant ultimoSondeo;
+    private volatile Instant ultimoCambio;
+    private volatile String ultimoError;
+    private int fallosConsecutivos;
+
+    // Latencias recientes en milisegundos (buffer circular)
+    private final long[] latencias = new long[MUESTRAS_LATENCIA];
+    private int posicion;
+    private int muestras;
+
+    public UserApiHealthMonitor(WebClient usersApiWebClient, UserApiProperties properties, MeterRegistry meterRegistry) {
+        this.webClient = usersApiWebClient;
+        this.config = properties.getHealth();
+        Gauge.builder("users.api.health.state", this, monitor -> monitor.getStatus().ordinal())
+                .description("Estado de la API externa (0 = desconocido, 1 = disponible, 2 = degradada, 3 = caída)")
+                .register(meterRegistry);
+        this.sondeosCorrectos = Timer.builder("users.api.health.probe")
+                .description("Latencia de los sondeos de salud a la API externa")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.sondeosFallidos = Timer.builder("users.api.health.probe")
+                .description("Latencia de los sondeos de salud a la API externa")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (config.isEnabled()) {
+            long intervalo = config.getInterval().toMillis();
+            sondeos.scheduleWithFixedDelay(this::sondearSinErrores, 0, intervalo, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        sondeos.shutdownNow();
+    }
+
+    /**
+     * @return true si la API está disponible (UP o DEGRADED) según el último sondeo
+     * Sin sondeo periódico, hace un sondeo en el momento
+     */
+    public boolean isAvailable() {
+        Status actual = config.isEnabled() ? estado : sondear();
+        return actual == Status.UP || actual == Status.DEGRADED;
+    }
+
+    public Status getStatus() {
+        return estado;
+    }
+
+    /**
+     * Espera a que termine el primer sondeo, como mucho health.startup-wait
+     * Pensado para la lógica de arranque, que necesita un estado conocido
+     * @return Estado tras la espera (UNKNOWN si el sondeo no terminó a tiempo)
+     */
+    public Status awaitFirstProbe() {
+        if (!config.isEnabled()) {
+            return sondear();
+        }
+        try {
+            primerSondeo.await(config.getStartupWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return estado;
+    }
+
+    /**
+     * Ejecuta un sondeo HEAD y actualiza el estado
+     * Cualquier respuesta que no sea 5xx indica que la API está viva
+     * @return Estado resultante
+     */
+    public Status sondear() {
+        long inicio = System.nanoTime();
+        try {
+            HttpStatusCode codigo = webClient.head()
+                    .uri(config.getProbePath())
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                    .timeout(config.getTimeout())
+                    .block();
+            Duration latencia = Duration.ofNanos(System.nanoTime() - inicio);
+            if (codigo != null && codigo.is5xxServerError()) {
+                return registrarFallo(latencia, "HTTP " + codigo.value());
+            }
+            return registrarExito(latencia);
+        } catch (Exception e) {
+            return registrarFallo(Duration.ofNanos(System.nanoTime() - inicio), e.getMessage());
+        } finally {
+            primerSondeo.countDown();
+        }
+    }
+
+    /**
+     * @return Estado, latencias recientes (última, media, p95, máxima) y último error (para actuator)
+     */
+    public synchronized Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("status", estado);
+        detalle.put("lastProbeAt", ultimoSondeo);
+        detalle.put("lastChangeAt", ultimoCambio);
+        detalle.put("consecutiveFailures", fallosConsecutivos);
+        detalle.put("lastError", ultimoError);
+
+        Map<String, Object> latencia = new LinkedHashMap<>();
+        latencia.put("samples", muestras);
+        if (muestras > 0) {
+            long[] ordenadas = Arrays.copyOf(latencias, muestras);
+            Arrays.sort(ordenadas);
+            latencia.put("lastMs", latencias[(posicion - 1 + MUESTRAS_LATENCIA) % MUESTRAS_LATENCIA]);
+            latencia.put("avgMs", Arrays.stream(ordenadas).sum() / muestras);
+            latencia.put("p95Ms", ordenadas[(int) Math.ceil(0.95 * muestras) - 1]);
+            latencia.put("maxMs", ordenadas[muestras - 1]);
+        }
+        detalle.put("latency", latencia);
+        return detalle;
+    }
+
+    private void sondearSinErrores() {
+        try {
+            sondear();
+        } catch (RuntimeException e) {
+            // Nunca dejar que una excepción cancele la tarea periódica
+            log.warn("Error inesperado en el sondeo de salud de la API externa: {}", e.getMessage());
+        }
+    }
+
+    private synchronized Status registrarExito(Duration latencia) {
+        sondeosCorrectos.record(latencia);
+        registrarLatencia(latencia);
+        fallosConsecutivos = 0;
+        ultimoError = null;
+        boolean lenta = latencia.compareTo(config.getDegradedLatency()) > 0;
+        return cambiarEstado(lenta ? Status.DEGRADED : Status.UP);
+    }
+
+    private synchronized Status registrarFallo(Duration latencia, String error) {
+        sondeosFallidos.record(latencia);
+        fallosConsecutivos++;
+        ultimoError = error;
+        boolean nuncaDisponible = estado == Status.UNKNOWN || estado == Status.DOWN;
+        return cambiarEstado(nuncaDisponible || fallosConsecutivos >= config.getFailureThreshold()
+                ? Status.DOWN : Status.DEGRADED);
+    }
+
+    private void registrarLatencia(Duration latencia) {
+        latencias[posicion] = latencia.toMillis();
+        posicion = (posicion + 1) % MUESTRAS_LATENCIA;
+        muestras = Math.min(muestras + 1, MUESTRAS_LATENCIA);
+    }
+
+    private Status cambiarEstado(Status nuevo) {
+        ultimoSondeo = Instant.now();
+        if (nuevo != estado) {
+            if (nuevo == Status.DOWN) {
+                log.warn("API externa {} -> DOWN: {}", estado, ultimoError);
+            } else {
+                log.info("API externa {} -> {}", estado, nuevo);
+            }
+            estado = nuevo;
+            ultimoCambio = ultimoSondeo;
+        }
+        return nuevo;
+    }
+}
@@ -0,0 +1,190 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import com.fullstack.fullstack.DTO.ConnectivityReport;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Perfilador de latencia de la API externa de usuarios
+ *
+ * Lanza N sondeos GET concurrentes, cada uno con su propia conexión (sin pool), y mide por sondeo:
+ * - tiempo de conexión (TCP/TLS)
+ * - tiempo hasta el primer byte (cabeceras de respuesta recibidas)
+ * - latencia total (cuerpo completo leído)
+ * - tamaño del cuerpo
+ *
+ * El diagnóstico completo nunca supera diagnostics.budget: al agotarse el presupuesto
+ * los sondeos pendientes se cancelan y se informa con los que hayan terminado.
+ */
+@Component
+@Slf4j
+public class UserApiLatencyProfiler {
+
+    private final UserApiProperties.Diagnostics config;
+    private final String apiBaseUrl;
+    private final HttpClient httpClient;
+
+    public UserApiLatencyProfiler(UserApiProperties properties) {
+        this.config = properties.getDiagnostics();
+        this.apiBaseUrl = properties.getBaseUrl();
+        // Conexión nueva por sondeo para que el tiempo de conexión sea real y no el de una conexión reutilizada
+        this.httpClient = HttpClient.newConnection()
+                .baseUrl(apiBaseUrl)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getHttp().getConnectTimeout().toMillis());
+    }
+
+    /**
+     * Ejecuta el perfilado
+     * @param sondeos Número de sondeos, null para diagnostics.probes (limitado a diagnostics.max-probes)
+     * @param concurrencia Sondeos simultáneos, null para diagnostics.concurrency (limitado al número de sondeos)
+     * @return Mono con el informe; nunca termina en error
+     */
+    public Mono<ConnectivityReport> perfilar(Integer sondeos, Integer concurrencia) {
+        int total = Math.max(1, Math.min(sondeos != null ? sondeos : config.getProbes(), config.getMaxProbes()));
+        int paralelos = Math.max(1, Math.min(concurrencia != null ? concurrencia : config.getConcurrency(), total));
+        log.info("Perfilando {}{} con {} sondeos ({} en paralelo)", apiBaseUrl, config.getPath(), total, paralelos);
+
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return Flux.range(0, total)
+                    .flatMap(i -> sondear(), paralelos)
+                    .take(config.getBudget())
+                    .collectList()
+                    .map(muestras -> construirInforme(muestras, total, paralelos, System.nanoTime() - inicio));
+        });
+    }
+
+    /**
+     * Un sondeo: nunca termina en error, los fallos se devuelven como muestra con error
+     */
+    private Mono<Muestra> sondear() {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            AtomicLong inicioConexion = new AtomicLong();
+            AtomicLong conectado = new AtomicLong();
+
+            return httpClient
+                    .doOnConnect(c -> inicioConexion.set(System.nanoTime()))
+                    .doOnConnected(c -> conectado.set(System.nanoTime()))
+                    .get()
+                    .uri(config.getPath())
+                    .response((respuesta, cuerpo) -> {
+                        long primerByte = System.nanoTime();
+                        int codigo = respuesta.status().code();
+                        return cuerpo.map(ByteBuf::readableBytes)
+                                .reduce(0L, (acumulado, bytes) -> acumulado + bytes)
+                                .map(bytes -> new Muestra(
+                                        conectado.get() > 0 ? conectado.get() - inicioConexion.get() : -1,
+                                        primerByte - inicio,
+                                        System.nanoTime() - inicio,
+                                        bytes,
+                                        codigo >= 400 ? "HTTP " + codigo : null));
+                    })
+                    .next()
+                    .timeout(config.getBudget())
+                    .onErrorResume(e -> Mono.just(Muestra.fallida(System.nanoTime() - inicio, e.getClass().getSimpleName())));
+        });
+    }
+
+    private ConnectivityReport construirInforme(List<Muestra> muestras, int total, int paralelos, long duracionNanos) {
+        List<Muestra> correctas = new ArrayList<>();
+        Map<String, Integer> errores = new TreeMap<>();
+        for (Muestra muestra : muestras) {
+            if (muestra.error() == null) {
+                correctas.add(muestra);
+            } else {
+                errores.merge(muestra.error(), 1, Integer::sum);
+            }
+        }
+        int canceladas = total - muestras.size();
+
+        ConnectivityReport.Stats latencia = estadisticas(correctas, Muestra::totalNanos, true);
+        return ConnectivityReport.builder()
+                .baseUrl(apiBaseUrl)
+                .endpoint(config.getPath())
+                .requestedProbes(total)
+                .concurrency(paralelos)
+                .completedProbes(correctas.size())
+                .failedProbes(muestras.size() - correctas.size())
+                .cancelledProbes(canceladas)
+                .budgetMs(config.getBudget().toMillis())
+                .elapsedMs(duracionNanos / 1_000_000)
+                .budgetExceeded(canceladas > 0)
+                .connectTimeMs(estadisticas(correctas.stream().filter(m -> m.conexionNanos() >= 0).toList(),
+                        Muestra::conexionNanos, true))
+                .timeToFirstByteMs(estadisticas(correctas, Muestra::primerByteNanos, true))
+                .totalLatencyMs(latencia)
+                .payloadBytes(estadisticas(correctas, Muestra::bytes, false))
+                .errors(errores)
+                .recomendaciones(recomendaciones(correctas.size(), total, canceladas, latencia))
+                .build();
+    }
+
+    private ConnectivityReport.Stats estadisticas(List<Muestra> muestras, ToLongFunction<Muestra> valor, boolean nanosAMillis) {
+        if (muestras.isEmpty()) {
+            return ConnectivityReport.Stats.builder().samples(0).build();
+        }
+        List<Double> valores = new ArrayList<>(muestras.size());
+        for (Muestra muestra : muestras) {
+            long v = valor.applyAsLong(muestra);
+            valores.add(nanosAMillis ? v / 1_000_000.0 : v);
+        }
+        Collections.sort(valores);
+        return ConnectivityReport.Stats.builder()
+                .samples(valores.size())
+                .min(valores.get(0))
+                .p50(percentil(valores, 50))
+                .p95(percentil(valores, 95))
+                .p99(percentil(valores, 99))
+                .max(valores.get(valores.size() - 1))
+                .build();
+    }
+
+    /**
+     * Percentil por rango más cercano sobre valores ordenados
+     */
+    static double percentil(List<Double> ordenados, int percentil) {
+        int rango = (int) Math.ceil(percentil / 100.0 * ordenados.size());
+        return ordenados.get(Math.max(0, rango - 1));
+    }
+
+    private List<String> recomendaciones(int correctas, int total, int canceladas, ConnectivityReport.Stats latencia) {
+        List<String> recomendaciones = new ArrayList<>();
+        if (correctas == 0) {
+            recomendaciones.add("Ningún sondeo terminó correctamente: verificar conectividad de red y la URL base");
+        } else if (correctas < total) {
+            recomendaciones.add("Fallos o cancelaciones esporádicas: revisar reintentos con backoff y el circuit breaker");
+        }
+        if (canceladas > 0) {
+            recomendaciones.add("Se agotó el presupuesto de tiempo: la API externa es lenta, revisar timeouts");
+        }
+        if (latencia.getSamples() > 0 && latencia.getP99() > 2 * latencia.getP50()) {
+            recomendaciones.add("Latencia de cola alta (p99 > 2 x p50): considerar hedging o timeouts adaptativos");
+        }
+        return recomendaciones;
+    }
+
+    /**
+     * Mediciones de un sondeo (tiempos en nanosegundos)
+     */
+    private record Muestra(long conexionNanos, long primerByteNanos, long totalNanos, long bytes, String error) {
+
+        static Muestra fallida(long totalNanos, String error) {
+            return new Muestra(-1, -1, totalNanos, 0, error);
+        }
+    }
+}
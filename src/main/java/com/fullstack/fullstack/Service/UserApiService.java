@@ -1,25 +1,58 @@
 package com.fullstack.fullstack.Service;
 
+import com.fullstack.fullstack.Config.UserApiProperties;
 import com.fullstack.fullstack.DTO.UserDTO;
 import com.fullstack.fullstack.DTO.UserListResponse;
-import com.fullstack.fullstack.DTO.UserListHateoasResponse;
+import com.fullstack.fullstack.Resilience.AdaptiveTimeouts;
+import com.fullstack.fullstack.Resilience.Bulkhead;
+import com.fullstack.fullstack.Resilience.CircuitBreaker;
+import com.fullstack.fullstack.Resilience.Hedger;
+import com.fullstack.fullstack.Resilience.MicroBatcher;
+import com.fullstack.fullstack.Resilience.RetryBudget;
+import com.fullstack.fullstack.Resilience.SingleFlight;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.util.retry.Retry;
-import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import reactor.netty.http.client.HttpClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * Servicio para consumir la API externa de usuarios
@@ -30,54 +63,313 @@ public class UserApiService {
 
     private final WebClient webClient;
     private final String apiBaseUrl;
+    private final UserApiProperties.Directory directoryProperties;
+    private final UserApiProperties.Batch batchProperties;
+    private final AtomicReference<UserDirectorySnapshot> directorio = new AtomicReference<>();
+    // Write-through hechos durante una descarga del directorio, para reaplicarlos sobre la lista descargada
+    private final ConcurrentSkipListMap<Long, UnaryOperator<UserDirectorySnapshot>> escriturasDuranteDescarga =
+            new ConcurrentSkipListMap<>();
+    private final AtomicLong secuenciaEscrituras = new AtomicLong();
+    private final AtomicInteger descargasEnCurso = new AtomicInteger();
+    private final AtomicBoolean refrescoPendiente = new AtomicBoolean();
+    private volatile Instant ultimoIntentoRefresco = Instant.EPOCH;
+    private final ScheduledExecutorService refrescoDirectorio = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "users-directory-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    public UserApiService(@Value("${external.api.users.base-url}") String apiBaseUrl) {
-        this.apiBaseUrl = apiBaseUrl;
-        
-        // Configurar HttpClient con timeouts más largos para conexiones lentas
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000) // 10 segundos para conectar
-                .doOnConnected(conn -> conn
-                        .addHandlerLast(new ReadTimeoutHandler(60, TimeUnit.SECONDS))  // 60 segundos para leer
-                        .addHandlerLast(new WriteTimeoutHandler(30, TimeUnit.SECONDS))); // 30 segundos para escribir
-        
-        this.webClient = WebClient.builder()
-                .baseUrl(apiBaseUrl)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024)) // 2MB buffer
+    private final SingleFlight<String, UserDirectorySnapshot> cargasDirectorio;
+    private final SingleFlight<Long, Optional<UserDTO>> consultasPorId;
+    private final MicroBatcher<Long, UserDTO> lotesPorId;
+    private final Hedger hedger;
+    private final AdaptiveTimeouts timeouts;
+    private final Bulkhead bulkhead;
+    private final RetryBudget retryBudget;
+
+    private final CacheManager cacheManager;
+    private final Cache inexistentes;
+    private final Counter directorioModificado;
+    private final Counter directorioSinCambios;
+    private final CircuitBreaker circuitBreaker;
+    private final UserDirectoryStreamReader directoryReader;
+    private final UserApiHealthMonitor healthMonitor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserApiService(WebClient usersApiWebClient, UserApiProperties properties, MeterRegistry meterRegistry,
+                          CacheManager cacheManager, CircuitBreaker circuitBreaker,
+                          UserDirectoryStreamReader directoryReader, UserApiHealthMonitor healthMonitor,
+                          ApplicationEventPublisher eventPublisher, Hedger usersApiHedger,
+                          AdaptiveTimeouts usersApiTimeouts, Bulkhead usersApiBulkhead,
+                          RetryBudget usersApiRetryBudget) {
+        this.webClient = usersApiWebClient;
+        this.retryBudget = usersApiRetryBudget;
+        this.bulkhead = usersApiBulkhead;
+        this.hedger = usersApiHedger;
+        this.timeouts = usersApiTimeouts;
+        this.eventPublisher = eventPublisher;
+        this.directoryReader = directoryReader;
+        this.healthMonitor = healthMonitor;
+        this.apiBaseUrl = properties.getBaseUrl();
+        this.cacheManager = cacheManager;
+        this.circuitBreaker = circuitBreaker;
+        this.directoryProperties = properties.getDirectory();
+        this.cargasDirectorio = new SingleFlight<>("listar", meterRegistry);
+        this.consultasPorId = new SingleFlight<>("encontrar", meterRegistry);
+        this.batchProperties = properties.getBatch();
+        this.lotesPorId = new MicroBatcher<>("encontrar", batchProperties.getWindow(), batchProperties.getMaxSize(),
+                this::resolverLote, meterRegistry);
+        this.inexistentes = crearCacheInexistentes(properties.getNegativeCache(), meterRegistry);
+        this.directorioModificado = Counter.builder("users.api.directory.refresh")
+                .description("Descargas del directorio de usuarios según si había cambios")
+                .tag("result", "modified")
+                .register(meterRegistry);
+        this.directorioSinCambios = Counter.builder("users.api.directory.refresh")
+                .description("Descargas del directorio de usuarios según si había cambios")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Caché negativa: IDs ("id:N") y emails ("email:x") que la API externa confirmó que no existen
+     * Solo se guardan respuestas 404 o ausencias en un directorio descargado correctamente, nunca errores
+     * Se publica en /actuator/metrics como cache.*{cache=users-missing}
+     */
+    private static Cache crearCacheInexistentes(UserApiProperties.NegativeCache config, MeterRegistry meterRegistry) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cache = Caffeine.newBuilder()
+                .expireAfterWrite(config.getTtl())
+                .maximumSize(config.getMaximumSize())
+                .recordStats()
                 .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users-missing");
+        return new CaffeineCache("users-missing", cache, false);
+    }
+
+    /**
+     * Inicia la revisión periódica de la edad del directorio (también hace la carga inicial)
+     */
+    @PostConstruct
+    void iniciarRefrescoDirectorio() {
+        if (directoryProperties.isBackgroundRefresh()) {
+            long intervalo = directoryProperties.getCheckInterval().toMillis();
+            refrescoDirectorio.scheduleWithFixedDelay(this::refrescarSiCaducado, 0, intervalo, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void detenerRefrescoDirectorio() {
+        refrescoDirectorio.shutdownNow();
     }
 
     /**
      * Obtiene todos los usuarios de la API externa
+     * La lista proviene de la instantánea indexada del directorio (stale-while-revalidate):
+     * se devuelve siempre la instantánea actual y, si es vieja, se recarga en segundo plano
      * @return Lista de usuarios o lista vacía si hay error
      */
-    @Cacheable(value = "users", key = "'all'")
     public List<UserDTO> getAllUsers() {
+        return obtenerDirectorio().getUsers();
+    }
+
+    /**
+     * Variante no bloqueante de getAllUsers()
+     * @return Mono con la lista de usuarios (vacía si hay error); nunca termina en error
+     */
+    public Mono<List<UserDTO>> getAllUsersReactive() {
+        return obtenerDirectorioReactive().map(UserDirectorySnapshot::getUsers);
+    }
+
+    /**
+     * Devuelve la instantánea actual del directorio, cargándola si todavía no existe
+     * Las cargas concurrentes se coalescen para que solo se descargue la lista una vez.
+     * Si la instantánea es vieja se devuelve igualmente y se programa su recarga en segundo plano.
+     * @return Instantánea indexada del directorio (vacía si la API externa falla)
+     */
+    public UserDirectorySnapshot obtenerDirectorio() {
+        if (directorio.get() != null) {
+            // Ya está en memoria: no hay llamada remota que aislar
+            return obtenerDirectorioReactive().block();
+        }
+        return bloquear(obtenerDirectorioReactive());
+    }
+
+    /**
+     * Variante no bloqueante de obtenerDirectorio()
+     * @return Mono con la instantánea del directorio; nunca termina en error
+     */
+    public Mono<UserDirectorySnapshot> obtenerDirectorioReactive() {
+        UserDirectorySnapshot actual = directorio.get();
+        if (actual != null) {
+            if (estaCaducado(actual)) {
+                solicitarRefrescoEnSegundoPlano();
+            }
+            return Mono.just(actual);
+        }
+        // Los lectores concurrentes que no encuentran directorio comparten una sola descarga
+        return cargasDirectorio.executeReactive("all", this::cargarDirectorio);
+    }
+
+    /**
+     * Descarga el directorio completo, construye sus índices y reemplaza la instantánea de forma atómica
+     * Si la descarga falla se conserva la instantánea anterior
+     * @return Nueva instantánea, la anterior si hubo error, o una vacía si nunca se cargó
+     */
+    public UserDirectorySnapshot refrescarDirectorio() {
+        return cargasDirectorio.executeReactive("all", this::cargarDirectorio).block();
+    }
+
+    /**
+     * Recarga el directorio solo si no existe o si superó la edad configurada
+     * La ejecuta la tarea periódica y las recargas solicitadas por los lectores
+     */
+    void refrescarSiCaducado() {
         try {
+            UserDirectorySnapshot actual = directorio.get();
+            if (actual == null || estaCaducado(actual)) {
+                refrescarDirectorio();
+            }
+        } finally {
+            refrescoPendiente.set(false);
+        }
+    }
+
+    private boolean estaCaducado(UserDirectorySnapshot snapshot) {
+        return Duration.between(snapshot.getLoadedAt(), Instant.now()).compareTo(directoryProperties.getRefreshAfter()) >= 0;
+    }
+
+    /**
+     * Programa una recarga asíncrona sin bloquear al lector
+     * Tras un intento fallido se espera check-interval antes de volver a intentarlo
+     */
+    private void solicitarRefrescoEnSegundoPlano() {
+        Instant siguienteIntentoPermitido = ultimoIntentoRefresco.plus(directoryProperties.getCheckInterval());
+        if (Instant.now().isBefore(siguienteIntentoPermitido) || !refrescoPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refrescoDirectorio.execute(this::refrescarSiCaducado);
+        } catch (RejectedExecutionException e) {
+            refrescoPendiente.set(false);
+        }
+    }
+
+    /**
+     * Pipeline de descarga de /api/usuarios/listar
+     * Si ya hay instantánea, la petición es condicional (If-None-Match / If-Modified-Since) y un 304
+     * solo renueva su fecha de carga, sin descargar ni volver a indexar la lista
+     * Las escrituras registradas mientras tanto se reaplican sobre la lista descargada
+     * Nunca termina en error: si la API falla se devuelve la instantánea anterior
+     */
+    private Mono<UserDirectorySnapshot> cargarDirectorio() {
+        return Mono.defer(() -> {
+            ultimoIntentoRefresco = Instant.now();
+            descargasEnCurso.incrementAndGet();
+            long desde = secuenciaEscrituras.get();
+            UserDirectorySnapshot anterior = directorio.get();
             log.info("Obteniendo todos los usuarios de la API externa: {}", apiBaseUrl);
             
-            // Intentar parsear como respuesta HATEOAS con la estructura correcta
-            UserListHateoasResponse response = webClient.get()
+            return webClient.get()
                     .uri("/api/usuarios/listar")
-                    .retrieve()
-                    .bodyToMono(UserListHateoasResponse.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(5)).maxBackoff(Duration.ofSeconds(15)))
-                    .timeout(Duration.ofSeconds(60))
-                    .block();
-            
-            if (response != null && response.getEmbedded() != null && response.getEmbedded().getUserList() != null) {
-                log.info("Obtenidos {} usuarios de la API externa (HATEOAS)", response.getEmbedded().getUserList().size());
-                return response.getEmbedded().getUserList();
+                    .headers(cabeceras -> agregarValidadores(cabeceras, anterior))
+                    .exchangeToMono(respuesta -> leerDirectorio(respuesta, anterior))
+                    // El plazo lo fijan las descargas completas: los 304, mucho más rápidos, se miden aparte
+                    .transform(llamada -> timeouts.apply("listar", Duration.ofSeconds(60), llamada,
+                            nuevo -> nuevo.isPresent() ? "listar" : "listar-304"))
+                    .transform(retryBudget::withRetries)
+                    .transform(circuitBreaker::protect)
+                    .map(nuevo -> nuevo.map(n -> construirDirectorio(n, desde)).orElseGet(this::revalidarDirectorio))
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        log.warn("Respuesta HATEOAS vacía o inválida de la API externa");
+                        return instantaneaAnterior();
+                    }))
+                    .onErrorResume(e -> {
+                        log.error("Error al obtener usuarios de la API externa: {}", e.getMessage());
+                        return Mono.just(instantaneaAnterior());
+                    })
+                    .doFinally(senal -> {
+                        // SingleFlight: como mucho hay una descarga en curso
+                        if (descargasEnCurso.decrementAndGet() == 0) {
+                            escriturasDuranteDescarga.clear();
+                        }
+                    });
+        });
+    }
+
+    private static void agregarValidadores(HttpHeaders cabeceras, UserDirectorySnapshot anterior) {
+        if (anterior == null) {
+            return;
+        }
+        if (anterior.getEtag() != null) {
+            cabeceras.setIfNoneMatch(anterior.getEtag());
+        }
+        if (anterior.getLastModified() != null) {
+            cabeceras.set(HttpHeaders.IF_MODIFIED_SINCE, anterior.getLastModified());
+        }
+    }
+
+    /**
+     * Lee la respuesta de /api/usuarios/listar
+     * @return Optional vacío si es un 304 (el directorio no cambió), la nueva instantánea con sus
+     * validadores si es un 2xx, o un WebClientResponseException si es un error
+     */
+    private Mono<Optional<UserDirectorySnapshot>> leerDirectorio(ClientResponse respuesta, UserDirectorySnapshot anterior) {
+        if (respuesta.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && anterior != null) {
+            return respuesta.releaseBody().thenReturn(Optional.empty());
+        }
+        if (respuesta.statusCode().isError()) {
+            return respuesta.createError();
+        }
+        HttpHeaders cabeceras = respuesta.headers().asHttpHeaders();
+        String etag = cabeceras.getETag();
+        String lastModified = cabeceras.getFirst(HttpHeaders.LAST_MODIFIED);
+
+        // Leer la respuesta HATEOAS en streaming: cada usuario de _embedded.userList se indexa
+        // en cuanto llega, sin cargar el documento completo ni depender de maxInMemorySize
+        return respuesta.bodyToFlux(DataBuffer.class)
+                .as(directoryReader::read)
+                .map(nuevo -> Optional.of(nuevo.withValidators(etag, lastModified)));
+    }
+
+    /**
+     * 304: se conserva la instantánea actual (incluidas las escrituras locales) con la fecha de carga renovada
+     */
+    private UserDirectorySnapshot revalidarDirectorio() {
+        directorioSinCambios.increment();
+        log.info("El directorio de la API externa no ha cambiado (304), se conserva la instantánea actual");
+        return directorio.updateAndGet(actual -> actual != null ? actual.revalidated() : UserDirectorySnapshot.empty());
+    }
+
+    /**
+     * Publica la instantánea descargada con las escrituras posteriores al inicio de la descarga
+     * (la lista pudo generarse antes que ellas); si otra escritura llega a la vez, updateAndGet
+     * vuelve a aplicar el registro completo
+     * @param desde Secuencia de escrituras al empezar la descarga
+     */
+    private UserDirectorySnapshot construirDirectorio(UserDirectorySnapshot descargado, long desde) {
+        log.info("Obtenidos {} usuarios de la API externa (HATEOAS)", descargado.size());
+        directorioModificado.increment();
+        UserDirectorySnapshot nuevo = directorio.updateAndGet(actual -> {
+            UserDirectorySnapshot resultado = descargado;
+            for (UnaryOperator<UserDirectorySnapshot> escritura : escriturasDuranteDescarga.tailMap(desde, false).values()) {
+                resultado = escritura.apply(resultado);
             }
-            
-            log.warn("Respuesta HATEOAS vacía o inválida de la API externa");
-            return List.of();
-            
-        } catch (Exception e) {
-            log.error("Error al obtener usuarios de la API externa: {}", e.getMessage());
-            return List.of();
+            return resultado;
+        });
+        // Los usuarios que faltaban pueden haber aparecido en la nueva instantánea
+        if (inexistentes != null) {
+            inexistentes.clear();
         }
+        // Avisar al espejo local; los suscriptores no deben bloquear este hilo
+        eventPublisher.publishEvent(new UserDirectoryRefreshedEvent(nuevo));
+        return nuevo;
+    }
+
+    private UserDirectorySnapshot instantaneaAnterior() {
+        UserDirectorySnapshot anterior = directorio.get();
+        return anterior != null ? anterior : UserDirectorySnapshot.empty();
     }
 
     /**
@@ -85,36 +377,201 @@ public class UserApiService {
      * @param id ID del usuario
      * @return Usuario encontrado o empty si no existe/hay error
      */
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(value = "users", key = "#id", unless = "#result == null")
     public Optional<UserDTO> getUserById(Long id) {
-        try {
+        UserDirectorySnapshot actual = directorio.get();
+        if (actual != null) {
+            Optional<UserDTO> enDirectorio = actual.findById(id);
+            if (enDirectorio.isPresent()) {
+                // Ya está en memoria: no hay llamada remota que aislar
+                return enDirectorio;
+            }
+        }
+        if (esInexistente("id:" + id)) {
+            // Fallo reciente confirmado: sin llamada remota ni hilo del bulkhead
+            return Optional.empty();
+        }
+        return bloquear(buscarUsuarioPorId(id));
+    }
+
+    /**
+     * Variante no bloqueante de getUserById(), comparte la caché "users" con la versión bloqueante
+     * La caché "users" solo guarda usuarios encontrados; los inexistentes van a la caché negativa,
+     * de vida corta, y los errores no se guardan en ninguna de las dos
+     * @param id ID del usuario
+     * @return Mono con el usuario encontrado o empty si no existe/hay error; nunca termina en error
+     */
+    public Mono<Optional<UserDTO>> getUserByIdReactive(Long id) {
+        Cache.ValueWrapper enCache = usersCache().get(id);
+        if (enCache != null && enCache.get() != null) {
+            return Mono.just(Optional.of((UserDTO) enCache.get()));
+        }
+        return buscarUsuarioPorId(id)
+                .doOnNext(user -> user.ifPresent(encontrado -> usersCache().put(id, encontrado)));
+    }
+
+    private Mono<Optional<UserDTO>> buscarUsuarioPorId(Long id) {
+        // Consultar primero el índice del directorio ya descargado (O(1), sin llamada remota)
+        UserDirectorySnapshot actual = directorio.get();
+        if (actual != null) {
+            Optional<UserDTO> enDirectorio = actual.findById(id);
+            if (enDirectorio.isPresent()) {
+                return Mono.just(enDirectorio);
+            }
+        }
+        if (esInexistente("id:" + id)) {
+            return Mono.just(Optional.empty());
+        }
+        
+        // Las consultas que llegan dentro de la misma ventana se resuelven juntas en un lote
+        return lotesPorId.load(id)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    /**
+     * Obtiene varios usuarios por ID de una sola vez (p. ej. para mostrar los alumnos de un curso)
+     * Los IDs se deduplican y se resuelven en lote: primero desde la caché y el directorio indexado,
+     * y los que falten con un número acotado de llamadas paralelas
+     * @param ids IDs de los usuarios (se ignoran nulos y repetidos)
+     * @return Mapa ID -> usuario, en el orden de los IDs recibidos; los no encontrados no aparecen
+     */
+    public Map<Long, UserDTO> getUsersByIds(Collection<Long> ids) {
+        Map<Long, UserDTO> conocidos = new LinkedHashMap<>();
+        boolean faltan = false;
+        for (Long id : ids) {
+            if (id == null || conocidos.containsKey(id)) {
+                continue;
+            }
+            Optional<UserDTO> enMemoria = getCachedUser(id);
+            if (enMemoria.isPresent()) {
+                conocidos.put(id, enMemoria.get());
+            } else if (!esInexistente("id:" + id)) {
+                faltan = true;
+                break;
+            }
+        }
+        if (!faltan) {
+            // Todos resueltos desde la caché o el directorio: no hay llamada remota que aislar
+            return conocidos;
+        }
+        return bloquear(getUsersByIdsReactive(ids));
+    }
+
+    /**
+     * Variante no bloqueante de getUsersByIds(), comparte la caché "users" con getUserById()
+     * @param ids IDs de los usuarios
+     * @return Mono con el mapa ID -> usuario; nunca termina en error
+     */
+    public Mono<Map<Long, UserDTO>> getUsersByIdsReactive(Collection<Long> ids) {
+        Set<Long> unicos = new LinkedHashSet<>();
+        ids.stream().filter(Objects::nonNull).forEach(unicos::add);
+        if (unicos.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        log.info("Obteniendo {} usuarios por ID de la API externa", unicos.size());
+
+        return Flux.fromIterable(unicos)
+                .flatMap(id -> getUserByIdReactive(id).flatMap(Mono::justOrEmpty).map(user -> Map.entry(id, user)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(encontrados -> {
+                    // Respetar el orden de los IDs solicitados
+                    Map<Long, UserDTO> resultado = new LinkedHashMap<>();
+                    unicos.forEach(id -> {
+                        UserDTO user = encontrados.get(id);
+                        if (user != null) {
+                            resultado.put(id, user);
+                        }
+                    });
+                    return resultado;
+                });
+    }
+
+    /**
+     * Resuelve un lote de IDs: los que están en el directorio no generan llamadas remotas,
+     * el resto se consulta con como máximo batch.max-concurrency llamadas en paralelo
+     * Si el lote es grande y aún no hay directorio, se descarga la lista completa una sola vez
+     */
+    private Mono<Map<Long, UserDTO>> resolverLote(Set<Long> ids) {
+        return directorioParaLote(ids.size())
+                .flatMap(snapshot -> {
+                    Map<Long, UserDTO> resultado = new LinkedHashMap<>();
+                    List<Long> faltantes = new ArrayList<>();
+                    for (Long id : ids) {
+                        Optional<UserDTO> enDirectorio = snapshot.findById(id);
+                        if (enDirectorio.isPresent()) {
+                            resultado.put(id, enDirectorio.get());
+                        } else {
+                            faltantes.add(id);
+                        }
+                    }
+                    if (faltantes.isEmpty()) {
+                        return Mono.just(resultado);
+                    }
+                    log.debug("Lote de {} IDs: {} en el directorio, {} se consultan a la API externa",
+                            ids.size(), resultado.size(), faltantes.size());
+
+                    // Las peticiones concurrentes del mismo ID comparten una sola llamada remota
+                    return Flux.fromIterable(faltantes)
+                            .flatMap(id -> consultasPorId.executeReactive(id, () -> consultarUsuarioRemoto(id))
+                                    .flatMap(Mono::justOrEmpty)
+                                    .map(user -> Map.entry(id, user)), batchProperties.getMaxConcurrency())
+                            .doOnNext(encontrado -> resultado.put(encontrado.getKey(), encontrado.getValue()))
+                            .then(Mono.fromSupplier(() -> resultado));
+                });
+    }
+
+    private Mono<UserDirectorySnapshot> directorioParaLote(int tamano) {
+        UserDirectorySnapshot actual = directorio.get();
+        if (actual != null) {
+            return Mono.just(actual);
+        }
+        if (tamano >= batchProperties.getDirectoryThreshold()) {
+            // Una descarga de la lista completa sale más barata que muchas consultas individuales
+            return obtenerDirectorioReactive();
+        }
+        return Mono.just(UserDirectorySnapshot.empty());
+    }
+
+    private Mono<Optional<UserDTO>> consultarUsuarioRemoto(Long id) {
+        // Con hedging activo, si la consulta tarda más de lo habitual se lanza una segunda idéntica
+        return hedger.hedge(() -> llamarEncontrar(id))
+                .onErrorResume(e -> {
+                    log.error("Error al obtener usuario ID {} de la API externa: {}", id, e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    /**
+     * Una llamada a /api/usuarios/encontrar/{id}; un 404 es una respuesta válida (Optional vacío)
+     */
+    private Mono<Optional<UserDTO>> llamarEncontrar(Long id) {
+        return Mono.defer(() -> {
             log.info("Obteniendo usuario ID {} de la API externa", id);
             
             // La API externa devuelve un objeto individual UserDTO con enlaces HATEOAS
             // Parsear directamente como UserDTO ya que Jackson ignora los campos desconocidos
-            UserDTO user = webClient.get()
+            return webClient.get()
                     .uri("/api/usuarios/encontrar/{id}", id)
                     .retrieve()
                     .bodyToMono(UserDTO.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(5)).maxBackoff(Duration.ofSeconds(15)))
-                    .timeout(Duration.ofSeconds(60))
-                    .block();
-            
-            if (user != null) {
-                log.info("Usuario encontrado: {} (ID: {})", user.getName(), user.getId());
-                return Optional.of(user);
-            }
-            
-            log.warn("Usuario ID {} no encontrado en la API externa", id);
-            return Optional.empty();
-            
-        } catch (WebClientResponseException.NotFound e) {
-            log.warn("Usuario ID {} no encontrado en la API externa (404)", id);
-            return Optional.empty();
-        } catch (Exception e) {
-            log.error("Error al obtener usuario ID {} de la API externa: {}", id, e.getMessage());
-            return Optional.empty();
-        }
+                    .transform(llamada -> timeouts.apply("encontrar", Duration.ofSeconds(60), llamada))
+                    .transform(retryBudget::withRetries)
+                    .transform(circuitBreaker::protect)
+                    .map(user -> {
+                        log.info("Usuario encontrado: {} (ID: {})", user.getName(), user.getId());
+                        return Optional.of(user);
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        log.warn("Usuario ID {} no encontrado en la API externa", id);
+                        return Optional.empty();
+                    }))
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                        log.warn("Usuario ID {} no encontrado en la API externa (404)", id);
+                        registrarInexistente("id:" + id);
+                        return Mono.just(Optional.empty());
+                    });
+        });
     }
 
     /**
@@ -122,130 +579,78 @@ public class UserApiService {
      * @param email Email del usuario
      * @return Usuario encontrado o empty si no existe/hay error
      */
-    @Cacheable(value = "users", key = "#email")
     public Optional<UserDTO> getUserByEmail(String email) {
-        try {
-            log.info("Buscando usuario por email {} en la API externa", email);
-            
-            // Como la API externa no tiene endpoint directo por email, 
-            // obtenemos todos y filtramos localmente
-            List<UserDTO> users = getAllUsers();
-            
-            Optional<UserDTO> user = users.stream()
-                    .filter(u -> u.getEmail().equalsIgnoreCase(email))
-                    .findFirst();
-            
-            if (user.isPresent()) {
-                log.info("Usuario encontrado por email: {}", user.get().getName());
-            } else {
-                log.warn("Usuario con email {} no encontrado", email);
-            }
-            
-            return user;
-            
-        } catch (Exception e) {
-            log.error("Error al buscar usuario por email {} en la API externa: {}", email, e.getMessage());
-            return Optional.empty();
+        if (directorio.get() != null || esInexistente("email:" + UserDirectorySnapshot.normalizeEmail(email))) {
+            return getUserByEmailReactive(email).block();
         }
+        return bloquear(getUserByEmailReactive(email));
     }
 
     /**
-     * Verifica si la API externa está disponible
-     * @return true si está disponible, false en caso contrario
+     * Variante no bloqueante de getUserByEmail()
+     * @param email Email del usuario
+     * @return Mono con el usuario encontrado o empty si no existe/hay error; nunca termina en error
      */
-    public boolean isApiAvailable() {
-        try {
-            log.info("Verificando disponibilidad de API externa: {}", apiBaseUrl);
-            webClient.get()
-                    .uri("/api/usuarios/listar")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
-            log.info("API externa está disponible");
-            return true;
-        } catch (Exception e) {
-            log.warn("API externa no está disponible: {}", e.getMessage());
-            return false;
+    public Mono<Optional<UserDTO>> getUserByEmailReactive(String email) {
+        String clave = "email:" + UserDirectorySnapshot.normalizeEmail(email);
+        if (esInexistente(clave)) {
+            log.debug("Usuario con email {} no encontrado (caché negativa)", email);
+            return Mono.just(Optional.empty());
         }
+        log.info("Buscando usuario por email {} en la API externa", email);
+        
+        // Como la API externa no tiene endpoint directo por email, 
+        // se usa el índice por email normalizado de la instantánea del directorio
+        return obtenerDirectorioReactive()
+                .map(snapshot -> {
+                    Optional<UserDTO> user = snapshot.findByEmail(email);
+                    if (user.isPresent()) {
+                        log.info("Usuario encontrado por email: {}", user.get().getName());
+                    } else {
+                        log.warn("Usuario con email {} no encontrado", email);
+                        // Solo si la instantánea es una descarga real y no la vacía por error
+                        if (directorio.get() == snapshot) {
+                            registrarInexistente(clave);
+                        }
+                    }
+                    return user;
+                })
+                .onErrorResume(e -> {
+                    log.error("Error al buscar usuario por email {} en la API externa: {}", email, e.getMessage());
+                    return Mono.just(Optional.empty());
+                });
     }
 
-    /**
-     * Método de diagnóstico para probar conectividad con diferentes timeouts
-     * @return información de diagnóstico
-     */
-    public String diagnosticarConectividad() {
-        StringBuilder diagnostico = new StringBuilder();
-        diagnostico.append("=== DIAGNÓSTICO DE CONECTIVIDAD ===\n");
-        diagnostico.append("API Base URL: ").append(apiBaseUrl).append("\n");
-        diagnostico.append("Endpoint: /api/usuarios/listar\n\n");
-        
-        // Prueba 1: Verificación ultra-rápida (3 segundos)
-        try {
-            long startTime = System.currentTimeMillis();
-            webClient.get()
-                    .uri("/api/usuarios/listar")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(3))
-                    .block();
-            long elapsed = System.currentTimeMillis() - startTime;
-            diagnostico.append("✅ Conexión ultra-rápida (3s): OK - Tiempo: ").append(elapsed).append("ms\n");
-        } catch (Exception e) {
-            diagnostico.append("❌ Conexión ultra-rápida (3s): FALLÓ - ").append(e.getClass().getSimpleName()).append(": ").append(e.getMessage()).append("\n");
-        }
-        
-        // Prueba 2: Verificación rápida (10 segundos)
-        try {
-            long startTime = System.currentTimeMillis();
-            webClient.get()
-                    .uri("/api/usuarios/listar")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(10))
-                    .block();
-            long elapsed = System.currentTimeMillis() - startTime;
-            diagnostico.append("✅ Conexión rápida (10s): OK - Tiempo: ").append(elapsed).append("ms\n");
-        } catch (Exception e) {
-            diagnostico.append("❌ Conexión rápida (10s): FALLÓ - ").append(e.getClass().getSimpleName()).append(": ").append(e.getMessage()).append("\n");
+    private boolean esInexistente(String clave) {
+        return inexistentes != null && inexistentes.get(clave) != null;
+    }
+
+    private void registrarInexistente(String clave) {
+        if (inexistentes != null) {
+            inexistentes.put(clave, Boolean.TRUE);
         }
-        
-        // Prueba 3: Verificación media (30 segundos)
-        try {
-            long startTime = System.currentTimeMillis();
-            webClient.get()
-                    .uri("/api/usuarios/listar")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-            long elapsed = System.currentTimeMillis() - startTime;
-            diagnostico.append("✅ Conexión media (30s): OK - Tiempo: ").append(elapsed).append("ms\n");
-        } catch (Exception e) {
-            diagnostico.append("❌ Conexión media (30s): FALLÓ - ").append(e.getClass().getSimpleName()).append(": ").append(e.getMessage()).append("\n");
+    }
+
+    private Cache usersCache() {
+        Cache cache = cacheManager.getCache("users");
+        if (cache == null) {
+            throw new IllegalStateException("La caché 'users' no está configurada");
         }
-        
-        // Prueba 4: Verificación lenta (60 segundos)
-        try {
-            long startTime = System.currentTimeMillis();
-            webClient.get()
-                    .uri("/api/usuarios/listar")
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(60))
-                    .block();
-            long elapsed = System.currentTimeMillis() - startTime;
-            diagnostico.append("✅ Conexión lenta (60s): OK - Tiempo: ").append(elapsed).append("ms\n");
-        } catch (Exception e) {
-            diagnostico.append("❌ Conexión lenta (60s): FALLÓ - ").append(e.getClass().getSimpleName()).append(": ").append(e.getMessage()).append("\n");
+        return cache;
+    }
+
+    /**
+     * Verifica si la API externa está disponible
+     * @return true si está disponible, false en caso contrario
+     */
+    public boolean isApiAvailable() {
+        // Con el circuito abierto se responde al instante que no está disponible
+        if (circuitBreaker.isCallNotPermitted()) {
+            log.info("API externa no disponible (circuit breaker abierto)");
+            return false;
         }
-        
-        diagnostico.append("\n=== RECOMENDACIONES ===\n");
-        diagnostico.append("- Si todas las pruebas fallan: Verificar conectividad de red\n");
-        diagnostico.append("- Si solo fallan las rápidas: La API externa es lenta, usar timeouts largos\n");
-        diagnostico.append("- Si fallan esporádicamente: Implementar reintentos con backoff\n");
-        
-        return diagnostico.toString();
+        // El estado lo mantiene el monitor de salud con sondeos ligeros en segundo plano
+        return healthMonitor.isAvailable();
     }
 
     /**
@@ -344,27 +749,39 @@ public class UserApiService {
      * @return true si la eliminación fue exitosa, false si no
      */
     public boolean deleteUser(Long id) {
-        try {
+        return bloquear(deleteUserReactive(id));
+    }
+
+    /**
+     * Variante no bloqueante de deleteUser()
+     * @param id ID del usuario a eliminar
+     * @return Mono con true si la eliminación fue exitosa, false si no; nunca termina en error
+     */
+    public Mono<Boolean> deleteUserReactive(Long id) {
+        return Mono.defer(() -> {
             log.info("Eliminando usuario ID {} en la API externa", id);
             
-            webClient.delete()
+            return webClient.delete()
                     .uri("/api/usuarios/delete/{id}", id)
                     .retrieve()
                     .bodyToMono(Void.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(5)).maxBackoff(Duration.ofSeconds(15)))
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-            
-            log.info("Usuario ID {} eliminado exitosamente en la API externa", id);
-            return true;
-            
-        } catch (WebClientResponseException.NotFound e) {
-            log.warn("Usuario ID {} no encontrado en la API externa para eliminar", id);
-            return false;
-        } catch (Exception e) {
-            log.error("Error al eliminar usuario ID {} en la API externa: {}", id, e.getMessage());
-            return false;
-        }
+                    .transform(llamada -> timeouts.apply("eliminar", Duration.ofSeconds(30), llamada))
+                    .transform(retryBudget::withRetries)
+                    .transform(circuitBreaker::protect)
+                    .then(Mono.fromSupplier(() -> {
+                        log.info("Usuario ID {} eliminado exitosamente en la API externa", id);
+                        registrarEliminacion(id);
+                        return true;
+                    }))
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                        log.warn("Usuario ID {} no encontrado en la API externa para eliminar", id);
+                        return Mono.just(false);
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Error al eliminar usuario ID {} en la API externa: {}", id, e.getMessage());
+                        return Mono.just(false);
+                    });
+        });
     }
 
     /**
@@ -374,33 +791,48 @@ public class UserApiService {
      * @return Usuario actualizado o empty si hay error
      */
     public Optional<UserDTO> updateUser(Long id, UserDTO userDTO) {
-        try {
+        return bloquear(updateUserReactive(id, userDTO));
+    }
+
+    /**
+     * Variante no bloqueante de updateUser()
+     * @param id ID del usuario a actualizar
+     * @param userDTO Datos del usuario actualizado
+     * @return Mono con el usuario actualizado o empty si hay error; nunca termina en error
+     */
+    public Mono<Optional<UserDTO>> updateUserReactive(Long id, UserDTO userDTO) {
+        return Mono.defer(() -> {
             log.info("Actualizando usuario ID {} en la API externa", id);
             
-            UserDTO updatedUser = webClient.put()
+            return webClient.put()
                     .uri("/api/usuarios/actualizar/{id}", id)
                     .bodyValue(userDTO)
                     .retrieve()
                     .bodyToMono(UserDTO.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(5)).maxBackoff(Duration.ofSeconds(15)))
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-            
-            if (updatedUser != null) {
-                log.info("Usuario ID {} actualizado exitosamente en la API externa", id);
-                return Optional.of(updatedUser);
-            } else {
-                log.warn("Respuesta vacía al actualizar usuario ID {} en la API externa", id);
-                return Optional.empty();
-            }
-            
-        } catch (WebClientResponseException.NotFound e) {
-            log.warn("Usuario ID {} no encontrado en la API externa para actualizar", id);
-            return Optional.empty();
-        } catch (Exception e) {
-            log.error("Error al actualizar usuario ID {} en la API externa: {}", id, e.getMessage());
-            return Optional.empty();
-        }
+                    .transform(llamada -> timeouts.apply("actualizar", Duration.ofSeconds(30), llamada))
+                    .transform(retryBudget::withRetries)
+                    .transform(circuitBreaker::protect)
+                    .map(updatedUser -> {
+                        log.info("Usuario ID {} actualizado exitosamente en la API externa", id);
+                        if (updatedUser.getId() == null) {
+                            updatedUser.setId(id);
+                        }
+                        registrarEscritura(updatedUser);
+                        return Optional.of(updatedUser);
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        log.warn("Respuesta vacía al actualizar usuario ID {} en la API externa", id);
+                        return Optional.empty();
+                    }))
+                    .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                        log.warn("Usuario ID {} no encontrado en la API externa para actualizar", id);
+                        return Mono.just(Optional.empty());
+                    })
+                    .onErrorResume(e -> {
+                        log.error("Error al actualizar usuario ID {} en la API externa: {}", id, e.getMessage());
+                        return Mono.just(Optional.empty());
+                    });
+        });
     }
 
     /**
@@ -409,29 +841,98 @@ public class UserApiService {
      * @return Usuario creado o empty si hay error
      */
     public Optional<UserDTO> createUser(UserDTO userDTO) {
-        try {
+        return bloquear(createUserReactive(userDTO));
+    }
+
+    /**
+     * Variante no bloqueante de createUser()
+     * @param userDTO Datos del usuario a crear
+     * @return Mono con el usuario creado o empty si hay error; nunca termina en error
+     */
+    public Mono<Optional<UserDTO>> createUserReactive(UserDTO userDTO) {
+        return Mono.defer(() -> {
             log.info("Creando nuevo usuario en la API externa: {}", userDTO.getName());
             
-            UserDTO createdUser = webClient.post()
+            return webClient.post()
                     .uri("/api/usuarios/crear")
                     .bodyValue(userDTO)
                     .retrieve()
                     .bodyToMono(UserDTO.class)
-                    .retryWhen(Retry.backoff(3, Duration.ofSeconds(5)).maxBackoff(Duration.ofSeconds(15)))
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-            
-            if (createdUser != null) {
-                log.info("Usuario creado exitosamente en la API externa con ID: {}", createdUser.getId());
-                return Optional.of(createdUser);
-            } else {
-                log.warn("Respuesta vacía al crear usuario en la API externa");
-                return Optional.empty();
-            }
-            
-        } catch (Exception e) {
-            log.error("Error al crear usuario en la API externa: {}", e.getMessage());
-            return Optional.empty();
+                    .transform(llamada -> timeouts.apply("crear", Duration.ofSeconds(30), llamada))
+                    .transform(retryBudget::withRetries)
+                    .transform(circuitBreaker::protect)
+                    .map(createdUser -> {
+                        log.info("Usuario creado exitosamente en la API externa con ID: {}", createdUser.getId());
+                        registrarEscritura(createdUser);
+                        return Optional.of(createdUser);
+                    })
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        log.warn("Respuesta vacía al crear usuario en la API externa");
+                        return Optional.empty();
+                    }))
+                    .onErrorResume(e -> {
+                        log.error("Error al crear usuario en la API externa: {}", e.getMessage());
+                        return Mono.just(Optional.empty());
+                    });
+        });
+    }
+
+    /**
+     * Devuelve el usuario si ya está en la caché "users" o en el directorio, sin llamar a la API externa
+     * @param id ID del usuario
+     * @return Usuario conocido o empty
+     */
+    public Optional<UserDTO> getCachedUser(Long id) {
+        Cache.ValueWrapper enCache = usersCache().get(id);
+        if (enCache != null && enCache.get() != null) {
+            return Optional.of((UserDTO) enCache.get());
+        }
+        UserDirectorySnapshot actual = directorio.get();
+        return actual != null ? actual.findById(id) : Optional.empty();
+    }
+
+    /**
+     * Espera el resultado de una llamada a la API externa dentro del bulkhead, no en el hilo de la petición
+     * Si el bulkhead está lleno lanza BulkheadFullException al instante (y @Cacheable no guarda nada)
+     */
+    private <T> T bloquear(Mono<T> llamada) {
+        return bulkhead.execute(llamada::block);
+    }
+
+    /**
+     * Write-through tras crear o actualizar: la caché "users" y el directorio reflejan
+     * el usuario devuelto por la API externa sin volver a descargar la lista completa
+     */
+    private void registrarEscritura(UserDTO user) {
+        if (user.getId() == null) {
+            return;
+        }
+        usersCache().put(user.getId(), user);
+        if (inexistentes != null) {
+            inexistentes.evict("id:" + user.getId());
+            inexistentes.evict("email:" + UserDirectorySnapshot.normalizeEmail(user.getEmail()));
+        }
+        aplicarAlDirectorio(actual -> actual.withUser(user));
+    }
+
+    /**
+     * Tras eliminar: se quita el usuario de la caché "users" y del directorio
+     */
+    private void registrarEliminacion(Long id) {
+        usersCache().evict(id);
+        aplicarAlDirectorio(actual -> actual.withoutUser(id));
+    }
+
+    /**
+     * Aplica una escritura a la instantánea actual y, si hay una descarga en curso, la anota para
+     * reaplicarla sobre la lista descargada
+     * Si no había descarga al comprobarlo, la escritura remota ya estaba confirmada antes de pedir la
+     * lista, así que la siguiente descarga la incluye
+     */
+    private void aplicarAlDirectorio(UnaryOperator<UserDirectorySnapshot> escritura) {
+        if (descargasEnCurso.get() > 0) {
+            escriturasDuranteDescarga.put(secuenciaEscrituras.incrementAndGet(), escritura);
         }
+        directorio.updateAndGet(actual -> actual != null ? escritura.apply(actual) : null);
     }
 }
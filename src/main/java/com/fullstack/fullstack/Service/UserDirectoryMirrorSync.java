@@ -0,0 +1,325 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import com.fullstack.fullstack.DTO.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantiene la tabla alumnos como espejo del directorio externo de usuarios
+ *
+ * Con cada instantánea nueva del directorio (UserDirectoryRefreshedEvent) se compara cada usuario
+ * con su fila local mediante un hash del contenido y se aplican solo las diferencias, en lotes JDBC
+ * y dentro de una transacción:
+ * - INSERT de los usuarios que no existen en local
+ * - UPDATE de las filas cuyo hash cambió (o que estaban desactivadas y vuelven a aparecer)
+ * - desactivación (activo = false) de las filas sincronizadas que ya no están en el directorio
+ *   o que figuran como inactivas
+ *
+ * Las filas creadas solo en local (sync_hash nulo) no se tocan nunca.
+ * La sincronización se ejecuta en un hilo propio; si llegan varias instantáneas mientras
+ * hay una en curso, solo se aplica la más reciente.
+ *
+ * Métricas publicadas:
+ * - users.mirror.rows{operation=insert|update|deactivate|conflict}
+ * - users.mirror.sync: duración de cada sincronización
+ */
+@Component
+@Slf4j
+public class UserDirectoryMirrorSync {
+
+    private static final String SELECT_FILAS = "SELECT id, email, activo, sync_hash FROM alumnos";
+    private static final String INSERT_FILA =
+            "INSERT INTO alumnos (id, nombre, email, activo, sync_hash) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_FILA =
+            "UPDATE alumnos SET nombre = ?, email = ?, activo = ?, sync_hash = ? WHERE id = ?";
+    private static final String DESACTIVAR_FILA = "UPDATE alumnos SET activo = false WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final UserApiProperties.Mirror config;
+    private final Timer duracion;
+    private final Counter insertadas;
+    private final Counter actualizadas;
+    private final Counter desactivadas;
+    private final Counter conflictos;
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "users-mirror-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<UserDirectorySnapshot> pendiente = new AtomicReference<>();
+    private final AtomicBoolean programada = new AtomicBoolean();
+
+    private volatile boolean sincronizado;
+    private volatile Instant ultimaSincronizacion;
+    private volatile Resultado ultimoResultado;
+
+    public UserDirectoryMirrorSync(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   CacheManager cacheManager, UserApiProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.config = properties.getMirror();
+        this.duracion = Timer.builder("users.mirror.sync")
+                .description("Duración de la sincronización del espejo local del directorio")
+                .register(meterRegistry);
+        this.insertadas = contador(meterRegistry, "insert");
+        this.actualizadas = contador(meterRegistry, "update");
+        this.desactivadas = contador(meterRegistry, "deactivate");
+        this.conflictos = contador(meterRegistry, "conflict");
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String operacion) {
+        return Counter.builder("users.mirror.rows")
+                .description("Filas del espejo local modificadas por la sincronización")
+                .tag("operation", operacion)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    /**
+     * Recibe cada directorio descargado y programa su sincronización sin bloquear al publicador
+     * (que puede ser un hilo de I/O de reactor-netty)
+     */
+    @EventListener
+    public void onDirectoryRefreshed(UserDirectoryRefreshedEvent event) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        pendiente.set(event.getSnapshot());
+        if (programada.compareAndSet(false, true)) {
+            try {
+                ejecutor.execute(this::sincronizarPendiente);
+            } catch (RejectedExecutionException e) {
+                programada.set(false);
+            }
+        }
+    }
+
+    /**
+     * @return true si las lecturas de alumnos deben servirse desde la base local
+     */
+    public boolean isServingReads() {
+        return config.isEnabled() && config.isServeReads() && sincronizado;
+    }
+
+    /**
+     * @return Resumen de la última sincronización (para actuator)
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> detalle = new LinkedHashMap<>();
+        detalle.put("enabled", config.isEnabled());
+        detalle.put("servingReads", isServingReads());
+        detalle.put("lastSyncAt", ultimaSincronizacion);
+        Resultado resultado = ultimoResultado;
+        if (resultado != null) {
+            detalle.put("lastInserted", resultado.insertadas());
+            detalle.put("lastUpdated", resultado.actualizadas());
+            detalle.put("lastDeactivated", resultado.desactivadas());
+            detalle.put("lastConflicts", resultado.conflictos());
+        }
+        return detalle;
+    }
+
+    private void sincronizarPendiente() {
+        try {
+            UserDirectorySnapshot snapshot;
+            while ((snapshot = pendiente.getAndSet(null)) != null) {
+                sincronizar(snapshot);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error al sincronizar el espejo local del directorio: {}", e.getMessage());
+        } finally {
+            programada.set(false);
+            // Una instantánea pudo llegar justo después de vaciar la cola
+            if (pendiente.get() != null && programada.compareAndSet(false, true)) {
+                ejecutor.execute(this::sincronizarPendiente);
+            }
+        }
+    }
+
+    /**
+     * Compara la instantánea con la tabla alumnos y aplica solo las diferencias
+     * @param snapshot Directorio descargado
+     * @return Número de filas insertadas, actualizadas, desactivadas y en conflicto
+     */
+    public Resultado sincronizar(UserDirectorySnapshot snapshot) {
+        long inicio = System.nanoTime();
+        Resultado resultado = transactionTemplate.execute(status -> {
+            Map<Long, FilaLocal> locales = new HashMap<>();
+            jdbcTemplate.query(SELECT_FILAS, rs -> {
+                long id = rs.getLong("id");
+                locales.put(id, new FilaLocal(id, rs.getString("email"), rs.getBoolean("activo"), rs.getString("sync_hash")));
+            });
+
+            Plan plan = planificar(snapshot.getUsers(), locales);
+            int batchSize = Math.max(1, config.getBatchSize());
+            jdbcTemplate.batchUpdate(INSERT_FILA, plan.inserciones(), batchSize, (ps, fila) -> {
+                ps.setLong(1, fila.user().getId());
+                ps.setString(2, fila.user().getName());
+                ps.setString(3, fila.user().getEmail());
+                ps.setBoolean(4, true);
+                ps.setString(5, fila.hash());
+            });
+            jdbcTemplate.batchUpdate(UPDATE_FILA, plan.actualizaciones(), batchSize, (ps, fila) -> {
+                ps.setString(1, fila.user().getName());
+                ps.setString(2, fila.user().getEmail());
+                ps.setBoolean(3, true);
+                ps.setString(4, fila.hash());
+                ps.setLong(5, fila.user().getId());
+            });
+            jdbcTemplate.batchUpdate(DESACTIVAR_FILA, plan.desactivaciones(), batchSize,
+                    (ps, id) -> ps.setLong(1, id));
+
+            return new Resultado(plan.inserciones().size(), plan.actualizaciones().size(),
+                    plan.desactivaciones().size(), plan.conflictos());
+        });
+        duracion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+        insertadas.increment(resultado.insertadas());
+        actualizadas.increment(resultado.actualizadas());
+        desactivadas.increment(resultado.desactivadas());
+        conflictos.increment(resultado.conflictos());
+        if (resultado.cambios() > 0) {
+            // Las entradas cacheadas pueden no reflejar las filas modificadas; se reconstruyen desde la base local
+            Cache alumnos = cacheManager.getCache("alumnos");
+            if (alumnos != null) {
+                alumnos.clear();
+            }
+        }
+        log.info("Espejo local sincronizado: {} insertados, {} actualizados, {} desactivados, {} en conflicto",
+                resultado.insertadas(), resultado.actualizadas(), resultado.desactivadas(), resultado.conflictos());
+
+        ultimoResultado = resultado;
+        ultimaSincronizacion = Instant.now();
+        sincronizado = true;
+        return resultado;
+    }
+
+    /**
+     * Calcula los cambios a aplicar sin tocar la base de datos
+     * @param users Usuarios del directorio externo
+     * @param locales Filas actuales de la tabla alumnos por ID
+     * @return Inserciones, actualizaciones y desactivaciones necesarias
+     */
+    static Plan planificar(List<UserDTO> users, Map<Long, FilaLocal> locales) {
+        List<FilaExterna> inserciones = new ArrayList<>();
+        List<FilaExterna> actualizaciones = new ArrayList<>();
+        List<Long> desactivaciones = new ArrayList<>();
+        int conflictos = 0;
+
+        // Emails ocupados por filas locales, para no violar la restricción unique al insertar o cambiar un email
+        Map<String, Long> emailsLocales = new HashMap<>();
+        locales.values().forEach(fila -> {
+            if (fila.email() != null) {
+                emailsLocales.put(fila.email(), fila.id());
+            }
+        });
+
+        Set<Long> vistos = new HashSet<>();
+        for (UserDTO user : users) {
+            // Los usuarios inactivos en el directorio se tratan como ausentes y su fila se desactiva
+            if (!user.isActivo() || user.getId() == null || user.getName() == null || user.getEmail() == null
+                    || !vistos.add(user.getId())) {
+                continue;
+            }
+            String hash = hash(user);
+            FilaLocal local = locales.get(user.getId());
+            Long duenoEmail = emailsLocales.get(user.getEmail());
+            if (duenoEmail != null && !duenoEmail.equals(user.getId())) {
+                // El email pertenece a otra fila local (p. ej. un alumno creado solo en local)
+                conflictos++;
+                continue;
+            }
+            if (local != null && local.syncHash() == null) {
+                // El ID coincide con un alumno creado solo en local (IDENTITY): esa fila no se toca
+                log.warn("Usuario externo {} con el mismo ID que un alumno solo local; no se sincroniza", user.getId());
+                conflictos++;
+                continue;
+            }
+            if (local == null) {
+                inserciones.add(new FilaExterna(user, hash));
+                emailsLocales.put(user.getEmail(), user.getId());
+            } else if (!hash.equals(local.syncHash()) || !local.activo()) {
+                actualizaciones.add(new FilaExterna(user, hash));
+                if (local.email() != null && !local.email().equals(user.getEmail())) {
+                    emailsLocales.remove(local.email());
+                    emailsLocales.put(user.getEmail(), user.getId());
+                }
+            }
+        }
+
+        for (FilaLocal local : locales.values()) {
+            if (local.syncHash() != null && local.activo() && !vistos.contains(local.id())) {
+                desactivaciones.add(local.id());
+            }
+        }
+        return new Plan(inserciones, actualizaciones, desactivaciones, conflictos);
+    }
+
+    /**
+     * Hash SHA-256 de los campos del usuario que se reflejan en la tabla alumnos
+     */
+    static String hash(UserDTO user) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String contenido = user.getName() + '\u0000' + user.getEmail();
+            return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    record FilaLocal(long id, String email, boolean activo, String syncHash) {
+    }
+
+    record FilaExterna(UserDTO user, String hash) {
+    }
+
+    record Plan(List<FilaExterna> inserciones, List<FilaExterna> actualizaciones, List<Long> desactivaciones,
+                int conflictos) {
+    }
+
+    public record Resultado(int insertadas, int actualizadas, int desactivadas, int conflictos) {
+
+        public int cambios() {
+            return insertadas + actualizadas + desactivadas;
+        }
+    }
+}
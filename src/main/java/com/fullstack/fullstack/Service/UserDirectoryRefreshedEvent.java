@@ -0,0 +1,18 @@
+package com.fullstack.fullstack.Service;
+
+/**
+ * Evento publicado cada vez que se descarga una instantánea nueva del directorio externo
+ * (no se publica cuando la descarga falla y se conserva la anterior)
+ */
+public class UserDirectoryRefreshedEvent {
+
+    private final UserDirectorySnapshot snapshot;
+
+    public UserDirectoryRefreshedEvent(UserDirectorySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public UserDirectorySnapshot getSnapshot() {
+        return snapshot;
+    }
+}
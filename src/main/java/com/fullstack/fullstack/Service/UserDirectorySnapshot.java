@@ -0,0 +1,238 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.UserDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Instantánea inmutable del directorio de usuarios de la API externa.
+ *
+ * Se construye una sola vez por cada descarga de /api/usuarios/listar e indexa
+ * los usuarios por email normalizado y por ID, de modo que las búsquedas son O(1)
+ * y nunca requieren recorrer ni volver a descargar la lista completa.
+ *
+ * Al ser inmutable, puede reemplazarse de forma atómica (AtomicReference) sin que
+ * los lectores concurrentes vean un estado a medio construir.
+ *
+ * Guarda también los validadores HTTP (ETag / Last-Modified) de la respuesta de la que
+ * procede, para que la siguiente recarga sea una petición condicional.
+ */
+public final class UserDirectorySnapshot {
+
+    private static final UserDirectorySnapshot EMPTY = new UserDirectorySnapshot(List.of(), Map.of(), Map.of(), Instant.EPOCH, null, null);
+
+    private final List<UserDTO> users;
+    private final Map<String, UserDTO> usersByEmail;
+    private final Map<Long, UserDTO> usersById;
+    private final Instant loadedAt;
+    private final String etag;
+    private final String lastModified;
+
+    private UserDirectorySnapshot(List<UserDTO> users, Map<String, UserDTO> usersByEmail,
+                                  Map<Long, UserDTO> usersById, Instant loadedAt,
+                                  String etag, String lastModified) {
+        this.users = users;
+        this.usersByEmail = usersByEmail;
+        this.usersById = usersById;
+        this.loadedAt = loadedAt;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Construye una instantánea indexada a partir de la lista descargada
+     * @param users Usuarios obtenidos de la API externa
+     * @return Instantánea con índices por email e ID
+     */
+    public static UserDirectorySnapshot of(List<UserDTO> users) {
+        Builder builder = builder(users.size());
+        users.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @return Builder incremental, usado al leer el directorio en streaming usuario a usuario
+     */
+    public static Builder builder() {
+        return builder(16);
+    }
+
+    private static Builder builder(int capacidadInicial) {
+        return new Builder(capacidadInicial);
+    }
+
+    /**
+     * Devuelve una copia con el usuario agregado o reemplazado (mismo ID), conservando la fecha de carga
+     * Se usa tras crear o actualizar un usuario para no tener que volver a descargar el directorio
+     * @param user Usuario creado o actualizado
+     * @return Nueva instantánea
+     */
+    public UserDirectorySnapshot withUser(UserDTO user) {
+        if (user == null || user.getId() == null) {
+            return this;
+        }
+        Builder builder = builder(users.size() + 1);
+        boolean reemplazado = false;
+        for (UserDTO actual : users) {
+            if (user.getId().equals(actual.getId())) {
+                if (!reemplazado) {
+                    builder.add(user);
+                    reemplazado = true;
+                }
+            } else {
+                builder.add(actual);
+            }
+        }
+        if (!reemplazado) {
+            builder.add(user);
+        }
+        return builder.build(loadedAt, etag, lastModified);
+    }
+
+    /**
+     * Devuelve una copia sin el usuario indicado, conservando la fecha de carga
+     * @param id ID del usuario eliminado
+     * @return Nueva instantánea (la misma si el usuario no estaba)
+     */
+    public UserDirectorySnapshot withoutUser(Long id) {
+        if (id == null || !usersById.containsKey(id)) {
+            return this;
+        }
+        Builder builder = builder(users.size());
+        for (UserDTO actual : users) {
+            if (!id.equals(actual.getId())) {
+                builder.add(actual);
+            }
+        }
+        return builder.build(loadedAt, etag, lastModified);
+    }
+
+    /**
+     * Devuelve una copia con los validadores de la respuesta HTTP de la que procede el directorio
+     * @param etag Cabecera ETag (o null)
+     * @param lastModified Cabecera Last-Modified (o null)
+     * @return Nueva instantánea con los mismos usuarios e índices
+     */
+    public UserDirectorySnapshot withValidators(String etag, String lastModified) {
+        return new UserDirectorySnapshot(users, usersByEmail, usersById, loadedAt, etag, lastModified);
+    }
+
+    /**
+     * Devuelve una copia con la fecha de carga actual, tras confirmar la API externa (304)
+     * que el directorio no ha cambiado
+     * @return Nueva instantánea con los mismos usuarios, índices y validadores
+     */
+    public UserDirectorySnapshot revalidated() {
+        return new UserDirectorySnapshot(users, usersByEmail, usersById, Instant.now(), etag, lastModified);
+    }
+
+    /**
+     * @return Instantánea vacía, usada cuando aún no se ha podido cargar el directorio
+     */
+    public static UserDirectorySnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Normaliza un email para usarlo como clave de búsqueda (sin espacios y en minúsculas)
+     * @param email Email original
+     * @return Email normalizado o null si es nulo o vacío
+     */
+    public static String normalizeEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalizado = email.trim().toLowerCase(Locale.ROOT);
+        return normalizado.isEmpty() ? null : normalizado;
+    }
+
+    public Optional<UserDTO> findByEmail(String email) {
+        String clave = normalizeEmail(email);
+        return clave == null ? Optional.empty() : Optional.ofNullable(usersByEmail.get(clave));
+    }
+
+    public Optional<UserDTO> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(usersById.get(id));
+    }
+
+    public List<UserDTO> getUsers() {
+        return users;
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    public boolean isEmpty() {
+        return users.isEmpty();
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Acumula usuarios e índices a medida que llegan, sin necesitar la lista completa de antemano
+     * Es de un solo uso y no es thread-safe
+     */
+    public static final class Builder {
+
+        private final Map<String, UserDTO> porEmail;
+        private final Map<Long, UserDTO> porId;
+        private final List<UserDTO> validos;
+
+        private Builder(int capacidadInicial) {
+            this.porEmail = new HashMap<>(capacidadInicial * 2);
+            this.porId = new HashMap<>(capacidadInicial * 2);
+            this.validos = new ArrayList<>(capacidadInicial);
+        }
+
+        public Builder add(UserDTO user) {
+            if (user == null) {
+                return this;
+            }
+            validos.add(user);
+            String email = normalizeEmail(user.getEmail());
+            if (email != null) {
+                // Si hay emails repetidos se conserva el primero, igual que el filtro lineal anterior
+                porEmail.putIfAbsent(email, user);
+            }
+            if (user.getId() != null) {
+                porId.putIfAbsent(user.getId(), user);
+            }
+            return this;
+        }
+
+        public int size() {
+            return validos.size();
+        }
+
+        /**
+         * Crea la instantánea sin copiar las colecciones: el builder no debe reutilizarse después
+         */
+        public UserDirectorySnapshot build() {
+            return build(Instant.now(), null, null);
+        }
+
+        private UserDirectorySnapshot build(Instant loadedAt, String etag, String lastModified) {
+            return new UserDirectorySnapshot(Collections.unmodifiableList(validos),
+                    Collections.unmodifiableMap(porEmail), Collections.unmodifiableMap(porId), loadedAt,
+                    etag, lastModified);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.fullstack.fullstack.Service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.fullstack.fullstack.DTO.UserDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Lee en streaming la respuesta HATEOAS de /api/usuarios/listar
+ *
+ * En lugar de decodificar la respuesta completa en memoria (limitada por maxInMemorySize),
+ * los bloques de bytes se van entregando a un parser JSON no bloqueante y cada elemento de
+ * _embedded.userList se convierte a UserDTO y se añade al builder de la instantánea en cuanto
+ * termina de llegar. Solo se retiene el usuario que se está leyendo, no el documento completo,
+ * por lo que no hay un tamaño máximo de respuesta.
+ */
+@Component
+@Slf4j
+public class UserDirectoryStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    public UserDirectoryStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param body Cuerpo de la respuesta como flujo de bloques de bytes (se liberan al consumirlos)
+     * @return Mono con la instantánea construida, o vacío si la respuesta no contiene _embedded.userList
+     */
+    public Mono<UserDirectorySnapshot> read(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            Lectura lectura;
+            try {
+                lectura = new Lectura(objectMapper.getFactory().createNonBlockingByteArrayParser());
+            } catch (IOException e) {
+                return Mono.error(new UncheckedIOException(e));
+            }
+            return body
+                    .doOnNext(buffer -> {
+                        try {
+                            lectura.alimentar(buffer);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromCallable(lectura::terminar))
+                    .doFinally(signal -> lectura.cerrar());
+        });
+    }
+
+    /**
+     * Estado de una lectura: posición en el documento y usuario que se está acumulando
+     */
+    private final class Lectura {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final UserDirectorySnapshot.Builder builder = UserDirectorySnapshot.builder();
+
+        // Número de objetos/arrays abiertos en el punto actual del documento
+        private int profundidad;
+        private String ultimoCampo;
+        private boolean enEmbedded;
+        private boolean enLista;
+        private boolean listaEncontrada;
+
+        // Elemento de userList en curso (null entre elementos)
+        private TokenBuffer elemento;
+
+        Lectura(JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        void alimentar(DataBuffer buffer) {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            try {
+                feeder.feedInput(bytes, 0, bytes.length);
+                procesarTokensDisponibles();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        UserDirectorySnapshot terminar() throws IOException {
+            feeder.endOfInput();
+            procesarTokensDisponibles();
+            if (!listaEncontrada) {
+                return null;
+            }
+            log.info("Leídos {} usuarios de la API externa en streaming", builder.size());
+            return builder.build();
+        }
+
+        void cerrar() {
+            try {
+                parser.close();
+            } catch (IOException e) {
+                log.debug("Error al cerrar el parser del directorio: {}", e.getMessage());
+            }
+        }
+
+        private void procesarTokensDisponibles() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                procesar(token);
+            }
+        }
+
+        private void procesar(JsonToken token) throws IOException {
+            if (elemento != null) {
+                elemento.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    profundidad++;
+                } else if (token.isStructEnd()) {
+                    profundidad--;
+                    if (profundidad == 3) {
+                        // Fin del elemento: convertirlo y descartar sus tokens
+                        builder.add(objectMapper.readValue(elemento.asParser(), UserDTO.class));
+                        elemento = null;
+                    }
+                }
+                return;
+            }
+
+            switch (token) {
+                case FIELD_NAME -> ultimoCampo = parser.currentName();
+                case START_OBJECT, START_ARRAY -> {
+                    if (enLista && profundidad == 3 && token == JsonToken.START_OBJECT) {
+                        elemento = new TokenBuffer(parser);
+                        elemento.copyCurrentEvent(parser);
+                    } else if (profundidad == 1 && token == JsonToken.START_OBJECT && "_embedded".equals(ultimoCampo)) {
+                        enEmbedded = true;
+                    } else if (enEmbedded && profundidad == 2 && token == JsonToken.START_ARRAY && "userList".equals(ultimoCampo)) {
+                        enLista = true;
+                        listaEncontrada = true;
+                    }
+                    profundidad++;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    profundidad--;
+                    if (profundidad < 3) {
+                        enLista = false;
+                    }
+                    if (profundidad < 2) {
+                        enEmbedded = false;
+                    }
+                }
+                default -> {
+                    // Valores sueltos (enlaces, paginación, elementos nulos) se ignoran
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.fullstack.fullstack.Config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la herencia de cache.defaults.* en CachePolicyProperties
+ */
+class CachePolicyPropertiesTest {
+
+    private CachePolicyProperties enlazar(Map<String, String> propiedades) {
+        return new Binder(new MapConfigurationPropertySource(propiedades))
+                .bindOrCreate("cache", CachePolicyProperties.class);
+    }
+
+    @Test
+    void testPoliticaParcial_HeredaLosCamposDeDefaults() {
+        // Arrange
+        CachePolicyProperties properties = enlazar(Map.of(
+                "cache.defaults.expire-after-write", "30m",
+                "cache.defaults.expire-after-access", "3m",
+                "cache.policies.users.maximum-size", "500"));
+
+        // Act
+        CachePolicyProperties.Policy users = properties.policyFor("users");
+
+        // Assert
+        assertEquals(500L, users.getMaximumSize());
+        assertEquals(Duration.ofMinutes(30), users.getExpireAfterWrite());
+        assertEquals(Duration.ofMinutes(3), users.getExpireAfterAccess());
+    }
+
+    @Test
+    void testPoliticaPropia_PrevaleceSobreDefaults() {
+        // Arrange
+        CachePolicyProperties properties = enlazar(Map.of(
+                "cache.defaults.maximum-size", "100",
+                "cache.policies.alumnos.maximum-size", "2000",
+                "cache.policies.alumnos.expire-after-write", "2m"));
+
+        // Act
+        CachePolicyProperties.Policy alumnos = properties.policyFor("alumnos");
+
+        // Assert
+        assertEquals(2000L, alumnos.getMaximumSize());
+        assertEquals(Duration.ofMinutes(2), alumnos.getExpireAfterWrite());
+        assertNull(alumnos.getExpireAfterAccess());
+    }
+
+    @Test
+    void testSinConfiguracion_UsaLosValoresPorDefecto() {
+        // Act
+        CachePolicyProperties properties = enlazar(Map.of("cache.defaults.maximum-size", "100"));
+
+        // Assert: definir un campo de defaults no borra los demás
+        assertEquals(100L, properties.policyFor("users").getMaximumSize());
+        assertEquals(Duration.ofMinutes(10), properties.policyFor("users").getExpireAfterWrite());
+        assertEquals(10_000L, new CachePolicyProperties().policyFor("otra").getMaximumSize());
+    }
+}
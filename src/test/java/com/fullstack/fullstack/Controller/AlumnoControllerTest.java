@@ -0,0 +1,191 @@
+package com.fullstack.fullstack.Controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.fullstack.Model.Alumno;
+import com.fullstack.fullstack.Service.AlumnoService;
+import com.fullstack.fullstack.Service.BulkImportService;
+import com.fullstack.fullstack.Service.UserApiLatencyProfiler;
+import com.fullstack.fullstack.Service.UserApiService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Pruebas unitarias para los endpoints no bloqueantes de AlumnoController usando Mockito y MockMvc
+ */
+@WebMvcTest(AlumnoController.class)
+class AlumnoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AlumnoService alumnoService;
+
+    @MockBean
+    private UserApiService userApiService;
+
+    @MockBean
+    private UserApiLatencyProfiler latencyProfiler;
+
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Alumno alumnoMock;
+
+    @BeforeEach
+    void setUp() {
+        alumnoMock = new Alumno();
+        alumnoMock.setId(1L);
+        alumnoMock.setNombre("Ana Pérez");
+        alumnoMock.setEmail("ana@correo.cl");
+        alumnoMock.setActivo(true);
+    }
+
+    /**
+     * Ejecuta una petición cuyo controlador devuelve un Mono y espera a que se resuelva
+     */
+    private MvcResult resolver(RequestBuilder peticion) throws Exception {
+        MvcResult iniciado = mockMvc.perform(peticion)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        iniciado.getAsyncResult();
+        return iniciado;
+    }
+
+    @Test
+    void testListarReactivo() throws Exception {
+        // Arrange
+        when(alumnoService.obtenerTodosReactivo()).thenReturn(Mono.just(List.of(alumnoMock)));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(get("/api/alumnos/reactivo"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email", is("ana@correo.cl")));
+    }
+
+    @Test
+    void testListarReactivo_Error() throws Exception {
+        // Arrange
+        when(alumnoService.obtenerTodosReactivo()).thenReturn(Mono.error(new IllegalStateException("Fallo")));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(get("/api/alumnos/reactivo"))))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void testObtenerReactivo_Existente() throws Exception {
+        // Arrange
+        when(alumnoService.obtenerPorIdReactivo(1L)).thenReturn(Mono.just(Optional.of(alumnoMock)));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(get("/api/alumnos/reactivo/1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.nombre", is("Ana Pérez")));
+    }
+
+    @Test
+    void testObtenerReactivo_NoExistente() throws Exception {
+        // Arrange
+        when(alumnoService.obtenerPorIdReactivo(99L)).thenReturn(Mono.just(Optional.empty()));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(get("/api/alumnos/reactivo/99"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBuscarPorEmailReactivo_NoExistente() throws Exception {
+        // Arrange
+        when(alumnoService.obtenerPorEmailReactivo("nadie@correo.cl")).thenReturn(Mono.just(Optional.empty()));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(get("/api/alumnos/reactivo/email/nadie@correo.cl"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCrearReactivo_EmailExistente() throws Exception {
+        // Arrange
+        when(alumnoService.crearReactivo(any(Alumno.class)))
+                .thenReturn(Mono.error(new RuntimeException("Ya existe un usuario con ese email en el sistema externo")));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(post("/api/alumnos/reactivo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(alumnoMock)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testCrearReactivo() throws Exception {
+        // Arrange
+        when(alumnoService.crearReactivo(any(Alumno.class))).thenReturn(Mono.just(alumnoMock));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(post("/api/alumnos/reactivo")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(alumnoMock)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)));
+    }
+
+    @Test
+    void testActualizarReactivo_NoExistente() throws Exception {
+        // Arrange
+        when(alumnoService.actualizarReactivo(eq(99L), any(Alumno.class)))
+                .thenReturn(Mono.error(new RuntimeException("Alumno no encontrado para actualizar")));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(put("/api/alumnos/reactivo/99")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(alumnoMock)))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testEliminarReactivo() throws Exception {
+        // Arrange
+        when(alumnoService.eliminarReactivo(1L)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(delete("/api/alumnos/reactivo/1"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testEliminarReactivo_NoExistente() throws Exception {
+        // Arrange
+        when(alumnoService.eliminarReactivo(99L))
+                .thenReturn(Mono.error(new RuntimeException("Alumno no encontrado para eliminar")));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(resolver(delete("/api/alumnos/reactivo/99"))))
+                .andExpect(status().isNotFound());
+        verify(alumnoService).eliminarReactivo(99L);
+    }
+}
@@ -1,8 +1,13 @@
 package com.fullstack.fullstack.Controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.fullstack.DTO.InscripcionRequest;
+import com.fullstack.fullstack.DTO.InscripcionResult;
+import com.fullstack.fullstack.DTO.KeysetPage;
 import com.fullstack.fullstack.Model.Curso;
+import com.fullstack.fullstack.Service.BulkImportService;
 import com.fullstack.fullstack.Service.CursoService;
+import com.fullstack.fullstack.Service.InscripcionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,6 +20,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,6 +41,12 @@ class CursoControllerTest {
     @MockBean
     private CursoService cursoService;
 
+    @MockBean
+    private BulkImportService bulkImportService;
+
+    @MockBean
+    private InscripcionService inscripcionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -81,6 +93,31 @@ class CursoControllerTest {
         verify(cursoService, times(1)).obtenerTodos();
     }
 
+    @Test
+    void testListar_Paginado() throws Exception {
+        // Arrange
+        when(cursoService.obtenerPagina(null, 2)).thenReturn(new KeysetPage<>(cursosMock, KeysetPage.encodeCursor(2L)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/cursos")
+                .param("size", "2")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cursoList", hasSize(2)))
+                .andExpect(jsonPath("$._links.next.href", containsString("cursor=" + KeysetPage.encodeCursor(2L))));
+
+        verify(cursoService, never()).obtenerTodos();
+    }
+
+    @Test
+    void testListar_CursorInvalido() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/cursos")
+                .param("cursor", "no-es-un-cursor")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testObtener_CursoExistente() throws Exception {
         // Arrange
@@ -258,4 +295,22 @@ class CursoControllerTest {
         // Verificar que se llamó al servicio
         verify(cursoService, times(1)).eliminar(1L);
     }
+
+    @Test
+    void testInscribir() throws Exception {
+        // Arrange
+        List<InscripcionRequest> inscripciones = List.of(new InscripcionRequest(1L, List.of(10L, 11L, 12L)));
+        when(inscripcionService.inscribir(anyList())).thenReturn(new InscripcionResult(3, 2, 1));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/cursos/inscripciones")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(inscripciones)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.solicitadas", is(3)))
+                .andExpect(jsonPath("$.inscritas", is(2)))
+                .andExpect(jsonPath("$.omitidas", is(1)));
+
+        verify(inscripcionService, times(1)).inscribir(anyList());
+    }
 }
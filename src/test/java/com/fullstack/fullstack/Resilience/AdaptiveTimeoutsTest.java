@@ -0,0 +1,95 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para los plazos adaptativos de AdaptiveTimeouts
+ */
+class AdaptiveTimeoutsTest {
+
+    private UserApiProperties.Timeouts config() {
+        UserApiProperties.Timeouts config = new UserApiProperties.Timeouts();
+        config.setMinSamples(3);
+        config.setMultiplier(2.0);
+        config.setMin(Duration.ofMillis(100));
+        config.setMax(Duration.ofSeconds(5));
+        return config;
+    }
+
+    @Test
+    void testSinMuestrasSuficientes_UsaElPlazoInicial() {
+        // Arrange
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(config(), new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(30), timeouts.getDeadline("crear", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void testLlamadasRapidas_PlazoAcotadoAlMinimo() {
+        // Arrange
+        UserApiProperties.Timeouts config = config();
+        config.setMin(Duration.ofSeconds(2));
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(config, new SimpleMeterRegistry());
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            timeouts.apply("encontrar", Duration.ofSeconds(60), Mono.just("ok")).block(Duration.ofSeconds(2));
+        }
+
+        // Assert
+        assertEquals(Duration.ofSeconds(2), timeouts.getDeadline("encontrar", Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void testPlazoProporcionalAlPercentilObservado() {
+        // Arrange
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(config(), new SimpleMeterRegistry());
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            timeouts.apply("listar", Duration.ofSeconds(60), Mono.delay(Duration.ofMillis(200)).thenReturn("ok"))
+                    .block(Duration.ofSeconds(2));
+        }
+
+        // Assert: 2 x ~200 ms
+        long plazo = timeouts.getDeadline("listar", Duration.ofSeconds(60)).toMillis();
+        assertTrue(plazo >= 400 && plazo < 1000, "plazo = " + plazo);
+    }
+
+    @Test
+    void testMuestrasEnOtroEndpoint_NoAcortanElPlazoPrincipal() {
+        // Arrange: revalidaciones 304 rápidas que se miden aparte de las descargas completas
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(config(), new SimpleMeterRegistry());
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            timeouts.apply("listar", Duration.ofSeconds(60), Mono.just("304"),
+                    respuesta -> "304".equals(respuesta) ? "listar-304" : "listar").block(Duration.ofSeconds(2));
+        }
+
+        // Assert
+        assertEquals(Duration.ofSeconds(60), timeouts.getDeadline("listar", Duration.ofSeconds(60)));
+        assertEquals(Duration.ofMillis(100), timeouts.getDeadline("listar-304", Duration.ofSeconds(60)));
+    }
+
+    @Test
+    void testLlamadaQueAgotaElPlazo_TerminaConTimeout() {
+        // Arrange
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts(config(), new SimpleMeterRegistry());
+
+        // Act & Assert
+        RuntimeException error = assertThrows(RuntimeException.class, () -> timeouts
+                .apply("eliminar", Duration.ofMillis(50), Mono.delay(Duration.ofSeconds(5)).thenReturn("tarde"))
+                .block(Duration.ofSeconds(2)));
+        assertTrue(error.getCause() instanceof TimeoutException);
+    }
+}
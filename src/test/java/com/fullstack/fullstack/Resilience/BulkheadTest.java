@@ -0,0 +1,90 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el aislamiento de llamadas de Bulkhead
+ */
+class BulkheadTest {
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    private Bulkhead crear(int hilos, int cola) {
+        UserApiProperties.Bulkhead config = new UserApiProperties.Bulkhead();
+        config.setMaxConcurrentCalls(hilos);
+        config.setQueueCapacity(cola);
+        bulkhead = new Bulkhead("prueba", config, new SimpleMeterRegistry());
+        return bulkhead;
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        if (bulkhead != null) {
+            bulkhead.shutdown();
+        }
+    }
+
+    private String esperarLiberacion() {
+        try {
+            liberar.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "ok";
+    }
+
+    @Test
+    void testEjecutaEnHiloPropio() {
+        // Arrange
+        Bulkhead bulkhead = crear(2, 2);
+
+        // Act
+        String hilo = bulkhead.execute(() -> Thread.currentThread().getName());
+
+        // Assert
+        assertTrue(hilo.startsWith("prueba-bulkhead-"), hilo);
+    }
+
+    @Test
+    void testLleno_RechazaAlInstante() throws Exception {
+        // Arrange: un hilo ocupado y una posición de cola ocupada
+        Bulkhead bulkhead = crear(1, 1);
+        CompletableFuture<String> primera = CompletableFuture.supplyAsync(() -> bulkhead.execute(this::esperarLiberacion));
+        CompletableFuture<String> segunda = CompletableFuture.supplyAsync(() -> bulkhead.execute(this::esperarLiberacion));
+        while ((int) bulkhead.describe().get("queued") < 1) {
+            Thread.sleep(5);
+        }
+
+        // Act & Assert
+        long inicio = System.nanoTime();
+        assertThrows(BulkheadFullException.class, () -> bulkhead.execute(() -> "rechazada"));
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1L, bulkhead.describe().get("rejected"));
+
+        liberar.countDown();
+        assertEquals("ok", primera.get(5, TimeUnit.SECONDS));
+        assertEquals("ok", segunda.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testPropagaLaExcepcionDeLaLlamada() {
+        // Arrange
+        Bulkhead bulkhead = crear(1, 1);
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> bulkhead.execute(() -> { throw new IllegalStateException("fallo"); }));
+        assertEquals("fallo", error.getMessage());
+    }
+}
@@ -0,0 +1,155 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para las transiciones de estado de CircuitBreaker
+ */
+class CircuitBreakerTest {
+
+    private static final Duration RAPIDA = Duration.ofMillis(10);
+
+    private RelojManual reloj;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        UserApiProperties.CircuitBreaker config = new UserApiProperties.CircuitBreaker();
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setSlowCallRateThreshold(100);
+        config.setSlowCallDuration(Duration.ofSeconds(1));
+        config.setWaitDurationInOpenState(Duration.ofSeconds(30));
+        config.setPermittedCallsInHalfOpenState(2);
+
+        reloj = new RelojManual();
+        circuitBreaker = new CircuitBreaker("test", config, HttpErrorClassifier::isServiceFailure,
+                new SimpleMeterRegistry(), reloj);
+    }
+
+    @Test
+    void testSeAbreAlSuperarLaTasaDeFallos() {
+        // Act
+        registrarExitos(2);
+        registrarFallos(2);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.isCallNotPermitted());
+    }
+
+    @Test
+    void testNoEvaluaAntesDelMinimoDeLlamadas() {
+        // Act
+        registrarFallos(3);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testSeAbrePorLlamadasLentas() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess(Duration.ofSeconds(2));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void testSemiabierto_PruebasCorrectas_CierraElCircuito() {
+        // Arrange
+        registrarFallos(4);
+        reloj.avanzar(Duration.ofSeconds(31));
+
+        // Act
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        registrarExitos(2);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testSemiabierto_PruebaFallida_VuelveAAbrir() {
+        // Arrange
+        registrarFallos(4);
+        reloj.avanzar(Duration.ofSeconds(31));
+
+        // Act
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        registrarFallos(2);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void testErroresDeCliente_NoCuentanComoFallo() {
+        // Act
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onError(WebClientResponseException.create(
+                    404, "Not Found", null, null, null), RAPIDA);
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void registrarExitos(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            circuitBreaker.onSuccess(RAPIDA);
+        }
+    }
+
+    private void registrarFallos(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            circuitBreaker.onError(new IllegalStateException("timeout"), RAPIDA);
+        }
+    }
+
+    /**
+     * Reloj controlable para simular el paso del tiempo en estado abierto
+     */
+    private static class RelojManual extends Clock {
+        private Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para las peticiones de cobertura de Hedger
+ */
+class HedgerTest {
+
+    private UserApiProperties.Hedging config(int burst) {
+        UserApiProperties.Hedging config = new UserApiProperties.Hedging();
+        config.setEnabled(true);
+        config.setAdaptive(false);
+        config.setDelay(Duration.ofMillis(50));
+        config.setBudgetBurst(burst);
+        return config;
+    }
+
+    @Test
+    void testOriginalLenta_GanaLaCobertura() {
+        // Arrange
+        Hedger hedger = new Hedger("encontrar", config(10), new SimpleMeterRegistry());
+        AtomicInteger llamadas = new AtomicInteger();
+
+        // Act: la primera llamada tarda 5 s, la segunda responde al momento
+        String resultado = hedger.hedge(() -> llamadas.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofSeconds(5)).thenReturn("lenta")
+                        : Mono.just("cobertura"))
+                .block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("cobertura", resultado);
+        assertEquals(2, llamadas.get());
+        assertEquals(1L, hedger.describe().get("won"));
+    }
+
+    @Test
+    void testOriginalRapida_NoLanzaCobertura() {
+        // Arrange
+        Hedger hedger = new Hedger("encontrar", config(10), new SimpleMeterRegistry());
+        AtomicInteger llamadas = new AtomicInteger();
+
+        // Act
+        String resultado = hedger.hedge(() -> {
+            llamadas.incrementAndGet();
+            return Mono.just("rapida");
+        }).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("rapida", resultado);
+        assertEquals(1, llamadas.get());
+        assertEquals(0L, hedger.describe().get("launched"));
+    }
+
+    @Test
+    void testSinPresupuesto_NoLanzaCobertura() {
+        // Arrange
+        Hedger hedger = new Hedger("encontrar", config(0), new SimpleMeterRegistry());
+        AtomicInteger llamadas = new AtomicInteger();
+
+        // Act
+        String resultado = hedger.hedge(() -> {
+            llamadas.incrementAndGet();
+            return Mono.delay(Duration.ofMillis(200)).thenReturn("original");
+        }).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals("original", resultado);
+        assertEquals(1, llamadas.get());
+        assertEquals(1L, hedger.describe().get("skipped"));
+    }
+
+    @Test
+    void testOriginalFalla_PropagaElErrorSinEsperar() {
+        // Arrange
+        UserApiProperties.Hedging config = config(10);
+        config.setDelay(Duration.ofSeconds(10));
+        Hedger hedger = new Hedger("encontrar", config, new SimpleMeterRegistry());
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> hedger
+                .hedge(() -> Mono.<String>error(new IllegalStateException("caida")))
+                .block(Duration.ofSeconds(2)));
+        assertEquals("caida", error.getMessage());
+    }
+
+    @Test
+    void testEsperaAdaptativa_UsaElPercentilConMinimo() {
+        // Arrange
+        UserApiProperties.Hedging config = config(10);
+        config.setAdaptive(true);
+        config.setMinSamples(5);
+        config.setMinDelay(Duration.ofMillis(30));
+        Hedger hedger = new Hedger("encontrar", config, new SimpleMeterRegistry());
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            hedger.hedge(() -> Mono.just("rapida")).block(Duration.ofSeconds(2));
+        }
+
+        // Assert: las llamadas instantáneas dejan la espera en el mínimo configurado
+        assertEquals(Duration.ofMillis(30), hedger.getCurrentDelay());
+    }
+}
@@ -0,0 +1,90 @@
+package com.fullstack.fullstack.Resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la agrupación en lotes de MicroBatcher
+ */
+class MicroBatcherTest {
+
+    private final List<Set<Long>> lotes = new CopyOnWriteArrayList<>();
+
+    private Mono<Map<Long, String>> cargar(Set<Long> ids) {
+        lotes.add(Set.copyOf(ids));
+        Map<Long, String> resultado = new HashMap<>();
+        ids.stream().filter(id -> id % 2 == 1).forEach(id -> resultado.put(id, "usuario-" + id));
+        return Mono.just(resultado);
+    }
+
+    @Test
+    void testConsultasEnLaMismaVentana_SeResuelvenEnUnSoloLote() {
+        // Arrange
+        MicroBatcher<Long, String> batcher = new MicroBatcher<>("encontrar", Duration.ofMillis(50), 100,
+                this::cargar, new SimpleMeterRegistry());
+
+        // Act
+        List<String> resultados = Flux.just(1L, 3L, 1L, 5L)
+                .flatMap(batcher::load)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1, lotes.size());
+        assertEquals(Set.of(1L, 3L, 5L), lotes.get(0));
+        assertEquals(4, resultados.size());
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(0, batcher.getPendingCount());
+    }
+
+    @Test
+    void testClaveSinResultado_DevuelveVacio() {
+        // Arrange
+        MicroBatcher<Long, String> batcher = new MicroBatcher<>("encontrar", Duration.ofMillis(10), 100,
+                this::cargar, new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertNull(batcher.load(2L).block(Duration.ofSeconds(5)));
+        assertEquals("usuario-1", batcher.load(1L).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testTamanoMaximo_DivideEnVariosLotes() {
+        // Arrange
+        MicroBatcher<Long, String> batcher = new MicroBatcher<>("encontrar", Duration.ofSeconds(10), 2,
+                this::cargar, new SimpleMeterRegistry());
+        List<Long> ids = List.of(1L, 3L, 5L, 7L);
+
+        // Act
+        List<String> resultados = Flux.fromIterable(ids)
+                .flatMap(batcher::load)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(2, lotes.size());
+        assertEquals(4, resultados.size());
+    }
+
+    @Test
+    void testErrorEnLaCarga_SePropagaATodasLasConsultasDelLote() {
+        // Arrange
+        MicroBatcher<Long, String> batcher = new MicroBatcher<>("encontrar", Duration.ofMillis(10), 100,
+                ids -> Mono.error(new IllegalStateException("API caída")), new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> batcher.load(1L).block(Duration.ofSeconds(5)));
+        assertEquals(0, batcher.getPendingCount());
+    }
+}
@@ -0,0 +1,107 @@
+package com.fullstack.fullstack.Resilience;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el presupuesto de reintentos de RetryBudget
+ */
+class RetryBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RetryBudget crear(int maxTokens, double ratio) {
+        UserApiProperties.Retry config = new UserApiProperties.Retry();
+        config.setMaxAttempts(3);
+        config.setMinBackoff(Duration.ofMillis(1));
+        config.setMaxBackoff(Duration.ofMillis(5));
+        config.setMaxTokens(maxTokens);
+        config.setRatio(ratio);
+        return new RetryBudget("prueba", config, meterRegistry);
+    }
+
+    private Mono<String> fallaSiempre(AtomicInteger intentos, RuntimeException error) {
+        return Mono.defer(() -> {
+            intentos.incrementAndGet();
+            return Mono.error(error);
+        });
+    }
+
+    @Test
+    void testErrorTransitorio_SeReintentaYDevuelveElErrorOriginal() {
+        // Arrange
+        RetryBudget budget = crear(10, 0.1);
+        AtomicInteger intentos = new AtomicInteger();
+        IllegalStateException error = new IllegalStateException("caída");
+
+        // Act
+        RuntimeException recibido = assertThrows(RuntimeException.class,
+                () -> budget.withRetries(fallaSiempre(intentos, error)).block(Duration.ofSeconds(2)));
+
+        // Assert: 1 intento + 3 reintentos
+        assertSame(error, recibido);
+        assertEquals(4, intentos.get());
+        assertEquals(3L, budget.describe().get("retries"));
+    }
+
+    @Test
+    void testError4xx_NoSeReintenta() {
+        // Arrange
+        RetryBudget budget = crear(10, 0.1);
+        AtomicInteger intentos = new AtomicInteger();
+        WebClientResponseException noEncontrado = WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", null, null, null);
+
+        // Act
+        assertThrows(WebClientResponseException.NotFound.class,
+                () -> budget.withRetries(fallaSiempre(intentos, noEncontrado)).block(Duration.ofSeconds(2)));
+
+        // Assert
+        assertEquals(1, intentos.get());
+        assertEquals(10.0, budget.getAvailableTokens());
+    }
+
+    @Test
+    void testPresupuestoAgotado_DejaDeReintentarYLoPublica() {
+        // Arrange
+        RetryBudget budget = crear(2, 0.1);
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act: la primera llamada gasta las 2 fichas, la segunda ya no puede reintentar
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IllegalStateException.class, () -> budget
+                    .withRetries(fallaSiempre(intentos, new IllegalStateException("caída")))
+                    .block(Duration.ofSeconds(2)));
+        }
+
+        // Assert
+        assertEquals(4, intentos.get());
+        assertEquals(2.0, meterRegistry.get("users.api.retry.budget.exhausted").counter().count());
+    }
+
+    @Test
+    void testLlamadasCorrectas_RecarganElPresupuesto() {
+        // Arrange
+        RetryBudget budget = crear(2, 0.5);
+        assertThrows(IllegalStateException.class, () -> budget
+                .withRetries(fallaSiempre(new AtomicInteger(), new IllegalStateException("caída")))
+                .block(Duration.ofSeconds(2)));
+        assertEquals(0.0, budget.getAvailableTokens());
+
+        // Act
+        budget.withRetries(Mono.just("ok")).block(Duration.ofSeconds(2));
+        budget.withRetries(Mono.just("ok")).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals(1.0, budget.getAvailableTokens());
+    }
+}
@@ -0,0 +1,162 @@
+package com.fullstack.fullstack.Resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la coalescencia de llamadas de SingleFlight
+ */
+class SingleFlightTest {
+
+    @Test
+    void testSuscriptoresConcurrentes_MismaClave_ComparteUnaSolaCarga() throws Exception {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("encontrar", new SimpleMeterRegistry());
+        AtomicInteger cargas = new AtomicInteger();
+        Sinks.One<String> respuesta = Sinks.one();
+
+        // Act
+        List<CompletableFuture<String>> resultados = IntStream.range(0, 4)
+                .mapToObj(i -> singleFlight.executeReactive(1L, () -> {
+                    cargas.incrementAndGet();
+                    return respuesta.asMono();
+                }).toFuture())
+                .toList();
+        respuesta.tryEmitValue("usuario-1");
+
+        // Assert
+        for (CompletableFuture<String> resultado : resultados) {
+            assertEquals("usuario-1", resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, cargas.get());
+        assertEquals(1, singleFlight.getExecutedCount());
+        assertEquals(3, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void testErrorEnLaCarga_LlegaATodosLosSuscriptores() {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("encontrar", new SimpleMeterRegistry());
+        Sinks.One<String> respuesta = Sinks.one();
+        CompletableFuture<String> primero = singleFlight.executeReactive(1L, respuesta::asMono).toFuture();
+        CompletableFuture<String> segundo = singleFlight.executeReactive(1L, respuesta::asMono).toFuture();
+
+        // Act
+        respuesta.tryEmitError(new IllegalStateException("API caída"));
+
+        // Assert
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, primero::join).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(Exception.class, segundo::join).getCause());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testCargaTerminada_LiberaLaClave() {
+        // Arrange
+        SingleFlight<Long, Integer> singleFlight = new SingleFlight<>("encontrar", new SimpleMeterRegistry());
+        AtomicInteger cargas = new AtomicInteger();
+
+        // Act
+        Integer primera = singleFlight.executeReactive(1L, () -> Mono.fromSupplier(cargas::incrementAndGet)).block();
+        Integer segunda = singleFlight.executeReactive(1L, () -> Mono.fromSupplier(cargas::incrementAndGet)).block();
+        Integer vacia = singleFlight.executeReactive(2L, Mono::empty).block();
+
+        // Assert
+        assertEquals(1, primera);
+        assertEquals(2, segunda);
+        assertNull(vacia);
+        assertEquals(0, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testSuscriptorQueRepiteAlRecibirElResultado_LanzaUnaCargaNueva() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("listar", new SimpleMeterRegistry());
+        AtomicInteger cargas = new AtomicInteger();
+        Sinks.One<Integer> respuesta = Sinks.one();
+        AtomicReference<Integer> repetida = new AtomicReference<>();
+        singleFlight.executeReactive("all", respuesta::asMono)
+                .subscribe(primera -> repetida.set(singleFlight
+                        .executeReactive("all", () -> Mono.fromSupplier(cargas::incrementAndGet)).block()));
+
+        // Act
+        respuesta.tryEmitValue(0);
+
+        // Assert: la clave ya estaba libre cuando el suscriptor recibió el resultado
+        assertEquals(1, repetida.get());
+        assertEquals(1, cargas.get());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    @Test
+    void testCargaQueFallaAlCrearse_SePropagaYLiberaLaClave() {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("encontrar", new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> singleFlight.executeReactive(1L, () -> {
+            throw new IllegalStateException("API caída");
+        }).block());
+        assertEquals(0, singleFlight.getInFlightCount());
+        assertEquals("ok", singleFlight.executeReactive(1L, () -> Mono.just("ok")).block());
+    }
+
+    @Test
+    void testCancelarUnSuscriptor_NoCancelaLaCargaCompartida() {
+        // Arrange
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>("encontrar", new SimpleMeterRegistry());
+        Sinks.One<String> respuesta = Sinks.one();
+        AtomicBoolean cargaCancelada = new AtomicBoolean();
+        AtomicReference<String> recibidoPorCancelado = new AtomicReference<>();
+        Disposable cancelado = singleFlight.executeReactive(1L,
+                () -> respuesta.asMono().doOnCancel(() -> cargaCancelada.set(true)))
+                .subscribe(recibidoPorCancelado::set);
+        CompletableFuture<String> restante = singleFlight.executeReactive(1L, Mono::never).toFuture();
+
+        // Act
+        cancelado.dispose();
+        respuesta.tryEmitValue("usuario-1");
+
+        // Assert
+        assertEquals("usuario-1", restante.join());
+        assertNull(recibidoPorCancelado.get());
+        assertFalse(cargaCancelada.get());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void testSuscriptorBloqueante_ComparteLaCargaReactiva() {
+        // Arrange
+        SingleFlight<String, String> singleFlight = new SingleFlight<>("listar", new SimpleMeterRegistry());
+        Sinks.One<String> respuesta = Sinks.one();
+        CompletableFuture<String> reactivo = singleFlight.executeReactive("all", respuesta::asMono).toFuture();
+        CompletableFuture<String> bloqueante = CompletableFuture.supplyAsync(
+                () -> singleFlight.executeReactive("all", Mono::never).block(Duration.ofSeconds(5)));
+
+        // Act
+        while (singleFlight.getCoalescedCount() < 1) {
+            Thread.onSpinWait();
+        }
+        respuesta.tryEmitValue("directorio");
+
+        // Assert
+        assertEquals("directorio", reactivo.join());
+        assertEquals("directorio", bloqueante.join());
+        assertEquals(1, singleFlight.getExecutedCount());
+    }
+}
@@ -0,0 +1,327 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.PaginationProperties;
+import com.fullstack.fullstack.DTO.UserDTO;
+import com.fullstack.fullstack.Model.Alumno;
+import com.fullstack.fullstack.Repository.AlumnoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para AlumnoService usando Mockito
+ */
+@ExtendWith(MockitoExtension.class)
+class AlumnoServiceTest {
+
+    @Mock
+    private UserApiService userApiService;
+
+    @Mock
+    private AlumnoRepository alumnoRepository;
+
+    @Mock
+    private UserDirectoryMirrorSync mirrorSync;
+
+    @Mock
+    private KnownEmailsIndex emailsConocidos;
+
+    private ConcurrentMapCacheManager cacheManager;
+    private AlumnoService alumnoService;
+
+    private Alumno alumnoNuevo;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("alumnos");
+        alumnoService = new AlumnoService(userApiService, alumnoRepository, cacheManager, mirrorSync,
+                new PaginationProperties(), emailsConocidos);
+
+        alumnoNuevo = new Alumno();
+        alumnoNuevo.setNombre("Ana Pérez");
+        alumnoNuevo.setEmail("ana@correo.cl");
+    }
+
+    @AfterEach
+    void tearDown() {
+        alumnoService.detener();
+    }
+
+    private Alumno guardado(long id, String nombre, String email) {
+        Alumno alumno = new Alumno();
+        alumno.setId(id);
+        alumno.setNombre(nombre);
+        alumno.setEmail(email);
+        return alumno;
+    }
+
+    @Test
+    void testCrear_EmailSeguroNuevo_SinComprobacionesExactas() {
+        // Arrange
+        when(emailsConocidos.check("ana@correo.cl")).thenReturn(KnownEmailsIndex.Check.DEFINITELY_NEW);
+        when(alumnoRepository.save(alumnoNuevo)).thenReturn(guardado(10L, "Ana Pérez", "ana@correo.cl"));
+
+        // Act
+        Alumno resultado = alumnoService.crear(alumnoNuevo);
+
+        // Assert
+        assertEquals(10L, resultado.getId());
+        verify(userApiService, never()).getUserByEmail(anyString());
+        verify(alumnoRepository, never()).existsByEmail(anyString());
+        verify(emailsConocidos, never()).recordExactCheck(any(), anyBoolean());
+        verify(emailsConocidos).register("ana@correo.cl");
+    }
+
+    @Test
+    void testCrear_PosibleCoincidencia_ComprobacionExactaYFalsoPositivo() {
+        // Arrange
+        when(emailsConocidos.check("ana@correo.cl")).thenReturn(KnownEmailsIndex.Check.MAYBE);
+        when(userApiService.getUserByEmail("ana@correo.cl")).thenReturn(Optional.empty());
+        when(alumnoRepository.existsByEmail("ana@correo.cl")).thenReturn(false);
+        when(alumnoRepository.save(alumnoNuevo)).thenReturn(guardado(10L, "Ana Pérez", "ana@correo.cl"));
+
+        // Act
+        alumnoService.crear(alumnoNuevo);
+
+        // Assert
+        verify(userApiService).getUserByEmail("ana@correo.cl");
+        verify(alumnoRepository).existsByEmail("ana@correo.cl");
+        verify(emailsConocidos).recordExactCheck(KnownEmailsIndex.Check.MAYBE, false);
+    }
+
+    @Test
+    void testCrear_EmailEnApiExterna_Rechaza() {
+        // Arrange
+        when(emailsConocidos.check("ana@correo.cl")).thenReturn(KnownEmailsIndex.Check.MAYBE);
+        when(userApiService.getUserByEmail("ana@correo.cl"))
+                .thenReturn(Optional.of(UserDTO.builder().id(3L).name("Ana").email("ana@correo.cl").activo(true).build()));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> alumnoService.crear(alumnoNuevo));
+        verify(alumnoRepository, never()).save(any());
+        verify(emailsConocidos).recordExactCheck(KnownEmailsIndex.Check.MAYBE, true);
+    }
+
+    @Test
+    void testExistePorEmail_SeguroNuevo_SinConsultas() {
+        // Arrange
+        when(emailsConocidos.check("ana@correo.cl")).thenReturn(KnownEmailsIndex.Check.DEFINITELY_NEW);
+
+        // Act & Assert
+        assertFalse(alumnoService.existePorEmail("ana@correo.cl"));
+        verifyNoInteractions(userApiService, alumnoRepository);
+    }
+
+    @Test
+    void testObtenerPorIdReactivo_ApiExternaVacia_UsaDatosLocales() {
+        // Arrange
+        Alumno local = guardado(5L, "Luis Soto", "luis@correo.cl");
+        when(userApiService.getUserByIdReactive(5L)).thenReturn(Mono.empty());
+        when(alumnoRepository.findById(5L)).thenReturn(Optional.of(local));
+
+        // Act
+        Optional<Alumno> resultado = alumnoService.obtenerPorIdReactivo(5L).block();
+
+        // Assert
+        assertEquals(Optional.of(local), resultado);
+    }
+
+    @Test
+    void testObtenerPorIdReactivo_ErrorApiExterna_UsaDatosLocales() {
+        // Arrange
+        Alumno local = guardado(5L, "Luis Soto", "luis@correo.cl");
+        when(userApiService.getUserByIdReactive(5L)).thenReturn(Mono.error(new IllegalStateException("Caída")));
+        when(alumnoRepository.findById(5L)).thenReturn(Optional.of(local));
+
+        // Act
+        Optional<Alumno> resultado = alumnoService.obtenerPorIdReactivo(5L).block();
+
+        // Assert
+        assertEquals(Optional.of(local), resultado);
+    }
+
+    @Test
+    void testObtenerPorIdReactivo_UsuarioExternoActivo_SinConsultaLocal() {
+        // Arrange
+        when(userApiService.getUserByIdReactive(3L))
+                .thenReturn(Mono.just(Optional.of(UserDTO.builder().id(3L).name("Ana").email("ana@correo.cl").activo(true).build())));
+
+        // Act
+        Optional<Alumno> resultado = alumnoService.obtenerPorIdReactivo(3L).block();
+
+        // Assert
+        assertTrue(resultado.isPresent());
+        assertEquals("ana@correo.cl", resultado.get().getEmail());
+        verifyNoInteractions(alumnoRepository);
+    }
+
+    @Test
+    void testObtenerPorEmailReactivo_ApiExternaVacia_UsaDatosLocales() {
+        // Arrange
+        Alumno local = guardado(5L, "Luis Soto", "luis@correo.cl");
+        when(userApiService.getUserByEmailReactive("luis@correo.cl")).thenReturn(Mono.empty());
+        when(alumnoRepository.findByEmail("luis@correo.cl")).thenReturn(Optional.of(local));
+
+        // Act
+        Optional<Alumno> resultado = alumnoService.obtenerPorEmailReactivo("luis@correo.cl").block();
+
+        // Assert
+        assertEquals(Optional.of(local), resultado);
+    }
+
+    @Test
+    void testObtenerTodosReactivo_SinUsuariosExternos_UsaDatosLocales() {
+        // Arrange
+        List<Alumno> locales = List.of(guardado(5L, "Luis Soto", "luis@correo.cl"));
+        when(userApiService.getAllUsersReactive()).thenReturn(Mono.just(List.of()));
+        when(alumnoRepository.findAll()).thenReturn(locales);
+
+        // Act & Assert
+        assertEquals(locales, alumnoService.obtenerTodosReactivo().block());
+    }
+
+    @Test
+    void testObtenerTodosReactivo_ApiExternaVacia_UsaDatosLocales() {
+        // Arrange
+        List<Alumno> locales = List.of(guardado(5L, "Luis Soto", "luis@correo.cl"));
+        when(userApiService.getAllUsersReactive()).thenReturn(Mono.empty());
+        when(alumnoRepository.findAll()).thenReturn(locales);
+
+        // Act & Assert
+        assertEquals(locales, alumnoService.obtenerTodosReactivo().block());
+    }
+
+    @Test
+    void testCrearReactivo_GuardaYRegistraEnCache() {
+        // Arrange
+        Cache cache = cacheManager.getCache("alumnos");
+        cache.put(10L, guardado(10L, "Otro", "otro@correo.cl"));
+        cache.put("all", List.of());
+        when(emailsConocidos.check("ana@correo.cl")).thenReturn(KnownEmailsIndex.Check.DEFINITELY_NEW);
+        Alumno creado = guardado(10L, "Ana Pérez", "ana@correo.cl");
+        when(alumnoRepository.save(alumnoNuevo)).thenReturn(creado);
+
+        // Act
+        Alumno resultado = alumnoService.crearReactivo(alumnoNuevo).block();
+
+        // Assert
+        assertSame(creado, resultado);
+        assertSame(creado, cache.get("ana@correo.cl").get());
+        assertNull(cache.get(10L));
+        assertNull(cache.get("all"));
+        verify(emailsConocidos).register("ana@correo.cl");
+        verify(userApiService, never()).getUserByEmailReactive(anyString());
+    }
+
+    @Test
+    void testActualizarReactivo_ConfirmadoPorApiExterna_ReemplazaEntradasEnCache() {
+        // Arrange
+        Cache cache = cacheManager.getCache("alumnos");
+        Alumno anterior = guardado(3L, "Ana", "ana@correo.cl");
+        cache.put(3L, anterior);
+        cache.put("ana@correo.cl", anterior);
+        cache.put("all", List.of(anterior, guardado(4L, "Luis", "luis@correo.cl")));
+        UserDTO actualizado = UserDTO.builder().id(3L).name("Ana María").email("ana.maria@correo.cl").activo(true).build();
+        when(userApiService.updateUserReactive(eq(3L), any(UserDTO.class))).thenReturn(Mono.just(Optional.of(actualizado)));
+        when(alumnoRepository.save(any(Alumno.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        // Act
+        Alumno resultado = alumnoService.actualizarReactivo(3L, guardado(3L, "Ana María", "ana.maria@correo.cl")).block();
+
+        // Assert
+        assertEquals("ana.maria@correo.cl", resultado.getEmail());
+        assertSame(resultado, cache.get(3L).get());
+        assertSame(resultado, cache.get("ana.maria@correo.cl").get());
+        assertNull(cache.get("ana@correo.cl"));
+        @SuppressWarnings("unchecked")
+        List<Alumno> todos = (List<Alumno>) cache.get("all").get();
+        assertEquals(2, todos.size());
+        assertSame(resultado, todos.get(0));
+    }
+
+    @Test
+    void testActualizarReactivo_SinApiExternaNiAlumnoLocal_Error() {
+        // Arrange
+        when(userApiService.updateUserReactive(eq(99L), any(UserDTO.class))).thenReturn(Mono.just(Optional.empty()));
+        when(alumnoRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> alumnoService.actualizarReactivo(99L, alumnoNuevo).block());
+        verify(alumnoRepository, never()).save(any());
+    }
+
+    @Test
+    void testEliminarReactivo_DescartaEntradasEnCache() {
+        // Arrange
+        Cache cache = cacheManager.getCache("alumnos");
+        Alumno existente = guardado(3L, "Ana", "ana@correo.cl");
+        cache.put(3L, existente);
+        cache.put("ana@correo.cl", existente);
+        cache.put("all", List.of(existente));
+        when(userApiService.deleteUserReactive(3L)).thenReturn(Mono.just(true));
+        when(alumnoRepository.existsById(3L)).thenReturn(true);
+
+        // Act
+        alumnoService.eliminarReactivo(3L).block();
+
+        // Assert
+        verify(alumnoRepository).deleteById(3L);
+        assertNull(cache.get(3L));
+        assertNull(cache.get("ana@correo.cl"));
+        assertEquals(List.of(), cache.get("all").get());
+    }
+
+    @Test
+    void testObtenerVista_SeGuardaYSeReutiliza() {
+        // Arrange
+        when(userApiService.getAllUsers())
+                .thenReturn(List.of(UserDTO.builder().id(1L).name("Ana").email("ana@correo.cl").activo(true).build()));
+
+        // Act
+        AlumnoViewSnapshot primera = alumnoService.obtenerVista();
+        AlumnoViewSnapshot segunda = alumnoService.obtenerVista();
+
+        // Assert
+        assertEquals(1, primera.getAlumnos().size());
+        assertSame(primera, segunda);
+        verify(userApiService, times(1)).getAllUsers();
+    }
+
+    @Test
+    void testObtenerVista_DirectorioNuevoDuranteLaConstruccion_NoBloqueaNiGuardaLaVistaVieja() {
+        // Arrange: mientras se descarga el directorio llega el evento de una instantánea nueva,
+        // como ocurre cuando la misma descarga lo publica desde un hilo de reactor-netty
+        Cache cache = cacheManager.getCache("alumnos");
+        when(userApiService.getAllUsers()).thenAnswer(invocacion -> {
+            cache.put("all", List.of());
+            alumnoService.onDirectoryRefreshed(new UserDirectoryRefreshedEvent(UserDirectorySnapshot.empty()));
+            long limite = System.nanoTime() + 5_000_000_000L;
+            while (cache.get("all") != null && System.nanoTime() < limite) {
+                Thread.onSpinWait();
+            }
+            return List.of(UserDTO.builder().id(1L).name("Ana").email("ana@correo.cl").activo(true).build());
+        });
+
+        // Act
+        AlumnoViewSnapshot vista = alumnoService.obtenerVista();
+
+        // Assert
+        assertEquals(1, vista.getAlumnos().size());
+        assertNull(cache.get("all"));
+        assertNull(cache.get("view"));
+    }
+}
@@ -0,0 +1,81 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.AlumnoView;
+import com.fullstack.fullstack.DTO.KeysetPage;
+import com.fullstack.fullstack.Model.Alumno;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la proyección del listado de AlumnoViewSnapshot
+ */
+class AlumnoViewSnapshotTest {
+
+    private Alumno alumno(Long id, String email) {
+        Alumno alumno = new Alumno();
+        alumno.setId(id);
+        alumno.setNombre("Alumno " + id);
+        alumno.setEmail(email);
+        return alumno;
+    }
+
+    @Test
+    void testOrdenaPorIdYDescartaRepetidosYSinId() {
+        // Arrange
+        List<Alumno> origen = List.of(alumno(3L, "c@c.cl"), alumno(1L, "a@a.cl"), alumno(null, "x@x.cl"),
+                alumno(3L, "otro@c.cl"), alumno(2L, "b@b.cl"));
+
+        // Act
+        AlumnoViewSnapshot snapshot = AlumnoViewSnapshot.of(origen);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), snapshot.getAlumnos().stream().map(AlumnoView::id).toList());
+        assertEquals("c@c.cl", snapshot.findById(3L).map(AlumnoView::email).orElse(null));
+    }
+
+    @Test
+    void testBuscaPorIdYPorEmailNormalizado() {
+        // Arrange
+        AlumnoViewSnapshot snapshot = AlumnoViewSnapshot.of(List.of(alumno(10L, "Ana@Correo.cl"), alumno(20L, "b@b.cl")));
+
+        // Act & Assert
+        assertEquals("Alumno 20", snapshot.findById(20L).map(AlumnoView::nombre).orElse(null));
+        assertFalse(snapshot.findById(15L).isPresent());
+        assertEquals(10L, snapshot.findByEmail(" ana@CORREO.cl ").map(AlumnoView::id).orElse(null));
+        assertFalse(snapshot.findByEmail(null).isPresent());
+    }
+
+    @Test
+    void testPageAfter_RecorreTodasLasPaginasConElCursor() {
+        // Arrange
+        AlumnoViewSnapshot snapshot = AlumnoViewSnapshot.of(List.of(alumno(1L, "a@a.cl"), alumno(4L, "d@d.cl"),
+                alumno(7L, "g@g.cl"), alumno(9L, "i@i.cl"), alumno(12L, "l@l.cl")));
+
+        // Act
+        KeysetPage<AlumnoView> primera = snapshot.pageAfter(null, 2);
+        KeysetPage<AlumnoView> segunda = snapshot.pageAfter(KeysetPage.decodeCursor(primera.nextCursor()), 2);
+        KeysetPage<AlumnoView> tercera = snapshot.pageAfter(KeysetPage.decodeCursor(segunda.nextCursor()), 2);
+
+        // Assert
+        assertEquals(List.of(1L, 4L), primera.items().stream().map(AlumnoView::id).toList());
+        assertEquals(List.of(7L, 9L), segunda.items().stream().map(AlumnoView::id).toList());
+        assertEquals(List.of(12L), tercera.items().stream().map(AlumnoView::id).toList());
+        assertFalse(tercera.hasNext());
+        // Un cursor cuyo ID ya no existe continúa desde el siguiente
+        assertEquals(7L, snapshot.pageAfter(5L, 2).items().get(0).id());
+        assertThrows(IllegalArgumentException.class, () -> KeysetPage.decodeCursor("no-es-un-cursor"));
+    }
+
+    @Test
+    void testListaInmutable() {
+        // Arrange
+        AlumnoViewSnapshot snapshot = AlumnoViewSnapshot.of(List.of(alumno(1L, "a@a.cl")));
+
+        // Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getAlumnos().clear());
+        assertEquals(0, AlumnoViewSnapshot.of(List.of()).size());
+    }
+}
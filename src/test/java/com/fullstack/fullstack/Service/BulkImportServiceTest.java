@@ -0,0 +1,137 @@
+package com.fullstack.fullstack.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.fullstack.Config.BulkImportProperties;
+import com.fullstack.fullstack.DTO.BulkImportResult;
+import com.fullstack.fullstack.Model.Alumno;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la importación masiva de BulkImportService (sobre H2 en memoria)
+ */
+class BulkImportServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private BulkImportProperties config;
+    private BulkImportService bulkImportService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:importacion;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE curso (id BIGINT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL, "
+                + "descripcion VARCHAR(1000), duracion INT NOT NULL)");
+        config = new BulkImportProperties();
+        // La importación de cursos no usa el repositorio de alumnos, la API externa, el filtro de emails ni la caché
+        bulkImportService = new BulkImportService(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                new ObjectMapper(), null, null, null, null, config, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE curso");
+    }
+
+    private static InputStream cuerpo(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testImportarArrayJson_RechazaSoloLasFilasInvalidas() throws Exception {
+        // Arrange
+        String json = "[{\"nombre\":\"Java\",\"descripcion\":\"Básico\",\"duracion\":40},"
+                + "{\"nombre\":\"Python\",\"duracion\":0},"
+                + "{\"nombre\":\"  \",\"duracion\":10},"
+                + "{\"nombre\":\"SQL\",\"duracion\":20}]";
+
+        // Act
+        BulkImportResult resultado = bulkImportService.importarCursos(cuerpo(json));
+
+        // Assert
+        assertEquals(4, resultado.total());
+        assertEquals(2, resultado.creados());
+        assertEquals(2, resultado.rechazados());
+        assertEquals(2, resultado.errores().get(0).fila());
+        assertEquals("La duración debe ser mayor a 0", resultado.errores().get(0).motivo());
+        assertEquals(3, resultado.errores().get(1).fila());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM curso", Integer.class));
+    }
+
+    @Test
+    void testImportarNdjson_FilaConTipoIncorrectoNoAbortaLaCarga() throws Exception {
+        // Arrange
+        String ndjson = "{\"nombre\":\"Java\",\"duracion\":40}\n"
+                + "{\"nombre\":\"Python\",\"duracion\":\"mucho\"}\n"
+                + "{\"nombre\":\"SQL\",\"duracion\":20}\n";
+
+        // Act
+        BulkImportResult resultado = bulkImportService.importarCursos(cuerpo(ndjson));
+
+        // Assert
+        assertEquals(3, resultado.total());
+        assertEquals(2, resultado.creados());
+        assertEquals(1, resultado.rechazados());
+        assertEquals(2, resultado.errores().get(0).fila());
+    }
+
+    @Test
+    void testImportarEnVariosBloques() throws Exception {
+        // Arrange
+        config.setChunkSize(2);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 5; i++) {
+            ndjson.append("{\"nombre\":\"Curso ").append(i).append("\",\"duracion\":").append(i).append("}\n");
+        }
+
+        // Act
+        BulkImportResult resultado = bulkImportService.importarCursos(cuerpo(ndjson.toString()));
+
+        // Assert
+        assertEquals(5, resultado.creados());
+        assertEquals(0, resultado.rechazados());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM curso", Integer.class));
+    }
+
+    @Test
+    void testErroresReportadosAcotados() throws Exception {
+        // Arrange
+        config.setMaxReportedErrors(1);
+        String json = "[{\"nombre\":\"A\",\"duracion\":0},{\"nombre\":\"B\",\"duracion\":0},{\"nombre\":\"C\",\"duracion\":0}]";
+
+        // Act
+        BulkImportResult resultado = bulkImportService.importarCursos(cuerpo(json));
+
+        // Assert
+        assertEquals(3, resultado.rechazados());
+        assertEquals(1, resultado.errores().size());
+    }
+
+    @Test
+    void testValidarAlumno() {
+        // Arrange
+        Alumno valido = new Alumno();
+        valido.setNombre(" Ana ");
+        valido.setEmail(" ana@correo.cl ");
+        Alumno sinArroba = new Alumno();
+        sinArroba.setNombre("Luis");
+        sinArroba.setEmail("luis.correo.cl");
+
+        // Act & Assert
+        assertNull(BulkImportService.validarAlumno(valido));
+        assertEquals("Ana", valido.getNombre());
+        assertEquals("ana@correo.cl", valido.getEmail());
+        assertEquals("Email no válido", BulkImportService.validarAlumno(sinArroba));
+    }
+}
@@ -1,5 +1,7 @@
 package com.fullstack.fullstack.Service;
 
+import com.fullstack.fullstack.Config.PaginationProperties;
+import com.fullstack.fullstack.DTO.KeysetPage;
 import com.fullstack.fullstack.Model.Curso;
 import com.fullstack.fullstack.Repository.CursoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,7 +9,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +31,9 @@ class CursoServiceTest {
     @Mock
     private CursoRepository cursoRepository;
 
+    @Spy
+    private PaginationProperties paginationProperties = new PaginationProperties();
+
     @InjectMocks
     private CursoService cursoService;
 
@@ -69,6 +76,24 @@ class CursoServiceTest {
         verify(cursoRepository, times(1)).findAll();
     }
 
+    @Test
+    void testObtenerPagina_ConPaginaSiguiente() {
+        // Arrange: se pide un curso de más para saber si hay página siguiente
+        Curso curso3 = new Curso();
+        curso3.setId(3L);
+        List<Curso> cursos = Arrays.asList(cursosMock.get(0), cursosMock.get(1), curso3);
+        when(cursoRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(cursos);
+
+        // Act
+        KeysetPage<Curso> resultado = cursoService.obtenerPagina(null, 2);
+
+        // Assert
+        assertEquals(2, resultado.items().size());
+        assertTrue(resultado.hasNext());
+        assertEquals(2L, KeysetPage.decodeCursor(resultado.nextCursor()));
+        verify(cursoRepository, never()).findAll();
+    }
+
     @Test
     void testObtenerPorId_CursoExistente() {
         // Arrange
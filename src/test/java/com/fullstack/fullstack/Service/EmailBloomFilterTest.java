@@ -0,0 +1,60 @@
+package com.fullstack.fullstack.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el filtro de Bloom de EmailBloomFilter
+ */
+class EmailBloomFilterTest {
+
+    @Test
+    void testSinFalsosNegativos() {
+        // Arrange
+        EmailBloomFilter filtro = new EmailBloomFilter(10_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            filtro.put("alumno" + i + "@correo.cl");
+        }
+
+        // Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.mightContain("alumno" + i + "@correo.cl"));
+        }
+    }
+
+    @Test
+    void testTasaDeFalsosPositivosCercanaALaObjetivo() {
+        // Arrange
+        EmailBloomFilter filtro = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.put("alumno" + i + "@correo.cl");
+        }
+
+        // Act
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.mightContain("nuevo" + i + "@otro.cl")) {
+                falsosPositivos++;
+            }
+        }
+
+        // Assert
+        double observada = falsosPositivos / 100_000.0;
+        assertTrue(observada < 0.02, "fpp observada = " + observada);
+        assertEquals(0.01, filtro.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void testFiltroVacio() {
+        // Arrange
+        EmailBloomFilter filtro = new EmailBloomFilter(1000, 0.01);
+
+        // Act & Assert
+        assertFalse(filtro.mightContain("ana@correo.cl"));
+        assertEquals(0.0, filtro.expectedFalsePositiveRate());
+        assertEquals(0, filtro.approximateElementCount());
+    }
+}
@@ -0,0 +1,184 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.BulkImportProperties;
+import com.fullstack.fullstack.DTO.InscripcionRequest;
+import com.fullstack.fullstack.DTO.InscripcionResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la inscripción masiva de InscripcionService (sobre H2 en memoria)
+ */
+class InscripcionServiceTest {
+
+    /**
+     * Responde a los lotes como MariaDB Connector/J con lotes: SUCCESS_NO_INFO en lugar de las filas
+     */
+    private static class JdbcTemplateSinRecuento extends JdbcTemplate {
+
+        JdbcTemplateSinRecuento(JdbcTemplate origen) {
+            super(origen.getDataSource());
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            int[][] resultados = super.batchUpdate(sql, batchArgs, batchSize, pss);
+            for (int[] lote : resultados) {
+                Arrays.fill(lote, Statement.SUCCESS_NO_INFO);
+            }
+            return resultados;
+        }
+    }
+
+    private JdbcTemplate jdbcTemplate;
+    private BulkImportProperties config;
+    private ConcurrentMapCacheManager cacheManager;
+    private InscripcionService inscripcionService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:inscripciones;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE curso (id BIGINT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE alumnos (id BIGINT AUTO_INCREMENT PRIMARY KEY, email VARCHAR(100) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE curso_alumno (curso_id BIGINT NOT NULL REFERENCES curso(id), "
+                + "alumno_id BIGINT NOT NULL REFERENCES alumnos(id))");
+        jdbcTemplate.update("INSERT INTO curso (id, nombre) VALUES (1, 'Java'), (2, 'SQL')");
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("INSERT INTO alumnos (id, email) VALUES (?, ?)", id, "alumno" + id + "@correo.cl");
+        }
+        config = new BulkImportProperties();
+        cacheManager = new ConcurrentMapCacheManager("alumnos");
+        inscripcionService = new InscripcionService(jdbcTemplate, cacheManager, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE curso_alumno");
+        jdbcTemplate.execute("DROP TABLE alumnos");
+        jdbcTemplate.execute("DROP TABLE curso");
+    }
+
+    private int inscripciones() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM curso_alumno", Integer.class);
+    }
+
+    @Test
+    void testInscribir_InsertaLosParesNuevos() {
+        // Arrange
+        config.setEnrollmentChunkSize(2);
+        cacheManager.getCache("alumnos").put(1L, "en caché");
+
+        // Act
+        InscripcionResult resultado = inscripcionService.inscribir(List.of(
+                new InscripcionRequest(1L, List.of(1L, 2L, 3L)),
+                new InscripcionRequest(2L, List.of(4L, 5L))));
+
+        // Assert
+        assertEquals(new InscripcionResult(5, 5, 0), resultado);
+        assertEquals(5, inscripciones());
+        assertNull(cacheManager.getCache("alumnos").get(1L));
+    }
+
+    @Test
+    void testInscribir_OmiteYaInscritosEIdsInexistentes() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO curso_alumno (curso_id, alumno_id) VALUES (1, 1)");
+
+        // Act
+        InscripcionResult resultado = inscripcionService.inscribir(List.of(
+                new InscripcionRequest(1L, List.of(1L, 2L, 99L)),
+                new InscripcionRequest(7L, List.of(3L))));
+
+        // Assert: (1,1) ya existía, el alumno 99 y el curso 7 no existen
+        assertEquals(new InscripcionResult(4, 1, 3), resultado);
+        assertEquals(2, inscripciones());
+    }
+
+    @Test
+    void testInscribir_RepetirLaPeticionNoDuplica() {
+        // Arrange
+        List<InscripcionRequest> peticion = List.of(new InscripcionRequest(2L, List.of(1L, 2L, 2L)));
+        inscripcionService.inscribir(peticion);
+
+        // Act
+        InscripcionResult resultado = inscripcionService.inscribir(peticion);
+
+        // Assert
+        assertEquals(new InscripcionResult(2, 0, 2), resultado);
+        assertEquals(2, inscripciones());
+    }
+
+    @Test
+    void testInscribir_DriverSinRecuentoDeFilas_CuentaLasInscripcionesReales() {
+        // Arrange
+        config.setEnrollmentChunkSize(2);
+        jdbcTemplate.update("INSERT INTO curso_alumno (curso_id, alumno_id) VALUES (1, 1), (2, 5)");
+        cacheManager.getCache("alumnos").put(1L, "en caché");
+        InscripcionService sinRecuento = new InscripcionService(new JdbcTemplateSinRecuento(jdbcTemplate), cacheManager, config);
+
+        // Act
+        InscripcionResult resultado = sinRecuento.inscribir(List.of(
+                new InscripcionRequest(1L, List.of(1L, 2L, 3L, 99L)),
+                new InscripcionRequest(2L, List.of(4L))));
+
+        // Assert: (1,1) ya existía y el alumno 99 no existe
+        assertEquals(new InscripcionResult(5, 3, 2), resultado);
+        assertEquals(5, inscripciones());
+        assertNull(cacheManager.getCache("alumnos").get(1L));
+    }
+
+    @Test
+    void testInscribir_DriverSinRecuentoDeFilas_NadaNuevoIgualDescartaLaCache() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO curso_alumno (curso_id, alumno_id) VALUES (1, 1)");
+        cacheManager.getCache("alumnos").put(1L, "en caché");
+        InscripcionService sinRecuento = new InscripcionService(new JdbcTemplateSinRecuento(jdbcTemplate), cacheManager, config);
+
+        // Act
+        InscripcionResult resultado = sinRecuento.inscribir(List.of(new InscripcionRequest(1L, List.of(1L))));
+
+        // Assert
+        assertEquals(new InscripcionResult(1, 0, 1), resultado);
+        assertNull(cacheManager.getCache("alumnos").get(1L));
+    }
+
+    @Test
+    void testNormalizar_QuitaRepetidosYNulosYOrdena() {
+        // Arrange
+        List<InscripcionRequest> inscripciones = Arrays.asList(
+                new InscripcionRequest(2L, Arrays.asList(5L, 3L, 5L, null)),
+                new InscripcionRequest(1L, List.of(7L)),
+                new InscripcionRequest(2L, List.of(3L)),
+                new InscripcionRequest(null, List.of(9L)),
+                null);
+
+        // Act
+        List<InscripcionService.Par> pares = List.copyOf(InscripcionService.normalizar(inscripciones));
+
+        // Assert
+        assertEquals(List.of(
+                new InscripcionService.Par(1L, 7L),
+                new InscripcionService.Par(2L, 3L),
+                new InscripcionService.Par(2L, 5L)), pares);
+    }
+
+    @Test
+    void testNormalizar_SinInscripciones() {
+        // Act & Assert
+        assertTrue(InscripcionService.normalizar(null).isEmpty());
+        assertTrue(InscripcionService.normalizar(List.of()).isEmpty());
+    }
+}
@@ -0,0 +1,156 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.EmailFilterProperties;
+import com.fullstack.fullstack.DTO.UserDTO;
+import com.fullstack.fullstack.Repository.AlumnoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para el índice de emails conocidos de KnownEmailsIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class KnownEmailsIndexTest {
+
+    @Mock
+    private AlumnoRepository alumnoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private KnownEmailsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new KnownEmailsIndex(alumnoRepository, new EmailFilterProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.detener();
+    }
+
+    private static UserDirectorySnapshot directorio(String... emails) {
+        long id = 1;
+        List<UserDTO> users = new ArrayList<>();
+        for (String email : emails) {
+            users.add(UserDTO.builder().id(id++).name("Usuario").email(email).activo(true).build());
+        }
+        return UserDirectorySnapshot.of(users);
+    }
+
+    private double falsosPositivos() {
+        return meterRegistry.get("alumnos.email.filter.false.positives").counter().count();
+    }
+
+    @Test
+    void testSinFiltro_TodasLasComprobacionesSonExactas() {
+        // Act
+        KnownEmailsIndex.Check check = index.check("ana@correo.cl");
+        index.recordExactCheck(check, false);
+
+        // Assert: sin filtro no hay posible coincidencia, así que no es un falso positivo
+        assertFalse(index.isReady());
+        assertEquals(KnownEmailsIndex.Check.NOT_READY, check);
+        assertEquals(0.0, falsosPositivos());
+        assertEquals(0.0, index.getObservedFalsePositiveRate());
+        assertEquals(1.0, meterRegistry.get("alumnos.email.filter.checks").tag("result", "not_ready").counter().count());
+    }
+
+    @Test
+    void testRebuild_IncluyeEmailsLocalesYExternos() {
+        // Arrange
+        when(alumnoRepository.count()).thenReturn(1L);
+        when(alumnoRepository.findAllEmails()).thenReturn(List.of("local@correo.cl"));
+
+        // Act
+        index.rebuild(directorio("externo@correo.cl"));
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(KnownEmailsIndex.Check.MAYBE, index.check("LOCAL@correo.cl"));
+        assertEquals(KnownEmailsIndex.Check.MAYBE, index.check("externo@correo.cl"));
+        assertEquals(KnownEmailsIndex.Check.DEFINITELY_NEW, index.check("nuevo@correo.cl"));
+        assertEquals(2.0, index.getApproximateSize());
+    }
+
+    @Test
+    void testRegister_AnadeElEmailAlFiltro() {
+        // Arrange
+        when(alumnoRepository.findAllEmails()).thenReturn(List.of());
+        index.rebuild(directorio());
+
+        // Act
+        index.register("recien.creado@correo.cl");
+
+        // Assert
+        assertEquals(KnownEmailsIndex.Check.MAYBE, index.check("recien.creado@correo.cl"));
+    }
+
+    @Test
+    void testEmailEnBlanco_SeOmiteYRequiereComprobacionExacta() {
+        // Arrange: un usuario externo sin email no rompe la reconstrucción
+        when(alumnoRepository.findAllEmails()).thenReturn(List.of("ana@correo.cl"));
+        index.rebuild(directorio("luis@correo.cl", "  "));
+
+        // Act
+        index.register("");
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(KnownEmailsIndex.Check.NOT_READY, index.check("   "));
+        assertEquals(KnownEmailsIndex.Check.NOT_READY, index.check(null));
+        assertEquals(KnownEmailsIndex.Check.MAYBE, index.check("luis@correo.cl"));
+    }
+
+    @Test
+    void testFalsosPositivos_SoloTrasUnaPosibleCoincidencia() {
+        // Arrange
+        when(alumnoRepository.findAllEmails()).thenReturn(List.of("local@correo.cl"));
+        index.rebuild(directorio());
+        KnownEmailsIndex.Check nuevo = index.check("nuevo@correo.cl");
+        KnownEmailsIndex.Check posible = index.check("local@correo.cl");
+
+        // Act
+        index.recordExactCheck(posible, false);
+        index.recordExactCheck(posible, true);
+        index.recordExactCheck(KnownEmailsIndex.Check.NOT_READY, false);
+
+        // Assert: 1 falso positivo frente a 1 email nuevo resuelto por el filtro
+        assertEquals(KnownEmailsIndex.Check.DEFINITELY_NEW, nuevo);
+        assertEquals(1.0, falsosPositivos());
+        assertEquals(0.5, index.getObservedFalsePositiveRate());
+    }
+
+    @Test
+    void testOnDirectoryRefreshed_ReconstruyeFueraDelHiloPublicador() throws Exception {
+        // Arrange
+        AtomicReference<String> hilo = new AtomicReference<>();
+        when(alumnoRepository.findAllEmails()).thenAnswer(invocacion -> {
+            hilo.set(Thread.currentThread().getName());
+            return List.of();
+        });
+
+        // Act
+        index.onDirectoryRefreshed(new UserDirectoryRefreshedEvent(directorio("externo@correo.cl")));
+
+        // Assert
+        for (int i = 0; i < 500 && !index.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(index.isReady());
+        assertEquals("known-emails-rebuild", hilo.get());
+        assertEquals(KnownEmailsIndex.Check.MAYBE, index.check("externo@correo.cl"));
+    }
+}
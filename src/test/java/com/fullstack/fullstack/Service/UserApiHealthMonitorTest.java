@@ -0,0 +1,92 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para los estados del monitor de salud de la API externa
+ */
+class UserApiHealthMonitorTest {
+
+    // Respuesta simulada de la API externa para el próximo sondeo (null = conexión rechazada)
+    private final AtomicReference<HttpStatus> respuesta = new AtomicReference<>(HttpStatus.OK);
+
+    private UserApiHealthMonitor crearMonitor() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> respuesta.get() == null
+                        ? Mono.error(new ConnectException("Connection refused"))
+                        : Mono.just(ClientResponse.create(respuesta.get()).build()))
+                .build();
+        return new UserApiHealthMonitor(webClient, new UserApiProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testSinSondeos_EstadoDesconocidoYNoDisponible() {
+        // Arrange
+        UserApiHealthMonitor monitor = crearMonitor();
+
+        // Act & Assert
+        assertEquals(UserApiHealthMonitor.Status.UNKNOWN, monitor.getStatus());
+        assertFalse(monitor.isAvailable());
+    }
+
+    @Test
+    void testSondeoCorrecto_Disponible() {
+        // Arrange
+        UserApiHealthMonitor monitor = crearMonitor();
+
+        // Act
+        UserApiHealthMonitor.Status estado = monitor.sondear();
+
+        // Assert
+        assertEquals(UserApiHealthMonitor.Status.UP, estado);
+        assertTrue(monitor.isAvailable());
+        assertEquals(1, ((Map<?, ?>) monitor.describe().get("latency")).get("samples"));
+    }
+
+    @Test
+    void testPrimerSondeoFallido_Caida() {
+        // Arrange
+        UserApiHealthMonitor monitor = crearMonitor();
+        respuesta.set(null);
+
+        // Act & Assert
+        assertEquals(UserApiHealthMonitor.Status.DOWN, monitor.sondear());
+        assertFalse(monitor.isAvailable());
+    }
+
+    @Test
+    void testFalloAislado_Degradada_YFallosSeguidos_Caida() {
+        // Arrange
+        UserApiHealthMonitor monitor = crearMonitor();
+        monitor.sondear();
+        respuesta.set(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // Act & Assert
+        assertEquals(UserApiHealthMonitor.Status.DEGRADED, monitor.sondear());
+        assertTrue(monitor.isAvailable());
+        assertEquals(UserApiHealthMonitor.Status.DOWN, monitor.sondear());
+        assertFalse(monitor.isAvailable());
+    }
+
+    @Test
+    void testRespuesta4xx_CuentaComoApiViva() {
+        // Arrange
+        UserApiHealthMonitor monitor = crearMonitor();
+        respuesta.set(HttpStatus.METHOD_NOT_ALLOWED);
+
+        // Act & Assert
+        assertEquals(UserApiHealthMonitor.Status.UP, monitor.sondear());
+    }
+}
@@ -0,0 +1,109 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import com.fullstack.fullstack.DTO.ConnectivityReport;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el perfilador de latencia contra un servidor HTTP local
+ */
+class UserApiLatencyProfilerTest {
+
+    private HttpServer servidor;
+    private volatile long demoraMillis;
+
+    @BeforeEach
+    void iniciarServidor() throws Exception {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/api/usuarios/listar", intercambio -> {
+            try {
+                Thread.sleep(demoraMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] cuerpo = new byte[1000];
+            intercambio.sendResponseHeaders(200, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    private UserApiLatencyProfiler crearPerfilador(Duration presupuesto) {
+        UserApiProperties properties = new UserApiProperties();
+        properties.setBaseUrl("http://localhost:" + servidor.getAddress().getPort());
+        properties.getDiagnostics().setBudget(presupuesto);
+        return new UserApiLatencyProfiler(properties);
+    }
+
+    @Test
+    void testSondeosConcurrentes_InformanPercentilesYTamano() {
+        // Arrange
+        UserApiLatencyProfiler perfilador = crearPerfilador(Duration.ofSeconds(10));
+
+        // Act
+        ConnectivityReport informe = perfilador.perfilar(6, 3).block();
+
+        // Assert
+        assertNotNull(informe);
+        assertEquals(6, informe.getCompletedProbes());
+        assertEquals(0, informe.getFailedProbes());
+        assertFalse(informe.isBudgetExceeded());
+        assertEquals(6, informe.getTotalLatencyMs().getSamples());
+        assertEquals(6, informe.getConnectTimeMs().getSamples());
+        assertEquals(1000.0, informe.getPayloadBytes().getP50());
+        assertTrue(informe.getTimeToFirstByteMs().getP50() <= informe.getTotalLatencyMs().getP50());
+    }
+
+    @Test
+    void testPresupuestoAgotado_CancelaLosSondeosPendientes() {
+        // Arrange
+        demoraMillis = 2000;
+        UserApiLatencyProfiler perfilador = crearPerfilador(Duration.ofMillis(300));
+
+        // Act
+        long inicio = System.nanoTime();
+        ConnectivityReport informe = perfilador.perfilar(4, 2).block();
+        long duracionMillis = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Assert
+        assertNotNull(informe);
+        assertTrue(informe.isBudgetExceeded());
+        assertEquals(4, informe.getCancelledProbes() + informe.getFailedProbes());
+        assertTrue(duracionMillis < 2000, "El diagnóstico debe respetar el presupuesto");
+    }
+
+    @Test
+    void testSinServidor_TodosLosSondeosFallan() {
+        // Arrange
+        UserApiLatencyProfiler perfilador = crearPerfilador(Duration.ofSeconds(5));
+        servidor.stop(0);
+
+        // Act
+        ConnectivityReport informe = perfilador.perfilar(3, 3).block();
+
+        // Assert
+        assertNotNull(informe);
+        assertEquals(0, informe.getCompletedProbes());
+        assertEquals(3, informe.getFailedProbes());
+        assertFalse(informe.getErrors().isEmpty());
+        assertFalse(informe.getRecomendaciones().isEmpty());
+    }
+}
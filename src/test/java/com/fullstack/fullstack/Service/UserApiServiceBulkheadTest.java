@@ -0,0 +1,63 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.UserDTO;
+import com.fullstack.fullstack.Resilience.BulkheadFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el uso del bulkhead en las consultas bloqueantes de UserApiService
+ */
+class UserApiServiceBulkheadTest {
+
+    private static final String DIRECTORIO =
+            "{\"_embedded\":{\"userList\":[{\"id\":1,\"name\":\"Ana\",\"email\":\"ana@correo.cl\",\"activo\":true}]}}";
+
+    private UserApiServiceFixture api;
+    private UserApiService service;
+
+    @BeforeEach
+    void setUp() {
+        // API externa simulada: el directorio solo tiene al ID 1 y cualquier otro ID no existe
+        api = UserApiServiceFixture.builder(rutas -> rutas
+                        .get("/api/usuarios/listar", (request, response) -> response
+                                .header("Content-Type", "application/hal+json")
+                                .sendString(Mono.just(DIRECTORIO)))
+                        .get("/api/usuarios/encontrar/{id}", (request, response) -> response.status(404).send()))
+                .start();
+        service = api.service();
+        service.obtenerDirectorio();
+        // A partir de aquí toda llamada que pase por el bulkhead es rechazada
+        api.bulkhead().shutdown();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testGetUserById_EnDirectorio_NoUsaElBulkhead() {
+        // Act & Assert
+        assertEquals("Ana", service.getUserById(1L).orElseThrow().getName());
+        assertThrows(BulkheadFullException.class, () -> service.getUserById(7L));
+    }
+
+    @Test
+    void testGetUsersByIds_TodosEnMemoria_NoUsaElBulkhead() {
+        // Act
+        Map<Long, UserDTO> users = service.getUsersByIds(Arrays.asList(1L, null, 1L));
+
+        // Assert
+        assertEquals(List.of(1L), List.copyOf(users.keySet()));
+        assertThrows(BulkheadFullException.class, () -> service.getUsersByIds(List.of(1L, 7L)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.fullstack.fullstack.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la recarga condicional (ETag / 304) del directorio en UserApiService
+ */
+class UserApiServiceConditionalRefreshTest {
+
+    private static final String DIRECTORIO =
+            "{\"_embedded\":{\"userList\":[{\"id\":1,\"name\":\"Ana\",\"email\":\"ana@correo.cl\",\"activo\":true}]}}";
+
+    private final AtomicInteger descargasCompletas = new AtomicInteger();
+    private final AtomicInteger respuestas304 = new AtomicInteger();
+    private final AtomicInteger eventos = new AtomicInteger();
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    private UserApiServiceFixture api;
+    private UserApiService service;
+
+    @BeforeEach
+    void setUp() {
+        // API externa simulada: ETag fijo, 304 si el cliente ya tiene esa versión, respuestas comprimidas
+        api = UserApiServiceFixture.builder(rutas -> rutas.get("/api/usuarios/listar", (request, response) -> {
+                    acceptEncoding.set(request.requestHeaders().get("Accept-Encoding"));
+                    if ("\"v1\"".equals(request.requestHeaders().get("If-None-Match"))) {
+                        respuestas304.incrementAndGet();
+                        return response.status(304).send();
+                    }
+                    descargasCompletas.incrementAndGet();
+                    return response.header("Content-Type", "application/hal+json")
+                            .header("ETag", "\"v1\"")
+                            .sendString(Mono.just(DIRECTORIO));
+                }))
+                .events(evento -> eventos.incrementAndGet())
+                .start();
+        service = api.service();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testPrimeraCarga_GuardaLosValidadoresYNegociaGzip() {
+        // Act
+        UserDirectorySnapshot snapshot = service.refrescarDirectorio();
+
+        // Assert
+        assertEquals(1, snapshot.size());
+        assertEquals("\"v1\"", snapshot.getEtag());
+        assertTrue(acceptEncoding.get() != null && acceptEncoding.get().contains("gzip"), acceptEncoding.get());
+    }
+
+    @Test
+    void testDirectorioSinCambios_304ConservaLaInstantanea() throws Exception {
+        // Arrange
+        UserDirectorySnapshot primera = service.refrescarDirectorio();
+        Instant cargadaEn = primera.getLoadedAt();
+        Thread.sleep(5);
+
+        // Act
+        UserDirectorySnapshot segunda = service.refrescarDirectorio();
+
+        // Assert: misma lista, fecha renovada, sin nueva descarga ni aviso al espejo
+        assertSame(primera.getUsers(), segunda.getUsers());
+        assertTrue(segunda.getLoadedAt().isAfter(cargadaEn));
+        assertEquals(1, descargasCompletas.get());
+        assertEquals(1, respuestas304.get());
+        assertEquals(1, eventos.get());
+        assertTrue(service.getUserByEmail("ana@correo.cl").isPresent());
+    }
+}
@@ -0,0 +1,103 @@
+package com.fullstack.fullstack.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fullstack.fullstack.Config.UserApiConfig;
+import com.fullstack.fullstack.Config.UserApiProperties;
+import com.fullstack.fullstack.Resilience.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRoutes;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.function.Consumer;
+
+/**
+ * UserApiService real contra una API externa simulada con reactor-netty en un puerto libre de localhost
+ * Los componentes de resiliencia se crean como en UserApiConfig; se cierra en @AfterEach
+ */
+final class UserApiServiceFixture implements AutoCloseable {
+
+    private final DisposableServer servidor;
+    private final ConnectionProvider conexiones;
+    private final Bulkhead bulkhead;
+    private final UserApiService service;
+
+    private UserApiServiceFixture(Builder builder) {
+        servidor = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .compress(true)
+                .route(builder.rutas)
+                .bindNow();
+
+        UserApiProperties properties = new UserApiProperties();
+        properties.setBaseUrl("http://localhost:" + servidor.port());
+        builder.propiedades.accept(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserApiConfig config = new UserApiConfig();
+        conexiones = config.usersApiConnectionProvider(properties);
+        WebClient webClient = config.usersApiWebClient(properties, conexiones);
+        bulkhead = config.usersApiBulkhead(properties, meterRegistry);
+        service = new UserApiService(webClient, properties, meterRegistry, new ConcurrentMapCacheManager("users"),
+                config.usersApiCircuitBreaker(properties, meterRegistry),
+                new UserDirectoryStreamReader(new ObjectMapper()), new UserApiHealthMonitor(webClient, properties, meterRegistry),
+                builder.eventos, config.usersApiHedger(properties, meterRegistry),
+                config.usersApiTimeouts(properties, meterRegistry), bulkhead,
+                config.usersApiRetryBudget(properties, meterRegistry));
+    }
+
+    /**
+     * @param rutas Endpoints de la API externa simulada
+     */
+    static Builder builder(Consumer<HttpServerRoutes> rutas) {
+        return new Builder(rutas);
+    }
+
+    UserApiService service() {
+        return service;
+    }
+
+    Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    @Override
+    public void close() {
+        service.detenerRefrescoDirectorio();
+        bulkhead.shutdown();
+        conexiones.dispose();
+        servidor.disposeNow();
+    }
+
+    static final class Builder {
+
+        private final Consumer<HttpServerRoutes> rutas;
+        private Consumer<UserApiProperties> propiedades = properties -> { };
+        private ApplicationEventPublisher eventos = evento -> { };
+
+        private Builder(Consumer<HttpServerRoutes> rutas) {
+            this.rutas = rutas;
+        }
+
+        /**
+         * Ajustes sobre las propiedades por defecto (la URL base ya apunta a la API simulada)
+         */
+        Builder properties(Consumer<UserApiProperties> propiedades) {
+            this.propiedades = propiedades;
+            return this;
+        }
+
+        Builder events(ApplicationEventPublisher eventos) {
+            this.eventos = eventos;
+            return this;
+        }
+
+        UserApiServiceFixture start() {
+            return new UserApiServiceFixture(this);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la caché negativa de usuarios inexistentes de UserApiService
+ */
+class UserApiServiceNegativeCacheTest {
+
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private UserApiServiceFixture api;
+    private UserApiService service;
+
+    @BeforeEach
+    void setUp() {
+        // API externa simulada: el ID 404 no existe y el ID 500 falla
+        api = UserApiServiceFixture.builder(rutas -> rutas.get("/api/usuarios/encontrar/{id}", (request, response) -> {
+                    llamadas.incrementAndGet();
+                    return response.status(Integer.parseInt(request.param("id"))).send();
+                }))
+                .properties(properties -> properties.getRetry().setMaxAttempts(0))
+                .start();
+        service = api.service();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testUsuarioInexistente_SoloSeConsultaUnaVez() {
+        // Act
+        Optional<UserDTO> primera = service.getUserByIdReactive(404L).block(Duration.ofSeconds(5));
+        Optional<UserDTO> segunda = service.getUserByIdReactive(404L).block(Duration.ofSeconds(5));
+        Optional<UserDTO> bloqueante = service.getUserById(404L);
+
+        // Assert
+        assertTrue(primera.isEmpty());
+        assertTrue(segunda.isEmpty());
+        assertTrue(bloqueante.isEmpty());
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void testErrorDelServidor_NoSeRecuerdaComoInexistente() {
+        // Act
+        Optional<UserDTO> primera = service.getUserByIdReactive(500L).block(Duration.ofSeconds(5));
+        Optional<UserDTO> segunda = service.getUserByIdReactive(500L).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(primera.isEmpty());
+        assertTrue(segunda.isEmpty());
+        assertEquals(2, llamadas.get());
+    }
+}
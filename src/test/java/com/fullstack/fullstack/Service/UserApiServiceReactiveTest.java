@@ -0,0 +1,144 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para las variantes no bloqueantes de UserApiService
+ */
+class UserApiServiceReactiveTest {
+
+    private static final String DIRECTORIO =
+            "{\"_embedded\":{\"userList\":[{\"id\":1,\"name\":\"Ana\",\"email\":\"ana@correo.cl\",\"activo\":true}]}}";
+    private static final String USUARIO = "{\"id\":%s,\"name\":\"Luis\",\"email\":\"luis@correo.cl\",\"activo\":true}";
+
+    private final AtomicInteger busquedas = new AtomicInteger();
+    private UserApiServiceFixture api;
+    private UserApiService service;
+
+    @BeforeEach
+    void setUp() {
+        // API externa simulada: el directorio solo tiene al ID 1 y la búsqueda por ID solo encuentra al 7;
+        // al actualizar el ID 404 no existe y los borrados responden con el propio ID como estado HTTP
+        api = UserApiServiceFixture.builder(rutas -> rutas
+                        .get("/api/usuarios/listar", (request, response) -> response
+                                .header("Content-Type", "application/hal+json")
+                                .sendString(Mono.just(DIRECTORIO)))
+                        .get("/api/usuarios/encontrar/{id}", (request, response) -> {
+                            busquedas.incrementAndGet();
+                            return "7".equals(request.param("id"))
+                                    ? response.header("Content-Type", "application/json")
+                                            .sendString(Mono.just(USUARIO.formatted(7)))
+                                    : response.status(404).send();
+                        })
+                        .post("/api/usuarios/crear", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(USUARIO.formatted(8))))
+                        .put("/api/usuarios/actualizar/{id}", (request, response) -> "404".equals(request.param("id"))
+                                ? response.status(404).send()
+                                : response.header("Content-Type", "application/json")
+                                        .sendString(Mono.just(USUARIO.formatted(request.param("id")))))
+                        .delete("/api/usuarios/delete/{id}", (request, response) ->
+                                response.status(Integer.parseInt(request.param("id"))).send()))
+                .properties(properties -> properties.getRetry().setMaxAttempts(0))
+                .start();
+        service = api.service();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testGetAllUsersReactive_DevuelveElDirectorio() {
+        // Act
+        List<UserDTO> users = service.getAllUsersReactive().block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1, users.size());
+        assertEquals("ana@correo.cl", users.get(0).getEmail());
+    }
+
+    @Test
+    void testGetUserByIdReactive_GuardaEnCacheElUsuarioEncontrado() {
+        // Act
+        Optional<UserDTO> primera = service.getUserByIdReactive(7L).block(Duration.ofSeconds(5));
+        Optional<UserDTO> segunda = service.getUserByIdReactive(7L).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals("Luis", primera.orElseThrow().getName());
+        assertEquals(primera, segunda);
+        assertEquals(1, busquedas.get());
+        assertTrue(service.getCachedUser(7L).isPresent());
+    }
+
+    @Test
+    void testGetUserByEmailReactive_UsaElIndiceDelDirectorio() {
+        // Act
+        Optional<UserDTO> encontrado = service.getUserByEmailReactive("ANA@correo.cl").block(Duration.ofSeconds(5));
+        Optional<UserDTO> inexistente = service.getUserByEmailReactive("nadie@correo.cl").block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(1L, encontrado.orElseThrow().getId());
+        assertTrue(inexistente.isEmpty());
+        assertEquals(0, busquedas.get());
+    }
+
+    @Test
+    void testCreateUserReactive_RegistraElUsuarioCreado() {
+        // Arrange
+        UserDTO nuevo = UserDTO.builder().name("Luis").email("luis@correo.cl").activo(true).build();
+
+        // Act
+        Optional<UserDTO> creado = service.createUserReactive(nuevo).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(8L, creado.orElseThrow().getId());
+        assertEquals(creado, service.getCachedUser(8L));
+    }
+
+    @Test
+    void testUpdateUserReactive_UsuarioInexistente_DevuelveVacioSinError() {
+        // Arrange
+        UserDTO cambios = UserDTO.builder().name("Luis").email("luis@correo.cl").activo(true).build();
+
+        // Act
+        Optional<UserDTO> actualizado = service.updateUserReactive(404L, cambios).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(actualizado.isEmpty());
+        assertTrue(service.getCachedUser(404L).isEmpty());
+    }
+
+    @Test
+    void testDeleteUserReactive_QuitaElUsuarioDeLaCache() {
+        // Arrange: la simulación responde al borrado con el ID como estado, así que el ID 200 se elimina
+        service.updateUserReactive(200L, UserDTO.builder().name("Luis").activo(true).build()).block(Duration.ofSeconds(5));
+        assertTrue(service.getCachedUser(200L).isPresent());
+
+        // Act
+        Boolean eliminado = service.deleteUserReactive(200L).block(Duration.ofSeconds(5));
+
+        // Assert
+        assertTrue(eliminado);
+        assertTrue(service.getCachedUser(200L).isEmpty());
+    }
+
+    @Test
+    void testDeleteUserReactive_ErrorDelServidor_DevuelveFalseSinError() {
+        // Act & Assert
+        assertFalse(service.deleteUserReactive(500L).block(Duration.ofSeconds(5)));
+        assertFalse(service.deleteUserReactive(404L).block(Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,199 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import com.fullstack.fullstack.DTO.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la recarga stale-while-revalidate del directorio de UserApiService
+ */
+class UserApiServiceStaleWhileRevalidateTest {
+
+    private static final String ANA = "{\"id\":1,\"name\":\"Ana\",\"email\":\"ana@correo.cl\",\"activo\":true}";
+    private static final String LUIS = "{\"id\":2,\"name\":\"Luis\",\"email\":\"luis@correo.cl\",\"activo\":true}";
+
+    private final AtomicInteger descargas = new AtomicInteger();
+    private final AtomicReference<String> usuarios = new AtomicReference<>(ANA);
+    private final AtomicReference<CompletableFuture<Void>> retencion =
+            new AtomicReference<>(CompletableFuture.completedFuture(null));
+    private final AtomicBoolean fallar = new AtomicBoolean();
+    private UserApiServiceFixture api;
+    private UserApiService service;
+
+    /**
+     * API externa simulada: sirve la lista actual de usuarios, sin validadores (cada recarga es una descarga
+     * completa); la respuesta se puede retener hasta completar "retencion" o sustituir por un 500.
+     * Las altas devuelven a Luis y los borrados siempre se confirman
+     */
+    private void iniciar(Consumer<UserApiProperties.Directory> directorio) {
+        api = UserApiServiceFixture.builder(rutas -> rutas
+                        .get("/api/usuarios/listar", (request, response) -> {
+                            descargas.incrementAndGet();
+                            return Mono.fromFuture(retencion.get()).then(Mono.defer(() -> fallar.get()
+                                    ? response.status(500).send().then()
+                                    : response.header("Content-Type", "application/hal+json")
+                                            .sendString(Mono.just("{\"_embedded\":{\"userList\":[" + usuarios.get() + "]}}"))
+                                            .then()));
+                        })
+                        .post("/api/usuarios/crear", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just(LUIS)))
+                        .delete("/api/usuarios/delete/{id}", (request, response) -> response.status(200).send()))
+                .properties(properties -> {
+                    properties.getRetry().setMaxAttempts(0);
+                    directorio.accept(properties.getDirectory());
+                })
+                .start();
+        service = api.service();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testInstantaneaCaducada_LosLectoresSiguenConLaAnteriorMientrasSeRecarga() throws Exception {
+        // Arrange
+        iniciar(directorio -> {
+            directorio.setRefreshAfter(Duration.ofMillis(300));
+            directorio.setCheckInterval(Duration.ZERO);
+        });
+        UserDirectorySnapshot anterior = service.refrescarDirectorio();
+        usuarios.set(ANA + "," + LUIS);
+        retencion.set(new CompletableFuture<>());
+        Thread.sleep(400);
+
+        // Act: la lectura de una instantánea vieja solo programa la recarga
+        List<UserDTO> durante = service.getAllUsers();
+        esperarHasta(() -> descargas.get() == 2);
+        List<UserDTO> mientrasSeDescarga = service.getAllUsers();
+        retencion.get().complete(null);
+        esperarHasta(() -> service.obtenerDirectorio().size() == 2);
+
+        // Assert
+        assertSame(anterior.getUsers(), durante);
+        assertSame(anterior.getUsers(), mientrasSeDescarga);
+        assertTrue(service.getUserByEmail("luis@correo.cl").isPresent());
+        assertEquals(2, descargas.get());
+    }
+
+    @Test
+    void testRecargaFallida_ConservaLaInstantaneaYEsperaCheckInterval() throws Exception {
+        // Arrange
+        iniciar(directorio -> {
+            directorio.setRefreshAfter(Duration.ofMillis(50));
+            directorio.setCheckInterval(Duration.ofMillis(500));
+        });
+        UserDirectorySnapshot anterior = service.refrescarDirectorio();
+        fallar.set(true);
+        Thread.sleep(600);
+
+        // Act: primera lectura vieja tras check-interval -> un intento que falla
+        service.getAllUsers();
+        esperarHasta(() -> descargas.get() == 2);
+        Thread.sleep(100);
+        for (int i = 0; i < 5; i++) {
+            service.getAllUsers();
+        }
+        int descargasDentroDelIntervalo = descargas.get();
+        Thread.sleep(600);
+        service.getAllUsers();
+        esperarHasta(() -> descargas.get() == 3);
+
+        // Assert: se sigue sirviendo la última instantánea buena
+        assertEquals(2, descargasDentroDelIntervalo);
+        assertSame(anterior, service.obtenerDirectorio());
+        assertTrue(service.getUserByEmail("ana@correo.cl").isPresent());
+    }
+
+    @Test
+    void testLecturasConcurrentesCaducadas_UnaSolaRecarga() throws Exception {
+        // Arrange
+        iniciar(directorio -> {
+            directorio.setRefreshAfter(Duration.ofMillis(300));
+            directorio.setCheckInterval(Duration.ZERO);
+        });
+        UserDirectorySnapshot anterior = service.refrescarDirectorio();
+        usuarios.set(ANA + "," + LUIS);
+        retencion.set(new CompletableFuture<>());
+        Thread.sleep(400);
+        ExecutorService lectores = Executors.newFixedThreadPool(8);
+        CountDownLatch salida = new CountDownLatch(1);
+
+        // Act
+        List<Future<Boolean>> lecturas = IntStream.range(0, 8)
+                .mapToObj(i -> lectores.submit(() -> {
+                    salida.await();
+                    boolean todasConLaAnterior = true;
+                    for (int j = 0; j < 50; j++) {
+                        todasConLaAnterior &= service.getAllUsers() == anterior.getUsers();
+                    }
+                    return todasConLaAnterior;
+                }))
+                .toList();
+        salida.countDown();
+        for (Future<Boolean> lectura : lecturas) {
+            assertTrue(lectura.get(5, TimeUnit.SECONDS));
+        }
+        lectores.shutdown();
+        esperarHasta(() -> descargas.get() >= 2);
+        Thread.sleep(100);
+        int descargasConcurrentes = descargas.get();
+        retencion.get().complete(null);
+        esperarHasta(() -> service.obtenerDirectorio().size() == 2);
+
+        // Assert: carga inicial + una sola recarga en segundo plano
+        assertEquals(2, descargasConcurrentes);
+        assertEquals(2, descargas.get());
+    }
+
+    @Test
+    void testEscriturasDuranteLaDescarga_SeReaplicanSobreLaListaDescargada() throws Exception {
+        // Arrange: la lista que se está descargando se generó antes del alta y del borrado
+        iniciar(directorio -> { });
+        service.refrescarDirectorio();
+        retencion.set(new CompletableFuture<>());
+        CompletableFuture<UserDirectorySnapshot> recarga = CompletableFuture.supplyAsync(service::refrescarDirectorio);
+        esperarHasta(() -> descargas.get() == 2);
+
+        // Act
+        service.createUser(UserDTO.builder().name("Luis").email("luis@correo.cl").activo(true).build());
+        service.deleteUser(1L);
+        retencion.get().complete(null);
+        UserDirectorySnapshot recargado = recarga.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertSame(recargado, service.obtenerDirectorio());
+        assertTrue(recargado.findById(2L).isPresent());
+        assertTrue(recargado.findById(1L).isEmpty());
+        assertTrue(service.getUserByEmail("luis@correo.cl").isPresent());
+    }
+}
@@ -0,0 +1,95 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.Config.UserApiProperties;
+import com.fullstack.fullstack.DTO.UserDTO;
+import com.fullstack.fullstack.Model.Alumno;
+import com.fullstack.fullstack.Repository.AlumnoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración (H2) entre las escrituras JPA de alumnos y UserDirectoryMirrorSync
+ */
+@DataJpaTest
+class UserDirectoryMirrorSyncJpaTest {
+
+    @Autowired
+    private AlumnoRepository alumnoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UserDirectoryMirrorSync mirrorSync;
+
+    @BeforeEach
+    void setUp() {
+        mirrorSync = new UserDirectoryMirrorSync(jdbcTemplate, transactionManager,
+                new ConcurrentMapCacheManager("alumnos"), new UserApiProperties(), new SimpleMeterRegistry());
+    }
+
+    private UserDTO usuario(String nombre, String email) {
+        return UserDTO.builder().id(1000L).name(nombre).email(email).activo(true).build();
+    }
+
+    private String syncHash(long id) {
+        return jdbcTemplate.queryForObject("SELECT sync_hash FROM alumnos WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void testAlumnoEspejoActualizadoPorJpa_SigueSincronizandose() {
+        // Arrange: fila creada por el espejo y luego actualizada como hace AlumnoService.actualizar()
+        mirrorSync.sincronizar(UserDirectorySnapshot.of(List.of(usuario("Ana", "ana@correo.cl"))));
+        Alumno actualizado = new Alumno();
+        actualizado.setId(1000L);
+        actualizado.setNombre("Ana María");
+        actualizado.setEmail("ana.maria@correo.cl");
+        alumnoRepository.saveAndFlush(actualizado);
+        entityManager.clear();
+        assertNotNull(syncHash(1000L));
+
+        // Act
+        UserDirectoryMirrorSync.Resultado cambio = mirrorSync.sincronizar(
+                UserDirectorySnapshot.of(List.of(usuario("Ana María Soto", "ana.maria@correo.cl"))));
+        UserDirectoryMirrorSync.Resultado ausente = mirrorSync.sincronizar(UserDirectorySnapshot.of(List.of()));
+
+        // Assert
+        assertEquals(1, cambio.actualizadas());
+        assertEquals(0, cambio.conflictos());
+        assertEquals(1, ausente.desactivadas());
+        Alumno fila = alumnoRepository.findById(1000L).orElseThrow();
+        assertEquals("Ana María Soto", fila.getNombre());
+        assertFalse(fila.isActivo());
+    }
+
+    @Test
+    void testAlumnoSoloLocal_NoRecibeHashAlGuardarse() {
+        // Arrange
+        Alumno local = new Alumno();
+        local.setNombre("Luis");
+        local.setEmail("luis@correo.cl");
+        local.setSyncHash("no-debe-guardarse");
+
+        // Act
+        Alumno guardado = alumnoRepository.saveAndFlush(local);
+
+        // Assert
+        assertNull(syncHash(guardado.getId()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la planificación de cambios de UserDirectoryMirrorSync
+ */
+class UserDirectoryMirrorSyncTest {
+
+    private UserDTO usuario(long id, String email) {
+        return UserDTO.builder().id(id).name("Usuario " + id).email(email).activo(true).build();
+    }
+
+    private UserDirectoryMirrorSync.FilaLocal sincronizada(UserDTO user) {
+        return new UserDirectoryMirrorSync.FilaLocal(user.getId(), user.getEmail(), true, UserDirectoryMirrorSync.hash(user));
+    }
+
+    @Test
+    void testPlanificar_InsertaUsuariosNuevos() {
+        // Arrange
+        List<UserDTO> users = List.of(usuario(1L, "a@a.cl"), usuario(2L, "b@b.cl"));
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(users, new HashMap<>());
+
+        // Assert
+        assertEquals(2, plan.inserciones().size());
+        assertTrue(plan.actualizaciones().isEmpty());
+        assertTrue(plan.desactivaciones().isEmpty());
+    }
+
+    @Test
+    void testPlanificar_SinCambiosNoGeneraOperaciones() {
+        // Arrange
+        UserDTO user = usuario(1L, "a@a.cl");
+        Map<Long, UserDirectoryMirrorSync.FilaLocal> locales = new HashMap<>(Map.of(1L, sincronizada(user)));
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(List.of(user), locales);
+
+        // Assert
+        assertTrue(plan.inserciones().isEmpty());
+        assertTrue(plan.actualizaciones().isEmpty());
+        assertTrue(plan.desactivaciones().isEmpty());
+    }
+
+    @Test
+    void testPlanificar_ActualizaCuandoCambiaElContenido() {
+        // Arrange
+        UserDTO anterior = usuario(1L, "a@a.cl");
+        UserDTO actual = UserDTO.builder().id(1L).name("Nombre nuevo").email("a@a.cl").activo(true).build();
+        Map<Long, UserDirectoryMirrorSync.FilaLocal> locales = new HashMap<>(Map.of(1L, sincronizada(anterior)));
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(List.of(actual), locales);
+
+        // Assert
+        assertEquals(1, plan.actualizaciones().size());
+        assertEquals("Nombre nuevo", plan.actualizaciones().get(0).user().getName());
+    }
+
+    @Test
+    void testPlanificar_DesactivaAusentesEInactivosPeroNoLosLocales() {
+        // Arrange
+        UserDTO ausente = usuario(1L, "a@a.cl");
+        UserDTO inactivo = usuario(2L, "b@b.cl");
+        Map<Long, UserDirectoryMirrorSync.FilaLocal> locales = new HashMap<>();
+        locales.put(1L, sincronizada(ausente));
+        locales.put(2L, sincronizada(inactivo));
+        locales.put(3L, new UserDirectoryMirrorSync.FilaLocal(3L, "local@a.cl", true, null));
+        inactivo.setActivo(false);
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(List.of(inactivo), locales);
+
+        // Assert
+        assertEquals(2, plan.desactivaciones().size());
+        assertTrue(plan.desactivaciones().contains(1L));
+        assertTrue(plan.desactivaciones().contains(2L));
+        assertFalse(plan.desactivaciones().contains(3L));
+    }
+
+    @Test
+    void testPlanificar_ReactivaFilaDesactivada() {
+        // Arrange
+        UserDTO user = usuario(1L, "a@a.cl");
+        Map<Long, UserDirectoryMirrorSync.FilaLocal> locales = new HashMap<>(Map.of(1L,
+                new UserDirectoryMirrorSync.FilaLocal(1L, "a@a.cl", false, UserDirectoryMirrorSync.hash(user))));
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(List.of(user), locales);
+
+        // Assert
+        assertEquals(1, plan.actualizaciones().size());
+    }
+
+    @Test
+    void testPlanificar_EmailOcupadoPorOtraFilaEsConflicto() {
+        // Arrange
+        Map<Long, UserDirectoryMirrorSync.FilaLocal> locales = new HashMap<>(Map.of(5L,
+                new UserDirectoryMirrorSync.FilaLocal(5L, "a@a.cl", true, null)));
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(List.of(usuario(1L, "a@a.cl")), locales);
+
+        // Assert
+        assertTrue(plan.inserciones().isEmpty());
+        assertEquals(1, plan.conflictos());
+    }
+
+    @Test
+    void testPlanificar_MismoIdQueAlumnoSoloLocalEsConflicto() {
+        // Arrange: fila creada en local (IDENTITY) con el mismo ID que un usuario externo
+        Map<Long, UserDirectoryMirrorSync.FilaLocal> locales = new HashMap<>(Map.of(1L,
+                new UserDirectoryMirrorSync.FilaLocal(1L, "local@a.cl", true, null)));
+
+        // Act
+        UserDirectoryMirrorSync.Plan plan = UserDirectoryMirrorSync.planificar(List.of(usuario(1L, "a@a.cl")), locales);
+
+        // Assert
+        assertTrue(plan.inserciones().isEmpty());
+        assertTrue(plan.actualizaciones().isEmpty());
+        assertTrue(plan.desactivaciones().isEmpty());
+        assertEquals(1, plan.conflictos());
+    }
+}
@@ -0,0 +1,109 @@
+package com.fullstack.fullstack.Service;
+
+import com.fullstack.fullstack.DTO.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para los índices de UserDirectorySnapshot
+ */
+class UserDirectorySnapshotTest {
+
+    private UserDTO usuario(long id, String email) {
+        return UserDTO.builder().id(id).name("Usuario " + id).email(email).activo(true).build();
+    }
+
+    @Test
+    void testFindByEmail_NormalizaMayusculasYEspacios() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(List.of(usuario(1L, "Ana@Correo.cl")));
+
+        // Act
+        Optional<UserDTO> resultado = snapshot.findByEmail("  ana@CORREO.cl ");
+
+        // Assert
+        assertTrue(resultado.isPresent());
+        assertEquals(1L, resultado.get().getId());
+    }
+
+    @Test
+    void testFindById() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(List.of(usuario(1L, "a@a.cl"), usuario(2L, "b@b.cl")));
+
+        // Act & Assert
+        assertEquals("b@b.cl", snapshot.findById(2L).map(UserDTO::getEmail).orElse(null));
+        assertFalse(snapshot.findById(3L).isPresent());
+        assertFalse(snapshot.findById(null).isPresent());
+    }
+
+    @Test
+    void testEmailRepetido_ConservaElPrimero() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(List.of(usuario(1L, "x@x.cl"), usuario(2L, "X@x.cl")));
+
+        // Act & Assert
+        assertEquals(1L, snapshot.findByEmail("x@x.cl").get().getId());
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void testUsuariosNulosOSinEmail_SeIgnoranEnLosIndices() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(Arrays.asList(usuario(1L, null), null));
+
+        // Act & Assert
+        assertEquals(1, snapshot.size());
+        assertFalse(snapshot.findByEmail(null).isPresent());
+        assertTrue(snapshot.findById(1L).isPresent());
+    }
+
+    @Test
+    void testWithUser_ReemplazaYReindexaElEmail() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(List.of(usuario(1L, "a@a.cl"), usuario(2L, "b@b.cl")));
+
+        // Act
+        UserDirectorySnapshot actualizado = snapshot.withUser(usuario(1L, "nuevo@a.cl"));
+
+        // Assert
+        assertEquals(2, actualizado.size());
+        assertFalse(actualizado.findByEmail("a@a.cl").isPresent());
+        assertEquals(1L, actualizado.findByEmail("nuevo@a.cl").get().getId());
+        assertEquals(snapshot.getLoadedAt(), actualizado.getLoadedAt());
+        assertTrue(snapshot.findByEmail("a@a.cl").isPresent(), "La instantánea original no debe cambiar");
+    }
+
+    @Test
+    void testWithUser_AgregaUsuarioNuevo() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(List.of(usuario(1L, "a@a.cl")));
+
+        // Act
+        UserDirectorySnapshot actualizado = snapshot.withUser(usuario(3L, "c@c.cl"));
+
+        // Assert
+        assertEquals(2, actualizado.size());
+        assertTrue(actualizado.findById(3L).isPresent());
+    }
+
+    @Test
+    void testWithoutUser_QuitaDeLaListaYDeLosIndices() {
+        // Arrange
+        UserDirectorySnapshot snapshot = UserDirectorySnapshot.of(List.of(usuario(1L, "a@a.cl"), usuario(2L, "b@b.cl")));
+
+        // Act
+        UserDirectorySnapshot actualizado = snapshot.withoutUser(1L);
+
+        // Assert
+        assertEquals(1, actualizado.size());
+        assertFalse(actualizado.findById(1L).isPresent());
+        assertFalse(actualizado.findByEmail("a@a.cl").isPresent());
+        assertSame(actualizado, actualizado.withoutUser(99L));
+    }
+}
@@ -0,0 +1,93 @@
+package com.fullstack.fullstack.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la lectura en streaming del directorio de usuarios
+ */
+class UserDirectoryStreamReaderTest {
+
+    private final UserDirectoryStreamReader reader = new UserDirectoryStreamReader(new ObjectMapper());
+
+    private Flux<DataBuffer> enBloques(String json, int tamanoBloque) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> bloques = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += tamanoBloque) {
+            int fin = Math.min(bytes.length, i + tamanoBloque);
+            byte[] bloque = new byte[fin - i];
+            System.arraycopy(bytes, i, bloque, 0, bloque.length);
+            bloques.add(DefaultDataBufferFactory.sharedInstance.wrap(bloque));
+        }
+        return Flux.fromIterable(bloques);
+    }
+
+    private String respuestaHateoas(int usuarios) {
+        StringBuilder json = new StringBuilder("{\"_embedded\":{\"userList\":[");
+        for (int i = 1; i <= usuarios; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"name\":\"Usuario ").append(i)
+                    .append("\",\"email\":\"u").append(i).append("@correo.cl\",\"activo\":true")
+                    .append(",\"_links\":{\"self\":{\"href\":\"http://api/usuarios/").append(i).append("\"}}}");
+        }
+        return json.append("]},\"_links\":{\"self\":{\"href\":\"http://api/usuarios\"}}}").toString();
+    }
+
+    @Test
+    void testLeeTodosLosUsuarios_EnBloquesPequenos() {
+        // Arrange
+        Flux<DataBuffer> body = enBloques(respuestaHateoas(50), 7);
+
+        // Act
+        UserDirectorySnapshot snapshot = reader.read(body).block();
+
+        // Assert
+        assertNotNull(snapshot);
+        assertEquals(50, snapshot.size());
+        assertEquals("Usuario 42", snapshot.findById(42L).get().getName());
+        assertTrue(snapshot.findByEmail("U7@correo.cl").isPresent());
+    }
+
+    @Test
+    void testListaVacia_DevuelveInstantaneaVacia() {
+        // Arrange
+        Flux<DataBuffer> body = enBloques("{\"_embedded\":{\"userList\":[]}}", 4);
+
+        // Act
+        UserDirectorySnapshot snapshot = reader.read(body).block();
+
+        // Assert
+        assertNotNull(snapshot);
+        assertTrue(snapshot.isEmpty());
+    }
+
+    @Test
+    void testRespuestaSinUserList_NoDevuelveInstantanea() {
+        // Arrange
+        Flux<DataBuffer> body = enBloques("{\"_links\":{\"self\":{\"href\":\"http://api/usuarios\"}}}", 5);
+
+        // Act & Assert
+        assertNull(reader.read(body).block());
+    }
+
+    @Test
+    void testJsonTruncado_TerminaEnError() {
+        // Arrange
+        String truncado = respuestaHateoas(3).substring(0, 60);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> reader.read(enBloques(truncado, 8)).block());
+    }
+}
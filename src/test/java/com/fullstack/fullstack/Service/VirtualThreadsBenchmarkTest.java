@@ -0,0 +1,121 @@
+package com.fullstack.fullstack.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark: peticiones que esperan en .block() a una API externa lenta,
+ * atendidas por un pool de hilos de plataforma (como Tomcat, 200 hilos) o por hilos virtuales
+ *
+ * Excluido de mvn test; se ejecuta con: mvn test -Pbenchmark (-Dpeticiones=N para cambiar la carga)
+ */
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+    private static final int PETICIONES = Integer.getInteger("peticiones", 2000);
+    private static final int HILOS_TOMCAT = 200;
+    private static final Duration LATENCIA_API = Duration.ofMillis(100);
+
+    private DisposableServer servidor;
+    private ConnectionProvider conexiones;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() {
+        // API externa simulada (no bloqueante): responde tras LATENCIA_API sin límite de concurrencia propio
+        servidor = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(rutas -> rutas.get("/api/usuarios/encontrar/1", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.delay(LATENCIA_API)
+                                .thenReturn("{\"id\":1,\"name\":\"Ana\",\"email\":\"ana@correo.cl\",\"activo\":true}"))))
+                .bindNow();
+
+        conexiones = ConnectionProvider.builder("benchmark").maxConnections(PETICIONES).pendingAcquireMaxCount(-1).build();
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + servidor.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(conexiones)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.disposeNow();
+        conexiones.dispose();
+    }
+
+    @Test
+    void testHilosVirtualesFrenteAPoolDePlataforma() throws Exception {
+        // Arrange: calentamiento del JIT y del pool de conexiones, para medir solo las esperas
+        ejecutar(Executors.newVirtualThreadPerTaskExecutor(), PETICIONES);
+
+        // Act
+        Resultado plataforma = ejecutar(Executors.newFixedThreadPool(HILOS_TOMCAT), PETICIONES);
+        Resultado virtuales = ejecutar(Executors.newVirtualThreadPerTaskExecutor(), PETICIONES);
+
+        // Assert
+        System.out.printf("%-12s %10s %10s %10s%n", "modo", "req/s", "p50 ms", "p99 ms");
+        System.out.printf("%-12s %10.0f %10d %10d%n", "plataforma", plataforma.throughput(), plataforma.p50(), plataforma.p99());
+        System.out.printf("%-12s %10.0f %10d %10d%n", "virtuales", virtuales.throughput(), virtuales.p50(), virtuales.p99());
+        assertEquals(0, plataforma.errores());
+        assertEquals(0, virtuales.errores());
+    }
+
+    /**
+     * Lanza todas las peticiones a la vez; la latencia de cada una incluye la espera por un hilo libre
+     */
+    private Resultado ejecutar(ExecutorService ejecutor, int peticiones) throws Exception {
+        long inicio = System.nanoTime();
+        List<Future<Long>> futuros = new ArrayList<>(peticiones);
+        try (ejecutor) {
+            for (int i = 0; i < peticiones; i++) {
+                long encolada = System.nanoTime();
+                futuros.add(ejecutor.submit(() -> {
+                    webClient.get().uri("/api/usuarios/encontrar/1").retrieve().bodyToMono(String.class).block();
+                    return System.nanoTime() - encolada;
+                }));
+            }
+        }
+        long duracion = System.nanoTime() - inicio;
+
+        long[] latencias = new long[peticiones];
+        int errores = 0;
+        for (int i = 0; i < peticiones; i++) {
+            try {
+                latencias[i] = futuros.get(i).get(1, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                errores++;
+                latencias[i] = Long.MAX_VALUE;
+            }
+        }
+        Arrays.sort(latencias);
+        return new Resultado(peticiones * 1e9 / duracion,
+                latencias[(int) Math.ceil(0.50 * peticiones) - 1] / 1_000_000,
+                latencias[(int) Math.ceil(0.99 * peticiones) - 1] / 1_000_000,
+                errores);
+    }
+
+    private record Resultado(double throughput, long p50, long p99, int errores) {
+    }
+}